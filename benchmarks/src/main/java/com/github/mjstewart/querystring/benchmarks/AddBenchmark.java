@@ -0,0 +1,70 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations appending pairs, alone and combined with removals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AddBenchmark {
+
+    /**
+     * The pairs passed to {@code addAll}, every other pair shares the 'amenity' key so the duplicate check scans a
+     * growing list of values.
+     */
+    @State(Scope.Benchmark)
+    public static class AddedPairs {
+
+        @Param({"10", "100", "1000", "5000"})
+        public int addedPairs;
+
+        public List<List<String>> pairs;
+
+        @Setup
+        public void setup() {
+            pairs = new ArrayList<>(addedPairs);
+            for (int i = 0; i < addedPairs; i++) {
+                pairs.add(Arrays.asList(i % 2 == 0 ? "amenity" : "k" + i, "v" + i));
+            }
+        }
+    }
+
+    @Benchmark
+    public String add(HelperState state) {
+        return state.helper.add(state.queryString, "amenity", "gym");
+    }
+
+    @Benchmark
+    public String addAll(HelperState state, AddedPairs added) {
+        return state.helper.addAll(state.queryString, added.pairs);
+    }
+
+    @Benchmark
+    public String removeAllAndAdd(HelperState state) {
+        return state.helper.removeAllAndAdd(state.queryString, state.removeKeys, state.addPairs);
+    }
+
+    @Benchmark
+    public String removeNthAndAdd(HelperState state) {
+        return state.helper.removeNthAndAdd(state.queryString, state.removeInstructions, state.addPairs);
+    }
+}
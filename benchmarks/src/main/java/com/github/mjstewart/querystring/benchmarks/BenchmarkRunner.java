@@ -0,0 +1,37 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler so every result includes the allocation rate and bytes allocated per
+ * operation ({@code gc.alloc.rate.norm}), writing the results to {@code jmh-result.json}.
+ *
+ * <p>Accepts the usual JMH command line, for example only the sort benchmarks on typical input.</p>
+ * <blockquote>
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar SortBenchmark -p input=TYPICAL
+ * </pre>
+ * </blockquote>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("jmh-result.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,56 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.util.QueryStringPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chained builder edits, plans and URL joining.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+    private static final String DEFINITION = "remove region amenity; set page=0; add sort=price,asc";
+
+    private static final QueryStringPlan PLAN = QueryStringPlan.compile(DEFINITION);
+
+    @Benchmark
+    public String on(HelperState state) {
+        return state.helper.on(state.queryString)
+                .removeAll(state.removeKeys)
+                .resetPageNumber()
+                .createNewSort(state.newSort)
+                .build();
+    }
+
+    @Benchmark
+    public String applyPlanDefinition(HelperState state) {
+        return state.helper.applyPlan(state.queryString, DEFINITION);
+    }
+
+    @Benchmark
+    public String applyPlanCompiled(HelperState state) {
+        return state.helper.applyPlan(state.queryString, PLAN);
+    }
+
+    @Benchmark
+    public String url(HelperState state) {
+        return state.helper.url("/hotels", state.queryString);
+    }
+
+    @Benchmark
+    public String urlBuilder(HelperState state) {
+        return state.helper.urlBuilder("/hotels").apply(state.queryString);
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read only operations which never rebuild the query string.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetBenchmark {
+
+    @Benchmark
+    public String getFirstValue(HelperState state) {
+        return state.helper.getFirstValue(state.queryString, "city");
+    }
+
+    @Benchmark
+    public List<String> getAllValues(HelperState state) {
+        return state.helper.getAllValues(state.queryString, "sort");
+    }
+
+    @Benchmark
+    public String getPageNumber(HelperState state) {
+        return state.helper.getPageNumber(state.queryString);
+    }
+
+    @Benchmark
+    public boolean isFieldSorted(HelperState state) {
+        return state.helper.isFieldSorted(state.queryString, "stars");
+    }
+
+    @Benchmark
+    public String getCurrentSortDirectionAsc(HelperState state) {
+        return state.helper.getCurrentSortDirectionAsc(state.queryString, "name");
+    }
+
+    @Benchmark
+    public String getCurrentSortDirectionDesc(HelperState state) {
+        return state.helper.getCurrentSortDirectionDesc(state.queryString, "name");
+    }
+
+    @Benchmark
+    public String valueWhenMatchesSortAsc(HelperState state) {
+        return state.helper.valueWhenMatchesSortAsc(state.queryString, "none", "match", "other").apply("name");
+    }
+
+    @Benchmark
+    public String valueWhenMatchesSortDesc(HelperState state) {
+        return state.helper.valueWhenMatchesSortDesc(state.queryString, "none", "match", "other").apply("name");
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The helper and arguments shared by every benchmark thread.
+ *
+ * <p>{@code cached} compares the default helper, which parses on every call, with one reading parsed query strings
+ * from a {@code QueryStringCache} as configured by {@code new QueryStringDialect(QueryStringCache.lru(n))}.</p>
+ */
+@State(Scope.Benchmark)
+public class HelperState {
+
+    @Param({"EMPTY", "TYPICAL", "DUPLICATES", "PATHOLOGICAL"})
+    public QueryStrings input;
+
+    @Param({"false", "true"})
+    public boolean cached;
+
+    public QueryStringHelper helper;
+
+    public String queryString;
+
+    public final List<String> removeKeys = Arrays.asList("region", "amenity");
+
+    public final List<Integer> relativeIndexes = Arrays.asList(0, 1);
+
+    public final List<String> replaceValues = Arrays.asList("name,desc", "stars,asc");
+
+    public final List<List<String>> addPairs = Arrays.asList(
+            Arrays.asList("amenity", "gym"),
+            Arrays.asList("region", "south"),
+            Arrays.asList("size", "50"));
+
+    public final Map<String, List<Integer>> removeInstructions =
+            Collections.singletonMap("sort", Collections.singletonList(0));
+
+    public final Map<String, Map<Integer, String>> replaceInstructions = new HashMap<>();
+
+    public final List<String> sortFields = Arrays.asList("name", "stars,desc", "price", "city,desc", "field3");
+
+    public final List<String> newSort = Arrays.asList("price,asc", "name,desc");
+
+    @Setup
+    public void setup() {
+        helper = cached ? new QueryStringHelper(QueryStringCache.lru(16)) : new QueryStringHelper();
+        queryString = input.get();
+        replaceInstructions.put("sort", Collections.singletonMap(0, "price,asc"));
+        replaceInstructions.put("page", Collections.singletonMap(0, "0"));
+    }
+}
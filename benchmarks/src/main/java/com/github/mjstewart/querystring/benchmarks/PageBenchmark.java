@@ -0,0 +1,63 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.util.Pagination;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Numeric adjustment and paging operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageBenchmark {
+
+    @Benchmark
+    public String adjustNumericValueBy(HelperState state) {
+        return state.helper.adjustNumericValueBy(state.queryString, "page", state.relativeIndexes, 2);
+    }
+
+    @Benchmark
+    public String adjustFirstNumericValueBy(HelperState state) {
+        return state.helper.adjustFirstNumericValueBy(state.queryString, "page", 2);
+    }
+
+    @Benchmark
+    public String incrementPage(HelperState state) {
+        return state.helper.incrementPage(state.queryString);
+    }
+
+    @Benchmark
+    public String incrementPageBounded(HelperState state) {
+        return state.helper.incrementPage(state.queryString, 5);
+    }
+
+    @Benchmark
+    public String decrementPage(HelperState state) {
+        return state.helper.decrementPage(state.queryString);
+    }
+
+    @Benchmark
+    public String resetPageNumber(HelperState state) {
+        return state.helper.resetPageNumber(state.queryString);
+    }
+
+    @Benchmark
+    public String setPageNumber(HelperState state) {
+        return state.helper.setPageNumber(state.queryString, "9");
+    }
+
+    @Benchmark
+    public Pagination pagination(HelperState state) {
+        return state.helper.pagination(state.queryString, 3, 50, 10);
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.util.PercentCodec;
+import com.github.mjstewart.querystring.util.QueryParamCodec;
+import com.github.mjstewart.querystring.util.QueryString;
+import com.github.mjstewart.querystring.util.QueryStringSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the original parse, which unescaped the whole query string then split it with {@code Pattern} and
+ * {@code String.split("=")} wrapping every pair in an {@code Optional}, with the single pass lexer behind
+ * {@code QueryString.of} and {@code QueryStringSnapshot.of}.
+ *
+ * <p>{@code splitOptional} reproduces the original {@code createState} using the same public {@code KeyValue}
+ * factory and the same codec so only the parsing differs.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    private static final Pattern PAIR_SEPARATOR = Pattern.compile("&");
+
+    @State(Scope.Benchmark)
+    public static class ParseState {
+
+        @Param({"TYPICAL", "PATHOLOGICAL"})
+        public QueryStrings input;
+
+        public QueryParamCodec codec;
+
+        public String queryString;
+
+        @Setup
+        public void setup() {
+            codec = PercentCodec.of();
+            queryString = input.get();
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<QueryString.KeyValueIndex>> splitOptional(ParseState state) {
+        String unescaped = state.codec.unescapeQueryParam(state.queryString);
+        int[] index = {0};
+        Map<String, List<QueryString.KeyValueIndex>> stateMap = new HashMap<>();
+        PAIR_SEPARATOR.splitAsStream(unescaped)
+                .map(QueryString.KeyValue::fromKeyValue)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .forEach(keyValue -> stateMap.computeIfAbsent(keyValue.getKey(), k -> new ArrayList<>())
+                        .add(keyValue.toIndex(index[0]++)));
+        return stateMap;
+    }
+
+    @Benchmark
+    public QueryString lexer(ParseState state) {
+        return QueryString.of(state.queryString, state.codec);
+    }
+
+    @Benchmark
+    public QueryStringSnapshot lexerSnapshot(ParseState state) {
+        return QueryStringSnapshot.of(state.queryString, state.codec);
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.util.PercentCodec;
+
+/**
+ * The escaped query strings every benchmark is run against.
+ *
+ * <p>Each shape contains the {@code page}, {@code sort} and {@code city} keys the benchmarks operate on, apart from
+ * {@code EMPTY} which measures the fixed cost of an operation.</p>
+ */
+public enum QueryStrings {
+
+    EMPTY(""),
+
+    /**
+     * A typical search page, 9 pairs.
+     */
+    TYPICAL("city=dallas&region=north&amenity=pool&amenity=wifi&page=3&size=20&sort=name,asc&sort=stars,desc"
+            + "&q=hotel%20deals"),
+
+    /**
+     * {@code sort} repeated 10 times.
+     */
+    DUPLICATES(duplicates()),
+
+    /**
+     * 5,000 pairs, every 10th value being a long escaped UTF-8 string.
+     */
+    PATHOLOGICAL(pathological());
+
+    private static final int PATHOLOGICAL_PAIRS = 5000;
+
+    private final String queryString;
+
+    QueryStrings(String queryString) {
+        this.queryString = queryString;
+    }
+
+    public String get() {
+        return queryString;
+    }
+
+    private static String duplicates() {
+        StringBuilder builder = new StringBuilder("city=dallas&page=1");
+        for (int i = 0; i < 10; i++) {
+            builder.append("&sort=field").append(i).append(i % 2 == 0 ? ",asc" : ",desc");
+        }
+        return builder.toString();
+    }
+
+    private static String pathological() {
+        PercentCodec codec = PercentCodec.of();
+        // cafe with an acute e, Tokyo in kanji and a snowman so every UTF-8 width is escaped.
+        StringBuilder unicode = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            unicode.append("caf\u00e9 \u6771\u4eac \u2603 ");
+        }
+        String longValue = codec.escapeQueryParam(unicode.toString());
+
+        StringBuilder builder = new StringBuilder(PATHOLOGICAL_PAIRS * 32);
+        builder.append("city=dallas&page=7&sort=name,asc");
+        for (int i = 3; i < PATHOLOGICAL_PAIRS; i++) {
+            builder.append("&key").append(i % 100).append('=');
+            builder.append(i % 10 == 0 ? longValue : "value" + i);
+        }
+        return builder.toString();
+    }
+}
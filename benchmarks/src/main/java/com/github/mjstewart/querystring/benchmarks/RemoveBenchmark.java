@@ -0,0 +1,57 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations removing pairs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RemoveBenchmark {
+
+    @Benchmark
+    public String removeFirst(HelperState state) {
+        return state.helper.removeFirst(state.queryString, "sort");
+    }
+
+    @Benchmark
+    public String removeAll(HelperState state) {
+        return state.helper.removeAll(state.queryString, state.removeKeys);
+    }
+
+    @Benchmark
+    public String removeN(HelperState state) {
+        return state.helper.removeN(state.queryString, "sort", 2);
+    }
+
+    @Benchmark
+    public String removeNth(HelperState state) {
+        return state.helper.removeNth(state.queryString, "sort", 1);
+    }
+
+    @Benchmark
+    public String removeManyNth(HelperState state) {
+        return state.helper.removeManyNth(state.queryString, "sort", state.relativeIndexes);
+    }
+
+    @Benchmark
+    public String removeKeyMatchingValue(HelperState state) {
+        return state.helper.removeKeyMatchingValue(state.queryString, "amenity", "pool");
+    }
+
+    @Benchmark
+    public String removeAnyKeyMatchingValue(HelperState state) {
+        return state.helper.removeAnyKeyMatchingValue(state.queryString, "dallas");
+    }
+}
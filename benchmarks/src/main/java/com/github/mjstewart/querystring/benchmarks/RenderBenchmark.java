@@ -0,0 +1,194 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.dialect.QueryStringDialect;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders {@code templates/hotels.html} through a {@code TemplateEngine} with the {@code QueryStringDialect}
+ * registered, so the results include expression parsing, OGNL method resolution and the inline list literals
+ * that microbenchmarks leave out.
+ *
+ * <p>The score is renders per second. {@code gc.alloc.rate.norm} from the GC profiler is the bytes allocated per
+ * render. Output goes to a discarding {@code Writer} so only rendering is measured.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+    private static final String TEMPLATE = "hotels";
+
+    private static final Writer DISCARD = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void write(String value, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class RenderState {
+
+        @Param({"TYPICAL", "DUPLICATES"})
+        public QueryStrings input;
+
+        @Param({"false", "true"})
+        public boolean cached;
+
+        public TemplateEngine engine;
+
+        public Context context;
+
+        @Setup
+        public void setup() {
+            ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+            resolver.setPrefix("templates/");
+            resolver.setSuffix(".html");
+            resolver.setTemplateMode(TemplateMode.HTML);
+            resolver.setCacheable(true);
+
+            engine = new TemplateEngine();
+            engine.setTemplateResolver(resolver);
+            engine.addDialect(cached ? new QueryStringDialect(QueryStringCache.lru(1000)) : new QueryStringDialect());
+
+            context = new Context();
+            context.setVariable("query", input.get());
+            context.setVariable("facets", facets());
+            context.setVariable("columns", Arrays.asList("name", "city", "region", "stars", "price", "rating"));
+            context.setVariable("hotels", hotels());
+
+            // Parses the template outside of the measurement.
+            engine.process(TEMPLATE, context, DISCARD);
+        }
+
+        private static List<Facet> facets() {
+            return Arrays.asList(
+                    new Facet("region", "north", "south", "east", "west", "central"),
+                    new Facet("stars", "1", "2", "3", "4", "5"),
+                    new Facet("amenity", "pool", "wifi", "gym", "spa", "parking"),
+                    new Facet("price", "0-100", "100-200", "200-300", "300-400", "400+"),
+                    new Facet("rating", "5", "6", "7", "8", "9"));
+        }
+
+        private static List<Hotel> hotels() {
+            List<Hotel> hotels = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                hotels.add(new Hotel("Hotel " + i, i % 2 == 0 ? "north" : "south", i % 5 + 1, 80 + i * 15, 5 + i % 5));
+            }
+            return hotels;
+        }
+    }
+
+    /**
+     * Public so OGNL can read the properties, {@code Map.Entry} implementations are not accessible on Java 9+.
+     */
+    public static final class Facet {
+        private final String key;
+        private final List<String> options;
+
+        Facet(String key, String... options) {
+            this.key = key;
+            this.options = Arrays.asList(options);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public List<String> getOptions() {
+            return options;
+        }
+    }
+
+    public static final class Hotel {
+        private final String name;
+        private final String region;
+        private final int stars;
+        private final int price;
+        private final int rating;
+
+        Hotel(String name, String region, int stars, int price, int rating) {
+            this.name = name;
+            this.region = region;
+            this.stars = stars;
+            this.price = price;
+            this.rating = rating;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getCity() {
+            return "dallas";
+        }
+
+        public String getRegion() {
+            return region;
+        }
+
+        public int getStars() {
+            return stars;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void render1Thread(RenderState state) {
+        state.engine.process(TEMPLATE, state.context, DISCARD);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void render8Threads(RenderState state) {
+        state.engine.process(TEMPLATE, state.context, DISCARD);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public void render32Threads(RenderState state) {
+        state.engine.process(TEMPLATE, state.context, DISCARD);
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations replacing existing values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplaceBenchmark {
+
+    @Benchmark
+    public String replaceFirst(HelperState state) {
+        return state.helper.replaceFirst(state.queryString, "city", "houston");
+    }
+
+    @Benchmark
+    public String replaceNth(HelperState state) {
+        return state.helper.replaceNth(state.queryString, state.replaceInstructions);
+    }
+
+    @Benchmark
+    public String replaceN(HelperState state) {
+        return state.helper.replaceN(state.queryString, "sort", state.replaceValues);
+    }
+}
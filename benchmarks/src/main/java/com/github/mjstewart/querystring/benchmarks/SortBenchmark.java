@@ -0,0 +1,75 @@
+package com.github.mjstewart.querystring.benchmarks;
+
+import com.github.mjstewart.querystring.util.SortDirection;
+import com.github.mjstewart.querystring.util.SortHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring style {@code sort} operations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Benchmark
+    public String setSortDirectionAsc(HelperState state) {
+        return state.helper.setSortDirectionAsc(state.queryString, "stars");
+    }
+
+    @Benchmark
+    public String setSortDirectionDesc(HelperState state) {
+        return state.helper.setSortDirectionDesc(state.queryString, "name");
+    }
+
+    @Benchmark
+    public String toggleSortDefaultAsc(HelperState state) {
+        return state.helper.toggleSortDefaultAsc(state.queryString, "name");
+    }
+
+    @Benchmark
+    public String toggleSortDefaultDesc(HelperState state) {
+        return state.helper.toggleSortDefaultDesc(state.queryString, "stars");
+    }
+
+    @Benchmark
+    public String keepSortField(HelperState state) {
+        return state.helper.keepSortField(state.queryString, "name");
+    }
+
+    @Benchmark
+    public String fieldSorterAsc(HelperState state) {
+        return state.helper.fieldSorterAsc(state.queryString).apply("name");
+    }
+
+    @Benchmark
+    public String fieldSorterDesc(HelperState state) {
+        return state.helper.fieldSorterDesc(state.queryString).apply("price");
+    }
+
+    @Benchmark
+    public Map<String, SortHeader> sortHeaders(HelperState state) {
+        return state.helper.sortHeaders(state.queryString, state.sortFields);
+    }
+
+    @Benchmark
+    public SortHeader sortHeader(HelperState state) {
+        return state.helper.sortHeader(state.queryString, "name", SortDirection.ASC, null, null, null);
+    }
+
+    @Benchmark
+    public String createNewSort(HelperState state) {
+        return state.helper.createNewSort(state.queryString, state.newSort);
+    }
+}
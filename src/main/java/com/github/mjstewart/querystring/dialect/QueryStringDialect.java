@@ -1,17 +1,132 @@
 package com.github.mjstewart.querystring.dialect;
 
-import org.thymeleaf.dialect.AbstractDialect;
+import com.github.mjstewart.querystring.dialect.processor.PageAttributeProcessor;
+import com.github.mjstewart.querystring.dialect.processor.PaginationElementProcessor;
+import com.github.mjstewart.querystring.dialect.processor.PaginationMarkup;
+import com.github.mjstewart.querystring.dialect.processor.PlanAttributeProcessor;
+import com.github.mjstewart.querystring.dialect.processor.RemoveAttributeProcessor;
+import com.github.mjstewart.querystring.dialect.processor.SortAttributeProcessor;
+import com.github.mjstewart.querystring.dialect.processor.SortHeaderAttributeProcessor;
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+import com.github.mjstewart.querystring.util.QueryParamCodec;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import com.github.mjstewart.querystring.util.QueryStringLimits;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
 import org.thymeleaf.dialect.IExpressionObjectDialect;
 import org.thymeleaf.expression.IExpressionObjectFactory;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
 
-public class QueryStringDialect extends AbstractDialect implements IExpressionObjectDialect {
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Provides the {@code #qs} and {@code #qsr} expression objects along with the {@code qs:*} attributes and
+ * {@code <qs:pagination>} element.
+ */
+public class QueryStringDialect extends AbstractProcessorDialect implements IExpressionObjectDialect {
+
+    public static final String PREFIX = "qs";
+
+    // Built once so the cache, codec and #qs instance are shared by every template.
+    private final IExpressionObjectFactory expressionObjectFactory;
+
+    private final Map<String, PaginationMarkup> paginationMarkups;
 
     public QueryStringDialect() {
-        super("queryStringHelper");
+        this(null);
+    }
+
+    /**
+     * @param cache Caches parsed query strings across all templates, or {@code null} to disable caching.
+     */
+    public QueryStringDialect(QueryStringCache cache) {
+        this(cache, QueryStringHelper.defaultCodec());
+    }
+
+    /**
+     * @param cache Caches parsed query strings across all templates, or {@code null} to disable caching.
+     * @param codec Handles escaping/unescaping for all templates.
+     */
+    public QueryStringDialect(QueryStringCache cache, QueryParamCodec codec) {
+        this(cache, codec, Collections.emptyMap());
+    }
+
+    /**
+     * @param cache             Caches parsed query strings across all templates, or {@code null} to disable caching.
+     * @param codec             Handles escaping/unescaping for all templates.
+     * @param paginationMarkups Additional {@code <qs:pagination markup="name">} markups by name, replacing the
+     *                          built in {@code 'bootstrap'} and {@code 'semantic'} markups of the same name.
+     */
+    public QueryStringDialect(QueryStringCache cache, QueryParamCodec codec,
+                              Map<String, PaginationMarkup> paginationMarkups) {
+        this(cache, codec, paginationMarkups, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * Measures every {@code #qs} and {@code #qsr} operation. The dialect never publishes {@code QueryStringStatistics}
+     * to JMX, call {@code register()} and {@code unregister()} from the application instead. Supply the same
+     * {@code metrics} to {@code QueryStringCache.of} and {@code MemoizingCodec.of} to also count cache and escape
+     * table hits.
+     *
+     * @param cache             Caches parsed query strings across all templates, or {@code null} to disable caching.
+     * @param codec             Handles escaping/unescaping for all templates.
+     * @param paginationMarkups Additional {@code <qs:pagination markup="name">} markups by name.
+     * @param metrics           Receives measurements from all templates.
+     */
+    public QueryStringDialect(QueryStringCache cache, QueryParamCodec codec,
+                              Map<String, PaginationMarkup> paginationMarkups, QueryStringMetrics metrics) {
+        this(cache, codec, paginationMarkups, metrics, QueryStringLimits.UNLIMITED);
+    }
+
+    /**
+     * Applies {@code limits} to every query string before it is parsed, protecting templates from query strings
+     * crafted to be expensive to process. Exceeded limits are counted by {@code metrics}.
+     *
+     * @param cache             Caches parsed query strings across all templates, or {@code null} to disable caching.
+     * @param codec             Handles escaping/unescaping for all templates.
+     * @param paginationMarkups Additional {@code <qs:pagination markup="name">} markups by name.
+     * @param metrics           Receives measurements from all templates.
+     * @param limits            Bounds the pairs and lengths of every query string.
+     */
+    public QueryStringDialect(QueryStringCache cache, QueryParamCodec codec,
+                              Map<String, PaginationMarkup> paginationMarkups, QueryStringMetrics metrics,
+                              QueryStringLimits limits) {
+        super("queryStringHelper", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+        if (paginationMarkups == null) {
+            throw new IllegalArgumentException("paginationMarkups cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        if (limits == null) {
+            throw new IllegalArgumentException("limits cannot be null");
+        }
+        this.expressionObjectFactory = new QueryStringExpressionFactory(cache, codec, metrics, limits);
+        this.paginationMarkups = new LinkedHashMap<>();
+        this.paginationMarkups.put(PaginationElementProcessor.DEFAULT_MARKUP, PaginationMarkup.bootstrap());
+        this.paginationMarkups.put("semantic", PaginationMarkup.semanticUi());
+        this.paginationMarkups.putAll(paginationMarkups);
     }
 
     @Override
     public IExpressionObjectFactory getExpressionObjectFactory() {
-        return new QueryStringExpressionFactory();
+        return expressionObjectFactory;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        Set<IProcessor> processors = new HashSet<>();
+        processors.add(new PageAttributeProcessor(dialectPrefix));
+        processors.add(new SortAttributeProcessor(dialectPrefix));
+        processors.add(new RemoveAttributeProcessor(dialectPrefix));
+        processors.add(new PlanAttributeProcessor(dialectPrefix));
+        processors.add(new SortHeaderAttributeProcessor(dialectPrefix));
+        processors.add(new PaginationElementProcessor(dialectPrefix, paginationMarkups));
+        return processors;
     }
 }
@@ -1,9 +1,16 @@
 package com.github.mjstewart.querystring.dialect;
 
 import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+import com.github.mjstewart.querystring.util.QueryParamCodec;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import com.github.mjstewart.querystring.util.QueryStringLimits;
 import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.context.IWebContext;
 import org.thymeleaf.expression.IExpressionObjectFactory;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -13,21 +20,63 @@ public class QueryStringExpressionFactory implements IExpressionObjectFactory {
 
     private static final String EVALUATION_VARIABLE_NAME = "qs";
 
+    // Bound to the current request, built once per template render.
+    private static final String REQUEST_EVALUATION_VARIABLE_NAME = "qsr";
+
+    private static final Set<String> EXPRESSION_OBJECT_NAMES = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList(EVALUATION_VARIABLE_NAME, REQUEST_EVALUATION_VARIABLE_NAME)));
+
+    // #qs is stateless so every template shares the same instance, #qsr delegates to it as well.
+    private final QueryStringHelper helper;
+
+    public QueryStringExpressionFactory() {
+        this(null, QueryStringHelper.defaultCodec());
+    }
+
+    public QueryStringExpressionFactory(QueryStringCache cache, QueryParamCodec codec) {
+        this(cache, codec, QueryStringMetrics.NOOP);
+    }
+
+    public QueryStringExpressionFactory(QueryStringCache cache, QueryParamCodec codec, QueryStringMetrics metrics) {
+        this(cache, codec, metrics, QueryStringLimits.UNLIMITED);
+    }
+
+    public QueryStringExpressionFactory(QueryStringCache cache, QueryParamCodec codec, QueryStringMetrics metrics,
+                                        QueryStringLimits limits) {
+        this.helper = new QueryStringHelper(cache, codec, metrics, limits);
+    }
+
     @Override
     public Set<String> getAllExpressionObjectNames() {
-        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(EVALUATION_VARIABLE_NAME)));
+        return EXPRESSION_OBJECT_NAMES;
     }
 
     @Override
     public Object buildObject(IExpressionContext context, String expressionObjectName) {
         if (EVALUATION_VARIABLE_NAME.equals(expressionObjectName)) {
-            return new QueryStringHelper();
+            return helper;
+        }
+        if (REQUEST_EVALUATION_VARIABLE_NAME.equals(expressionObjectName)) {
+            return buildRequestObject(context);
         }
         return null;
     }
 
+    /**
+     * Outside of a web context there is no request, so the object behaves as though the query string is empty.
+     */
+    private RequestQueryStringHelper buildRequestObject(IExpressionContext context) {
+        if (context instanceof IWebContext) {
+            HttpServletRequest request = ((IWebContext) context).getRequest();
+            if (request != null) {
+                return new RequestQueryStringHelper(helper, request.getQueryString(), request.getRequestURI());
+            }
+        }
+        return new RequestQueryStringHelper(helper, null, null);
+    }
+
     @Override
     public boolean isCacheable(String expressionObjectName) {
-        return EVALUATION_VARIABLE_NAME.equals(expressionObjectName);
+        return EXPRESSION_OBJECT_NAMES.contains(expressionObjectName);
     }
 }
@@ -0,0 +1,46 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * Base class of the {@code qs:*} attributes which write the {@code href} of the current request with a modified
+ * query string.
+ *
+ * <p>The query string is taken from the request bound {@code #qsr} expression object, which is built once per
+ * render and caches the parsed query string. Attribute values are used as is unless they are a standard
+ * expression such as {@code ${page}}, so no expression evaluation or method invocation is needed for literal
+ * arguments.</p>
+ */
+public abstract class AbstractHrefAttributeProcessor extends AbstractAttributeTagProcessor {
+
+    // Runs before th:href so an explicit th:href still wins.
+    public static final int PRECEDENCE = 900;
+
+    private static final String HREF = "href";
+
+    protected AbstractHrefAttributeProcessor(String dialectPrefix, String attributeName) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, attributeName, true, PRECEDENCE, true);
+    }
+
+    @Override
+    protected final void doProcess(ITemplateContext context, IProcessableElementTag tag, AttributeName attributeName,
+                                   String attributeValue, IElementTagStructureHandler structureHandler) {
+        RequestQueryStringHelper qsr = ProcessorSupport.requestQueryString(context);
+        String newQueryString = newQueryString(qsr, ProcessorSupport.resolve(context, attributeValue));
+        structureHandler.setAttribute(HREF, HtmlEscape.escapeHtml4Xml(ProcessorSupport.href(qsr.getRequestURI(), newQueryString)));
+    }
+
+    /**
+     * @param qsr      The query string of the current request.
+     * @param argument The attribute value, already evaluated if it was an expression.
+     * @return The new query string.
+     */
+    protected abstract String newQueryString(RequestQueryStringHelper qsr, String argument);
+}
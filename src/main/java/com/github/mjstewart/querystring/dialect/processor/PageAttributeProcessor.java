@@ -0,0 +1,46 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.util.NumericValues;
+
+/**
+ * {@code qs:page} writes an {@code href} changing the spring {@code 'page'} key of the current query string.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <a qs:page="first">First</a>      same as #qs.resetPageNumber
+ *     <a qs:page="previous">Prev</a>    same as #qs.decrementPage
+ *     <a qs:page="next">Next</a>        same as #qs.incrementPage
+ *     <a qs:page="4">5</a>              same as #qs.setPageNumber
+ *     <a qs:page="${last}">Last</a>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public class PageAttributeProcessor extends AbstractHrefAttributeProcessor {
+
+    public static final String ATTRIBUTE_NAME = "page";
+
+    public PageAttributeProcessor(String dialectPrefix) {
+        super(dialectPrefix, ATTRIBUTE_NAME);
+    }
+
+    @Override
+    protected String newQueryString(RequestQueryStringHelper qsr, String argument) {
+        switch (argument) {
+            case "first":
+                return qsr.resetPageNumber();
+            case "previous":
+                return qsr.decrementPage();
+            case "next":
+                return qsr.incrementPage();
+            default:
+                if (!NumericValues.isLong(argument)) {
+                    throw new IllegalArgumentException("qs:page expects 'first', 'previous', 'next' or a page number but was '"
+                            + argument + "'");
+                }
+                return qsr.setPageNumber(argument);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.util.NumericValues;
+import com.github.mjstewart.querystring.util.Pagination;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.model.AttributeValueQuotes;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractElementTagProcessor;
+import org.thymeleaf.processor.element.IElementTagStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code <qs:pagination>} replaces itself with a complete pager for the current request.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <qs:pagination current="${results.number}" total="${results.totalPages}" window="10" markup="bootstrap"/>
+ *     }
+ * </pre>
+ * </blockquote>
+ *
+ * <ul>
+ * <li>{@code current} - The zero based current page (required).</li>
+ * <li>{@code total} - The total number of pages (required).</li>
+ * <li>{@code window} - The maximum number of numbered links, defaults to {@code 10}.</li>
+ * <li>{@code markup} - The name of a {@link PaginationMarkup} registered with the dialect, defaults to
+ * {@code 'bootstrap'}.</li>
+ * </ul>
+ *
+ * <p>The links are created by {@code #qs.pagination} which parses the query string once and splices each page
+ * number into the pre-rendered query string. The markup is written straight into the template model rather than
+ * evaluating expressions per link.</p>
+ */
+public class PaginationElementProcessor extends AbstractElementTagProcessor {
+
+    public static final String ELEMENT_NAME = "pagination";
+
+    public static final String DEFAULT_MARKUP = "bootstrap";
+
+    private static final int PRECEDENCE = 1000;
+
+    private static final int DEFAULT_WINDOW = 10;
+
+    private final Map<String, PaginationMarkup> markups;
+
+    /**
+     * @param dialectPrefix The dialect prefix.
+     * @param markups       The available markups by name.
+     */
+    public PaginationElementProcessor(String dialectPrefix, Map<String, PaginationMarkup> markups) {
+        super(TemplateMode.HTML, dialectPrefix, ELEMENT_NAME, true, null, false, PRECEDENCE);
+        if (markups == null) {
+            throw new IllegalArgumentException("markups cannot be null");
+        }
+        this.markups = Collections.unmodifiableMap(new LinkedHashMap<>(markups));
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IProcessableElementTag tag,
+                             IElementTagStructureHandler structureHandler) {
+        int current = intAttribute(context, tag, "current", null);
+        int total = intAttribute(context, tag, "total", null);
+        int window = intAttribute(context, tag, "window", DEFAULT_WINDOW);
+
+        String markupName = ProcessorSupport.resolve(context, tag.getAttributeValue("markup"));
+        PaginationMarkup markup = markups.get(markupName.isEmpty() ? DEFAULT_MARKUP : markupName);
+        if (markup == null) {
+            throw new IllegalArgumentException("Unknown pagination markup '" + markupName + "', expect one of " + markups.keySet());
+        }
+
+        RequestQueryStringHelper qsr = ProcessorSupport.requestQueryString(context);
+        Pagination pagination = qsr.pagination(current, total, window);
+        structureHandler.replaceWith(render(context.getModelFactory(), markup, pagination, qsr.getRequestURI()), false);
+    }
+
+    private static IModel render(IModelFactory factory, PaginationMarkup markup, Pagination pagination,
+                                 String requestURI) {
+        IModel model = factory.createModel();
+        model.add(factory.createOpenElementTag(markup.getListTag(), attributes("class", markup.getListClass()),
+                AttributeValueQuotes.DOUBLE, false));
+
+        addLink(factory, model, markup, markup.getFirstLabel(), pagination.getCurrentPage() > 0 ? pagination.getFirst() : null,
+                requestURI);
+        addLink(factory, model, markup, markup.getPreviousLabel(), pagination.getPrevious(), requestURI);
+        for (Pagination.PageLink link : pagination.getPages()) {
+            addLink(factory, model, markup, String.valueOf(link.getLabel()), link, requestURI);
+        }
+        addLink(factory, model, markup, markup.getNextLabel(), pagination.getNext(), requestURI);
+        addLink(factory, model, markup, markup.getLastLabel(),
+                pagination.getCurrentPage() < pagination.getLastPage() ? pagination.getLast() : null, requestURI);
+
+        model.add(factory.createCloseElementTag(markup.getListTag()));
+        return model;
+    }
+
+    /**
+     * @param label The link text, nothing is added if {@code null}.
+     * @param link  The target page, {@code null} adds a disabled link.
+     */
+    private static void addLink(IModelFactory factory, IModel model, PaginationMarkup markup, String label,
+                                Pagination.PageLink link, String requestURI) {
+        if (label == null) {
+            return;
+        }
+        String state = link == null ? markup.getDisabledClass() : link.isCurrent() ? markup.getActiveClass() : null;
+        boolean hasItem = markup.getItemTag() != null;
+
+        if (hasItem) {
+            model.add(factory.createOpenElementTag(markup.getItemTag(),
+                    attributes("class", classes(markup.getItemClass(), state)), AttributeValueQuotes.DOUBLE, false));
+        }
+
+        Map<String, String> linkAttributes = attributes("class", hasItem ? markup.getLinkClass() :
+                classes(markup.getLinkClass(), state));
+        if (link == null) {
+            linkAttributes.put("aria-disabled", "true");
+        } else {
+            linkAttributes.put("href", HtmlEscape.escapeHtml4Xml(ProcessorSupport.href(requestURI, link.getQueryString())));
+            if (link.isCurrent()) {
+                linkAttributes.put("aria-current", "page");
+            }
+        }
+        model.add(factory.createOpenElementTag("a", linkAttributes, AttributeValueQuotes.DOUBLE, false));
+        model.add(factory.createText(HtmlEscape.escapeHtml5Xml(label)));
+        model.add(factory.createCloseElementTag("a"));
+
+        if (hasItem) {
+            model.add(factory.createCloseElementTag(markup.getItemTag()));
+        }
+    }
+
+    private static Map<String, String> attributes(String name, String value) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        if (value != null && !value.isEmpty()) {
+            attributes.put(name, value);
+        }
+        return attributes;
+    }
+
+    private static String classes(String base, String state) {
+        if (state == null || state.isEmpty()) {
+            return base;
+        }
+        return base == null || base.isEmpty() ? state : base + " " + state;
+    }
+
+    private static int intAttribute(ITemplateContext context, IProcessableElementTag tag, String name,
+                                    Integer defaultValue) {
+        String value = ProcessorSupport.resolve(context, tag.getAttributeValue(name));
+        if (value.isEmpty() && defaultValue != null) {
+            return defaultValue;
+        }
+        long parsed = NumericValues.parseLong(value, Long.MIN_VALUE);
+        if (parsed < Integer.MIN_VALUE || parsed > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("qs:pagination expects a number for '" + name + "' but was '" + value + "'");
+        }
+        return (int) parsed;
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+/**
+ * Describes the markup written by {@code <qs:pagination>}.
+ *
+ * <p>The pager is a list element containing an optional item element per link. The active and disabled classes are
+ * added to the item element, or to the link itself when there is no item element.</p>
+ *
+ * <blockquote>
+ * <pre>
+ *     bootstrap()
+ *
+ *     {@code
+ *     <ul class="pagination">
+ *         <li class="page-item disabled"><a class="page-link" aria-disabled="true">&laquo;</a></li>
+ *         <li class="page-item active"><a class="page-link" href="/hotels?page=0" aria-current="page">1</a></li>
+ *         <li class="page-item"><a class="page-link" href="/hotels?page=1">2</a></li>
+ *         <li class="page-item"><a class="page-link" href="/hotels?page=1">&raquo;</a></li>
+ *     </ul>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public final class PaginationMarkup {
+
+    private final String listTag;
+    private final String listClass;
+    private final String itemTag;
+    private final String itemClass;
+    private final String linkClass;
+    private final String activeClass;
+    private final String disabledClass;
+    private final String firstLabel;
+    private final String previousLabel;
+    private final String nextLabel;
+    private final String lastLabel;
+
+    private PaginationMarkup(Builder builder) {
+        if (builder.listTag == null || builder.listTag.trim().isEmpty()) {
+            throw new IllegalArgumentException("listTag cannot be null or blank");
+        }
+        this.listTag = builder.listTag;
+        this.listClass = builder.listClass;
+        this.itemTag = builder.itemTag;
+        this.itemClass = builder.itemClass;
+        this.linkClass = builder.linkClass;
+        this.activeClass = builder.activeClass;
+        this.disabledClass = builder.disabledClass;
+        this.firstLabel = builder.firstLabel;
+        this.previousLabel = builder.previousLabel;
+        this.nextLabel = builder.nextLabel;
+        this.lastLabel = builder.lastLabel;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return Bootstrap 4 {@code .pagination} markup.
+     */
+    public static PaginationMarkup bootstrap() {
+        return builder().build();
+    }
+
+    /**
+     * @return Semantic UI {@code .ui.pagination.menu} markup.
+     */
+    public static PaginationMarkup semanticUi() {
+        return builder()
+                .listTag("div")
+                .listClass("ui pagination menu")
+                .itemTag(null)
+                .itemClass(null)
+                .linkClass("item")
+                .build();
+    }
+
+    public String getListTag() {
+        return listTag;
+    }
+
+    public String getListClass() {
+        return listClass;
+    }
+
+    /**
+     * @return The element wrapping each link, or {@code null} if links are direct children of the list.
+     */
+    public String getItemTag() {
+        return itemTag;
+    }
+
+    public String getItemClass() {
+        return itemClass;
+    }
+
+    public String getLinkClass() {
+        return linkClass;
+    }
+
+    public String getActiveClass() {
+        return activeClass;
+    }
+
+    public String getDisabledClass() {
+        return disabledClass;
+    }
+
+    /**
+     * @return The label of the first page link, or {@code null} to omit it.
+     */
+    public String getFirstLabel() {
+        return firstLabel;
+    }
+
+    /**
+     * @return The label of the previous page link, or {@code null} to omit it.
+     */
+    public String getPreviousLabel() {
+        return previousLabel;
+    }
+
+    /**
+     * @return The label of the next page link, or {@code null} to omit it.
+     */
+    public String getNextLabel() {
+        return nextLabel;
+    }
+
+    /**
+     * @return The label of the last page link, or {@code null} to omit it.
+     */
+    public String getLastLabel() {
+        return lastLabel;
+    }
+
+    /**
+     * Starts with the {@link #bootstrap()} markup.
+     */
+    public static final class Builder {
+        private String listTag = "ul";
+        private String listClass = "pagination";
+        private String itemTag = "li";
+        private String itemClass = "page-item";
+        private String linkClass = "page-link";
+        private String activeClass = "active";
+        private String disabledClass = "disabled";
+        private String firstLabel;
+        private String previousLabel = "\u00ab";
+        private String nextLabel = "\u00bb";
+        private String lastLabel;
+
+        private Builder() {
+        }
+
+        public Builder listTag(String listTag) {
+            this.listTag = listTag;
+            return this;
+        }
+
+        public Builder listClass(String listClass) {
+            this.listClass = listClass;
+            return this;
+        }
+
+        public Builder itemTag(String itemTag) {
+            this.itemTag = itemTag;
+            return this;
+        }
+
+        public Builder itemClass(String itemClass) {
+            this.itemClass = itemClass;
+            return this;
+        }
+
+        public Builder linkClass(String linkClass) {
+            this.linkClass = linkClass;
+            return this;
+        }
+
+        public Builder activeClass(String activeClass) {
+            this.activeClass = activeClass;
+            return this;
+        }
+
+        public Builder disabledClass(String disabledClass) {
+            this.disabledClass = disabledClass;
+            return this;
+        }
+
+        public Builder firstLabel(String firstLabel) {
+            this.firstLabel = firstLabel;
+            return this;
+        }
+
+        public Builder previousLabel(String previousLabel) {
+            this.previousLabel = previousLabel;
+            return this;
+        }
+
+        public Builder nextLabel(String nextLabel) {
+            this.nextLabel = nextLabel;
+            return this;
+        }
+
+        public Builder lastLabel(String lastLabel) {
+            this.lastLabel = lastLabel;
+            return this;
+        }
+
+        public PaginationMarkup build() {
+            return new PaginationMarkup(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+
+/**
+ * {@code qs:plan} writes an {@code href} applying a {@code QueryStringPlan} definition to the current query string,
+ * the same as {@code #qs.applyPlan}.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <a qs:plan="remove page sort; add sort=price,asc">Cheapest first</a>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public class PlanAttributeProcessor extends AbstractHrefAttributeProcessor {
+
+    public static final String ATTRIBUTE_NAME = "plan";
+
+    public PlanAttributeProcessor(String dialectPrefix) {
+        super(dialectPrefix, ATTRIBUTE_NAME);
+    }
+
+    @Override
+    protected String newQueryString(RequestQueryStringHelper qsr, String argument) {
+        return qsr.applyPlan(argument);
+    }
+}
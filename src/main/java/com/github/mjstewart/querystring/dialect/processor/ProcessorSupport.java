@@ -0,0 +1,58 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.standard.expression.StandardExpressions;
+
+/**
+ * Shared by the {@code qs:*} processors.
+ */
+final class ProcessorSupport {
+
+    private static final String REQUEST_OBJECT_NAME = "qsr";
+
+    private ProcessorSupport() {
+    }
+
+    /**
+     * @return The {@code #qsr} object of the current render, which caches the parsed query string.
+     */
+    static RequestQueryStringHelper requestQueryString(ITemplateContext context) {
+        return (RequestQueryStringHelper) context.getExpressionObjects().getObject(REQUEST_OBJECT_NAME);
+    }
+
+    /**
+     * Outside of a web context there is no request URI, so a relative link containing only the query string is
+     * returned.
+     */
+    static String href(String requestURI, String queryString) {
+        String query = queryString == null ? "" : queryString;
+        if (requestURI == null || requestURI.isEmpty()) {
+            return "?" + query;
+        }
+        return query.isEmpty() ? requestURI : requestURI + "?" + query;
+    }
+
+    /**
+     * @return The evaluated expression if {@code value} is a standard expression such as {@code ${page}}, otherwise
+     * the trimmed {@code value}. {@code null} is treated as empty.
+     */
+    static String resolve(ITemplateContext context, String value) {
+        String trimmed = value == null ? "" : value.trim();
+        if (!isExpression(trimmed)) {
+            return trimmed;
+        }
+        Object result = StandardExpressions.getExpressionParser(context.getConfiguration())
+                .parseExpression(context, trimmed)
+                .execute(context);
+        return result == null ? "" : result.toString().trim();
+    }
+
+    private static boolean isExpression(String value) {
+        if (value.length() < 3 || value.charAt(1) != '{' || value.charAt(value.length() - 1) != '}') {
+            return false;
+        }
+        char c = value.charAt(0);
+        return c == '$' || c == '*' || c == '#';
+    }
+}
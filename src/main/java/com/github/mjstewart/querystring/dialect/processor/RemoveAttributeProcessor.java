@@ -0,0 +1,38 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * {@code qs:remove} writes an {@code href} removing every pair having one of the whitespace separated keys, the same
+ * as {@code #qs.removeAll}. The keys are only ever treated as keys, so an evaluated value such as {@code ${keys}}
+ * cannot add other operations. An empty value leaves the query string unchanged.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <a qs:remove="region page">Clear region</a>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public class RemoveAttributeProcessor extends AbstractHrefAttributeProcessor {
+
+    public static final String ATTRIBUTE_NAME = "remove";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public RemoveAttributeProcessor(String dialectPrefix) {
+        super(dialectPrefix, ATTRIBUTE_NAME);
+    }
+
+    @Override
+    protected String newQueryString(RequestQueryStringHelper qsr, String argument) {
+        if (argument.isEmpty()) {
+            return qsr.getQueryString();
+        }
+        return qsr.removeAll(Arrays.asList(WHITESPACE.split(argument)));
+    }
+}
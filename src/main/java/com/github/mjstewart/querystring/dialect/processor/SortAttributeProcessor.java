@@ -0,0 +1,39 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.util.SortDirection;
+
+/**
+ * {@code qs:sort} writes an {@code href} toggling the sort of a field, the same as {@code #qs.fieldSorterAsc} or
+ * {@code #qs.fieldSorterDesc} when the default direction is {@code 'desc'}.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <a qs:sort="name">Name</a>
+ *     <a qs:sort="stars,desc">Stars</a>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public class SortAttributeProcessor extends AbstractHrefAttributeProcessor {
+
+    public static final String ATTRIBUTE_NAME = "sort";
+
+    public SortAttributeProcessor(String dialectPrefix) {
+        super(dialectPrefix, ATTRIBUTE_NAME);
+    }
+
+    @Override
+    protected String newQueryString(RequestQueryStringHelper qsr, String argument) {
+        int separator = argument.indexOf(',');
+        String field = separator == -1 ? argument : argument.substring(0, separator).trim();
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException("qs:sort expects 'field' or 'field,direction' but was '" + argument + "'");
+        }
+        if (separator != -1 && SortDirection.from(argument.substring(separator + 1).trim()) == SortDirection.DESC) {
+            return qsr.fieldSorterDesc().apply(field);
+        }
+        return qsr.fieldSorterAsc().apply(field);
+    }
+}
@@ -0,0 +1,126 @@
+package com.github.mjstewart.querystring.dialect.processor;
+
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.util.SortDirection;
+import com.github.mjstewart.querystring.util.SortHeader;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IModelFactory;
+import org.thymeleaf.model.IOpenElementTag;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.unbescape.html.HtmlEscape;
+
+/**
+ * {@code qs:sort-field} turns a table header into a sortable column header.
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     #request.getQueryString() = sort=stars,asc
+ *
+ *     <th qs:sort-field="stars" qs:sort-default="desc">Stars</th>
+ *
+ *     => <th class="sorted ascending" aria-sort="ascending"><a href="/hotels?sort=stars,desc">Stars</a></th>
+ *     }
+ * </pre>
+ * </blockquote>
+ *
+ * <ul>
+ * <li>{@code qs:sort-field} - The sort field (required).</li>
+ * <li>{@code qs:sort-default} - The default direction, {@code 'asc'} unless {@code 'desc'}.</li>
+ * <li>{@code qs:sort-asc-class} / {@code qs:sort-desc-class} - The classes appended when the field is sorted
+ * ascending or descending, defaults to {@code 'sorted ascending'} and {@code 'sorted descending'}.</li>
+ * </ul>
+ *
+ * <p>The link is the same as {@code #qs.fieldSorterAsc} or {@code #qs.fieldSorterDesc}. An {@code <a>} element gets
+ * the {@code href} itself, otherwise the body is wrapped in a link. Every header of the same render reads the
+ * {@code SortSpec} of the query string cached by {@code #qsr}, so the sort values are only parsed once per
+ * table.</p>
+ */
+public class SortHeaderAttributeProcessor extends AbstractAttributeModelProcessor {
+
+    public static final String ATTRIBUTE_NAME = "sort-field";
+
+    public static final String DEFAULT_ATTRIBUTE_NAME = "sort-default";
+
+    public static final String ASC_CLASS_ATTRIBUTE_NAME = "sort-asc-class";
+
+    public static final String DESC_CLASS_ATTRIBUTE_NAME = "sort-desc-class";
+
+    public static final String DEFAULT_ASC_CLASS = "sorted ascending";
+
+    public static final String DEFAULT_DESC_CLASS = "sorted descending";
+
+    private static final int PRECEDENCE = 1000;
+
+    public SortHeaderAttributeProcessor(String dialectPrefix) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTRIBUTE_NAME, true, PRECEDENCE, true);
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName, String attributeValue,
+                             IElementModelStructureHandler structureHandler) {
+        String field = ProcessorSupport.resolve(context, attributeValue);
+        if (field.isEmpty()) {
+            throw new IllegalArgumentException("qs:sort-field cannot be empty");
+        }
+        String prefix = attributeName.getPrefix();
+        IProcessableElementTag tag = (IProcessableElementTag) model.get(0);
+        SortDirection defaultDirection = SortDirection.from(
+                ProcessorSupport.resolve(context, tag.getAttributeValue(prefix, DEFAULT_ATTRIBUTE_NAME)));
+        String ascClass = attributeOrDefault(context, tag, prefix, ASC_CLASS_ATTRIBUTE_NAME, DEFAULT_ASC_CLASS);
+        String descClass = attributeOrDefault(context, tag, prefix, DESC_CLASS_ATTRIBUTE_NAME, DEFAULT_DESC_CLASS);
+
+        RequestQueryStringHelper qsr = ProcessorSupport.requestQueryString(context);
+        SortHeader header = qsr.sortHeader(field, defaultDirection, null, null, null);
+        SortDirection current = header.isSorted() ? SortDirection.from(header.getCurrentDirection().trim()) : SortDirection.NONE;
+        String href = HtmlEscape.escapeHtml4Xml(ProcessorSupport.href(qsr.getRequestURI(), header.getQueryString()));
+
+        IModelFactory factory = context.getModelFactory();
+        tag = factory.removeAttribute(tag, prefix, DEFAULT_ATTRIBUTE_NAME);
+        tag = factory.removeAttribute(tag, prefix, ASC_CLASS_ATTRIBUTE_NAME);
+        tag = factory.removeAttribute(tag, prefix, DESC_CLASS_ATTRIBUTE_NAME);
+
+        String stateClass = current == SortDirection.ASC ? ascClass : current == SortDirection.DESC ? descClass : null;
+        if (stateClass != null && !stateClass.isEmpty()) {
+            String existing = tag.getAttributeValue("class");
+            tag = factory.setAttribute(tag, "class", existing == null || existing.trim().isEmpty() ?
+                    stateClass : existing + " " + stateClass);
+        }
+        tag = factory.setAttribute(tag, "aria-sort", ariaSort(current));
+
+        if ("a".equalsIgnoreCase(tag.getElementCompleteName())) {
+            tag = factory.setAttribute(tag, "href", href);
+            model.replace(0, tag);
+            return;
+        }
+        model.replace(0, tag);
+
+        // Wrap the body in a link, a standalone element has no body to wrap.
+        if (tag instanceof IOpenElementTag && model.size() >= 2) {
+            model.insert(model.size() - 1, factory.createCloseElementTag("a"));
+            model.insert(1, factory.createOpenElementTag("a", "href", href));
+        }
+    }
+
+    private static String ariaSort(SortDirection direction) {
+        switch (direction) {
+            case ASC:
+                return "ascending";
+            case DESC:
+                return "descending";
+            default:
+                return "none";
+        }
+    }
+
+    private static String attributeOrDefault(ITemplateContext context, IProcessableElementTag tag, String prefix,
+                                             String name, String defaultValue) {
+        return tag.hasAttribute(prefix, name) ? ProcessorSupport.resolve(context, tag.getAttributeValue(prefix, name))
+                : defaultValue;
+    }
+}
@@ -1,21 +1,300 @@
 package com.github.mjstewart.querystring.expression;
 
 import org.thymeleaf.expression.Uris;
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+import com.github.mjstewart.querystring.util.MemoizingCodec;
+import com.github.mjstewart.querystring.util.Pagination;
+import com.github.mjstewart.querystring.util.PercentCodec;
+import com.github.mjstewart.querystring.util.QueryParamCodec;
 import com.github.mjstewart.querystring.util.QueryString;
-import com.github.mjstewart.querystring.util.QueryStringUtil;
+import com.github.mjstewart.querystring.util.QueryStringBuilder;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import com.github.mjstewart.querystring.util.QueryStringLimits;
+import com.github.mjstewart.querystring.util.QueryStringPlan;
+import com.github.mjstewart.querystring.util.QueryStringSnapshot;
+import com.github.mjstewart.querystring.util.QueryStringTemplate;
+import com.github.mjstewart.querystring.util.QueryStringView;
 import com.github.mjstewart.querystring.util.SortDirection;
+import com.github.mjstewart.querystring.util.SortHeader;
+import com.github.mjstewart.querystring.util.SortSpec;
+import com.github.mjstewart.querystring.util.UrisCodec;
 
 import java.util.*;
 import java.util.function.Function;
-import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * Provides public methods exposed to the thymeleaf template caller.
  */
 public final class QueryStringHelper {
 
-    private final Uris uris = new Uris();
+    // Performs query string escape/unescaping.
+    private final QueryParamCodec codec;
+
+    // Optional cache of parsed query strings, null if disabled.
+    private final QueryStringCache cache;
+
+    private final Function<String, QueryStringSnapshot> snapshotLoader;
+
+    private final QueryStringMetrics metrics;
+
+    // Checked before reading the clock so the default no-op metrics cost nothing.
+    private final boolean metricsEnabled;
+
+    // Applied to every query string before it is parsed.
+    private final QueryStringLimits limits;
+
+    /**
+     * Creates a helper which parses the query string on every call.
+     */
+    public QueryStringHelper() {
+        this(null);
+    }
+
+    /**
+     * Creates a helper which looks up parsed query strings in the supplied {@code cache} before parsing.
+     *
+     * @param cache The cache to share between helpers, or {@code null} to disable caching.
+     */
+    public QueryStringHelper(QueryStringCache cache) {
+        this(cache, defaultCodec());
+    }
+
+    /**
+     * @param cache The cache to share between helpers, or {@code null} to disable caching.
+     * @param codec Handles escaping/unescaping, typically shared between helpers so memoized escapes are reused.
+     */
+    public QueryStringHelper(QueryStringCache cache, QueryParamCodec codec) {
+        this(cache, codec, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * @param cache   The cache to share between helpers, or {@code null} to disable caching.
+     * @param codec   Handles escaping/unescaping, typically shared between helpers so memoized escapes are reused.
+     * @param metrics Receives the latency of every public method along with each parse.
+     */
+    public QueryStringHelper(QueryStringCache cache, QueryParamCodec codec, QueryStringMetrics metrics) {
+        this(cache, codec, metrics, QueryStringLimits.UNLIMITED);
+    }
+
+    /**
+     * @param cache   The cache to share between helpers, or {@code null} to disable caching.
+     * @param codec   Handles escaping/unescaping, typically shared between helpers so memoized escapes are reused.
+     * @param metrics Receives the latency of every public method along with each parse and exceeded limit.
+     * @param limits  Bounds the pairs and lengths of every query string before it is parsed or cached.
+     */
+    public QueryStringHelper(QueryStringCache cache, QueryParamCodec codec, QueryStringMetrics metrics,
+                             QueryStringLimits limits) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        if (limits == null) {
+            throw new IllegalArgumentException("limits cannot be null");
+        }
+        this.cache = cache;
+        this.limits = limits;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.metricsEnabled = metrics.isEnabled();
+        this.snapshotLoader = query -> {
+            QueryStringSnapshot snapshot = QueryStringSnapshot.of(query, codec);
+            parsed(query, snapshot.size());
+            return snapshot;
+        };
+    }
+
+    public QueryStringMetrics getMetrics() {
+        return metrics;
+    }
+
+    public QueryStringLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * @return The codec used when none is supplied, memoizing the escaped form of short keys and values.
+     */
+    public static QueryParamCodec defaultCodec() {
+        return MemoizingCodec.of(PercentCodec.of());
+    }
+
+    /**
+     * Pass to {@link #QueryStringHelper(QueryStringCache, QueryParamCodec)} to escape/unescape with the thymeleaf
+     * {@code #uris} expression utility rather than the default {@code PercentCodec}.
+     *
+     * @return A codec delegating to thymeleaf {@code Uris}.
+     */
+    public static QueryParamCodec urisCodec() {
+        return new UrisCodec(new Uris());
+    }
+
+    /**
+     * @param queryString The current query string.
+     * @return A new {@code QueryString}, copied from the cached snapshot should caching be enabled.
+     */
+    private QueryString parse(String queryString) {
+        String limited = limit(queryString);
+        if (limited == null) {
+            return copy(QueryStringSnapshot.unchanged(queryString, codec));
+        }
+        if (cache == null) {
+            QueryString parsed = QueryString.of(limited, codec);
+            parsed(limited, parsed.getNextOverallIndex());
+            return parsed;
+        }
+        return copy(cache.get(limited, snapshotLoader));
+    }
+
+    private QueryStringBuilder builder(String queryString) {
+        return QueryStringBuilder.from(parse(queryString));
+    }
+
+    /**
+     * @param snapshot A query string already parsed by {@link #snapshot(String)}.
+     * @return A new {@code QueryString} copied from the {@code snapshot} without parsing again.
+     */
+    private QueryString copy(QueryStringSnapshot snapshot) {
+        return QueryString.fromSnapshot(snapshot, codec);
+    }
+
+    /**
+     * @param queryString The current query string.
+     * @return The query string within the limits, {@code null} if it exceeded a limit under the {@code UNCHANGED}
+     * policy and so must not be processed.
+     */
+    private String limit(String queryString) {
+        return queryString == null ? "" : limits.limit(queryString, metrics);
+    }
+
+    /**
+     * @return A view of the query string, empty if it exceeded a limit under the {@code UNCHANGED} policy.
+     */
+    private QueryStringView view(String queryString) {
+        String limited = limit(queryString);
+        QueryStringView view = QueryStringView.of(limited, codec);
+        if (limited != null) {
+            parsed(limited, view.size());
+        }
+        return view;
+    }
+
+    private void parsed(String queryString, int pairCount) {
+        if (metricsEnabled) {
+            metrics.parsed(queryString == null ? 0 : queryString.length(), pairCount);
+        }
+    }
+
+    /**
+     * @return The start time of an operation passed to {@link #record}, 0 when metrics are disabled.
+     */
+    private long startTime() {
+        return metricsEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports the latency of the operation started at {@code start}.
+     *
+     * @return The {@code result} of the operation.
+     */
+    private <T> T record(String operation, String queryString, long start, T result) {
+        if (metricsEnabled) {
+            metrics.operation(operation, System.nanoTime() - start, queryString == null ? 0 : queryString.length());
+        }
+        return result;
+    }
+
+    /**
+     * Parses the query string once and returns a {@code QueryStringBuilder} allowing any number of operations to be
+     * chained together. The new query string is only escaped and joined when {@code build()} is called which makes
+     * this much cheaper than passing the result of one {@code #qs} method into the next.
+     * <p></p>
+     * <p><b>Thymeleaf usage</b></p>
+     *
+     * <blockquote>
+     * <pre>
+     *     #request.getQueryString() = "city=dallas&sort=country,desc&page=3&region=north"
+     *
+     *     th:with="newQueryString=${#qs.on(#request.getQueryString()).removeAll({'region'}).resetPageNumber().createNewSort({'city,asc'}).build()}"
+     *     => newQueryString = city=dallas&page=0&sort=city,asc
+     * </pre>
+     * </blockquote>
+     *
+     * <p>Each builder method behaves the same as the method of the same name in this class minus the
+     * {@code queryString} argument.</p>
+     *
+     * @param queryString The current query string.
+     * @return A builder operating on the parsed query string.
+     */
+    public QueryStringBuilder on(String queryString) {
+        long start = startTime();
+        return record("on", queryString, start, builder(queryString));
+    }
+
+    /**
+     * See {@link #on(String)}, starting from an already parsed {@code snapshot}.
+     */
+    QueryStringBuilder builderOf(QueryStringSnapshot snapshot) {
+        long start = startTime();
+        return record("on", snapshot.getQueryString(), start, QueryStringBuilder.from(copy(snapshot)));
+    }
+
+    /**
+     * Applies a recipe of edits compiled into a {@link QueryStringPlan}. The {@code plan} definition is compiled once
+     * and reused by every later call with the same definition, so only the query string is processed per request.
+     * The plan removes keys, then sets values, then adds pairs in a single pass over the query string. See
+     * {@link QueryStringPlan} for the definition syntax.
+     * <p></p>
+     * <p><b>Thymeleaf usage</b></p>
+     *
+     * <blockquote>
+     * <pre>
+     *     #request.getQueryString() = "city=dallas&sort=country,desc&page=3"
+     *
+     *     th:with="newQueryString=${#qs.applyPlan(#request.getQueryString(), 'remove page sort; add sort=price,asc')}"
+     *     => newQueryString = city=dallas&sort=price,asc
+     * </pre>
+     * </blockquote>
+     *
+     * @param queryString The current query string.
+     * @param plan        The plan definition.
+     * @return The new query string.
+     * @throws IllegalArgumentException If the {@code plan} definition is invalid.
+     */
+    public String applyPlan(String queryString, String plan) {
+        long start = startTime();
+        QueryStringPlan compiled = QueryStringPlan.compile(plan);
+        String limited = limit(queryString);
+        return record("applyPlan", queryString, start, limited == null ? queryString : compiled.apply(limited, codec));
+    }
+
+    /**
+     * See {@link #applyPlan(String, String)}, applied to the query string of an already limited {@code snapshot}.
+     */
+    String applyPlanOf(QueryStringSnapshot snapshot, String plan) {
+        long start = startTime();
+        QueryStringPlan compiled = QueryStringPlan.compile(plan);
+        String queryString = snapshot.getQueryString();
+        return record("applyPlan", queryString, start,
+                snapshot.isUnchanged() ? queryString : compiled.apply(queryString, codec));
+    }
+
+    /**
+     * See {@link #applyPlan(String, String)}, except the plan has already been compiled.
+     *
+     * @param queryString The current query string.
+     * @param plan        The compiled plan.
+     * @return The new query string.
+     */
+    public String applyPlan(String queryString, QueryStringPlan plan) {
+        long start = startTime();
+        if (plan == null) {
+            throw new IllegalArgumentException("plan cannot be null");
+        }
+        String limited = limit(queryString);
+        return record("applyPlan", queryString, start, limited == null ? queryString : plan.apply(limited, codec));
+    }
 
     /**
      * Replaces only the first occurrence of {@code key} with {@code value} while maintaining the query strings
@@ -41,7 +320,16 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String replaceFirst(String queryString, String key, String value) {
-        return QueryString.of(queryString, uris).replaceFirst(key, value);
+        long start = startTime();
+        return record("replaceFirst", queryString, start, parse(queryString).replaceFirst(key, value));
+    }
+
+    /**
+     * See {@link #replaceFirst(String, String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String replaceFirstOf(QueryStringSnapshot snapshot, String key, String value) {
+        long start = startTime();
+        return record("replaceFirst", snapshot.getQueryString(), start, copy(snapshot).replaceFirst(key, value));
     }
 
     /**
@@ -76,7 +364,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String replaceNth(String queryString, Map<String, Map<Integer, String>> stateChangeInstructions) {
-        return QueryString.of(queryString, uris).replaceNth(stateChangeInstructions);
+        long start = startTime();
+        return record("replaceNth", queryString, start, parse(queryString).replaceNth(stateChangeInstructions));
     }
 
     /**
@@ -125,7 +414,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String replaceN(String queryString, String key, List<String> values) {
-        return QueryString.of(queryString, uris).replaceN(key, values);
+        long start = startTime();
+        return record("replaceN", queryString, start, parse(queryString).replaceN(key, values));
     }
 
     /**
@@ -163,7 +453,16 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeFirst(String queryString, String key) {
-        return QueryString.of(queryString, uris).removeFirst(key);
+        long start = startTime();
+        return record("removeFirst", queryString, start, parse(queryString).removeFirst(key));
+    }
+
+    /**
+     * See {@link #removeFirst(String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String removeFirstOf(QueryStringSnapshot snapshot, String key) {
+        long start = startTime();
+        return record("removeFirst", snapshot.getQueryString(), start, copy(snapshot).removeFirst(key));
     }
 
     /**
@@ -192,7 +491,16 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeAll(String queryString, List<String> keys) {
-        return QueryString.of(queryString, uris).removeAll(keys);
+        long start = startTime();
+        return record("removeAll", queryString, start, parse(queryString).removeAll(keys));
+    }
+
+    /**
+     * See {@link #removeAll(String, List)}, starting from an already parsed {@code snapshot}.
+     */
+    String removeAllOf(QueryStringSnapshot snapshot, List<String> keys) {
+        long start = startTime();
+        return record("removeAll", snapshot.getQueryString(), start, copy(snapshot).removeAll(keys));
     }
 
     /**
@@ -236,7 +544,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeN(String queryString, String key, int n) {
-        return QueryString.of(queryString, uris).removeN(key, n);
+        long start = startTime();
+        return record("removeN", queryString, start, parse(queryString).removeN(key, n));
     }
 
     /**
@@ -273,7 +582,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeNth(String queryString, String key, int nthIndex) {
-        return QueryString.of(queryString, uris).removeNth(key, nthIndex);
+        long start = startTime();
+        return record("removeNth", queryString, start, parse(queryString).removeNth(key, nthIndex));
     }
 
     /**
@@ -310,7 +620,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeManyNth(String queryString, String key, List<Integer> relativeIndexes) {
-        return QueryString.of(queryString, uris).removeManyNth(key, relativeIndexes);
+        long start = startTime();
+        return record("removeManyNth", queryString, start, parse(queryString).removeManyNth(key, relativeIndexes));
     }
 
     /**
@@ -339,7 +650,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeKeyMatchingValue(String queryString, String key, String valueMatch) {
-        return QueryString.of(queryString, uris).removeKeyMatchingValue(key, valueMatch);
+        long start = startTime();
+        return record("removeKeyMatchingValue", queryString, start,
+                parse(queryString).removeKeyMatchingValue(key, valueMatch));
     }
 
     /**
@@ -366,7 +679,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeAnyKeyMatchingValue(String queryString, String valueMatch) {
-        return QueryString.of(queryString, uris).removeAnyKeyMatchingValue(valueMatch);
+        long start = startTime();
+        return record("removeAnyKeyMatchingValue", queryString, start,
+                parse(queryString).removeAnyKeyMatchingValue(valueMatch));
     }
 
     /**
@@ -414,7 +729,19 @@ public final class QueryStringHelper {
      * @return The associated value or {@code null} if the key does not exist.
      */
     public String getFirstValue(String queryString, String key) {
-        return QueryString.of(queryString, uris).getFirstValue(key);
+        long start = startTime();
+        if (cache == null) {
+            return record("getFirstValue", queryString, start, view(queryString).getFirstValue(key));
+        }
+        return record("getFirstValue", queryString, start, snapshot(queryString).getFirstValue(key));
+    }
+
+    /**
+     * See {@link #getFirstValue(String, String)}, reading from an already parsed {@code snapshot}.
+     */
+    String firstValueOf(QueryStringSnapshot snapshot, String key) {
+        long start = startTime();
+        return record("getFirstValue", snapshot.getQueryString(), start, snapshot.getFirstValue(key));
     }
 
     /**
@@ -465,7 +792,19 @@ public final class QueryStringHelper {
      * @return The associated values or any empty list if the key does not exist.
      */
     public List<String> getAllValues(String queryString, String key) {
-        return QueryString.of(queryString, uris).getAllValues(key);
+        long start = startTime();
+        if (cache == null) {
+            return record("getAllValues", queryString, start, view(queryString).getAllValues(key));
+        }
+        return record("getAllValues", queryString, start, snapshot(queryString).getAllValues(key));
+    }
+
+    /**
+     * See {@link #getAllValues(String, String)}, reading from an already parsed {@code snapshot}.
+     */
+    List<String> allValuesOf(QueryStringSnapshot snapshot, String key) {
+        long start = startTime();
+        return record("getAllValues", snapshot.getQueryString(), start, snapshot.getAllValues(key));
     }
 
     /**
@@ -527,7 +866,16 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String add(String queryString, String key, String value) {
-        return QueryString.of(queryString, uris).add(key, value);
+        long start = startTime();
+        return record("add", queryString, start, parse(queryString).add(key, value));
+    }
+
+    /**
+     * See {@link #add(String, String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String addOf(QueryStringSnapshot snapshot, String key, String value) {
+        long start = startTime();
+        return record("add", snapshot.getQueryString(), start, copy(snapshot).add(key, value));
     }
 
     /**
@@ -557,7 +905,16 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String addAll(String queryString, List<List<String>> keyValuePairs) {
-        return QueryString.of(queryString, uris).addAll(keyValuePairs);
+        long start = startTime();
+        return record("addAll", queryString, start, parse(queryString).addAll(keyValuePairs));
+    }
+
+    /**
+     * See {@link #addAll(String, List)}, starting from an already parsed {@code snapshot}.
+     */
+    String addAllOf(QueryStringSnapshot snapshot, List<List<String>> keyValuePairs) {
+        long start = startTime();
+        return record("addAll", snapshot.getQueryString(), start, copy(snapshot).addAll(keyValuePairs));
     }
 
     /**
@@ -593,15 +950,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String removeAllAndAdd(String queryString, List<String> removeKeys, List<List<String>> addKeyValuePairs) {
-        String afterRemovalQueryString = QueryString.of(queryString, uris).removeAll(removeKeys);
-
-        try {
-            QueryString newQueryString = QueryString.of(afterRemovalQueryString, uris);
-            return newQueryString.addAll(addKeyValuePairs);
-        } catch (IllegalArgumentException e) {
-            // Invalid query string form, implies mismatch key=value pairs or empty string.
-            return QueryStringUtil.toQueryString(addKeyValuePairs, uris::escapeQueryParam);
-        }
+        long start = startTime();
+        return record("removeAllAndAdd", queryString, start,
+                builder(queryString).removeAllAndAdd(removeKeys, addKeyValuePairs).build());
     }
 
     /**
@@ -638,26 +989,16 @@ public final class QueryStringHelper {
     public String removeNthAndAdd(String queryString,
                                   Map<String, List<Integer>> removeInstructions,
                                   List<List<String>> addKeyValuePairs) {
+        long start = startTime();
         if (queryString == null || queryString.isEmpty()) {
-            return "";
+            return record("removeNthAndAdd", queryString, start, "");
         }
         if (removeInstructions == null || addKeyValuePairs == null) {
-            return queryString;
+            return record("removeNthAndAdd", queryString, start, queryString);
         }
 
-        // The reduction applies the removal action for each key
-        String afterRemovalQueryString = removeInstructions.entrySet().stream()
-                .reduce(queryString, (nextQueryString, entry) ->
-                        QueryString.of(nextQueryString, uris)
-                                .removeManyNth(entry.getKey(), entry.getValue()), (a, b) -> a + "&" + b);
-
-        try {
-            QueryString newQueryString = QueryString.of(afterRemovalQueryString, uris);
-            return newQueryString.addAll(addKeyValuePairs);
-        } catch (IllegalArgumentException e) {
-            // Invalid query string form, implies mismatch key=value pairs or empty string.
-            return QueryStringUtil.toQueryString(addKeyValuePairs, uris::escapeQueryParam);
-        }
+        return record("removeNthAndAdd", queryString, start,
+                builder(queryString).removeManyNth(removeInstructions).addAll(addKeyValuePairs).build());
     }
 
     /**
@@ -692,7 +1033,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String adjustNumericValueBy(String queryString, String key, List<Integer> relativeIndexes, int value) {
-        return QueryString.of(queryString, uris).adjustNumericValueBy(key, relativeIndexes, value);
+        long start = startTime();
+        return record("adjustNumericValueBy", queryString, start,
+                parse(queryString).adjustNumericValueBy(key, relativeIndexes, value));
     }
 
     /**
@@ -723,7 +1066,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String adjustFirstNumericValueBy(String queryString, String key, int value) {
-        return QueryString.of(queryString, uris).adjustNumericValueBy(key, Collections.singletonList(0), value);
+        long start = startTime();
+        return record("adjustFirstNumericValueBy", queryString, start,
+                builder(queryString).adjustFirstNumericValueBy(key, value).build());
     }
 
     /**
@@ -766,10 +1111,17 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String incrementPage(String queryString) {
-        if (getPageNumber(queryString) == null) {
-            return add(queryString, "page", "1");
-        }
-        return adjustNumericValueBy(queryString, "page", Collections.singletonList(0), 1);
+        long start = startTime();
+        return record("incrementPage", queryString, start, builder(queryString).incrementPage().build());
+    }
+
+    /**
+     * See {@link #incrementPage(String)}, starting from an already parsed {@code snapshot}.
+     */
+    String incrementPageOf(QueryStringSnapshot snapshot) {
+        long start = startTime();
+        return record("incrementPage", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).incrementPage().build());
     }
 
     /**
@@ -799,12 +1151,17 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String incrementPage(String queryString, int maxBound) {
-        if (getPageNumber(queryString) == null && 0 < maxBound) {
-            return add(queryString, "page", "1");
-        }
-        Predicate<Integer> incrementIfBelowMax = currentValue -> currentValue < maxBound;
-        return QueryString.of(queryString, uris)
-                .adjustNumericValueBy("page", Collections.singletonList(0), 1, incrementIfBelowMax);
+        long start = startTime();
+        return record("incrementPage", queryString, start, builder(queryString).incrementPage(maxBound).build());
+    }
+
+    /**
+     * See {@link #incrementPage(String, int)}, starting from an already parsed {@code snapshot}.
+     */
+    String incrementPageOf(QueryStringSnapshot snapshot, int maxBound) {
+        long start = startTime();
+        return record("incrementPage", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).incrementPage(maxBound).build());
     }
 
     /**
@@ -845,12 +1202,17 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String decrementPage(String queryString) {
-        if (getPageNumber(queryString) == null) {
-            return add(queryString, "page", "0");
-        }
-        Predicate<Integer> decrementOnlyIfAboveZero = currentValue -> currentValue > 0;
-        return QueryString.of(queryString, uris)
-                .adjustNumericValueBy("page", Collections.singletonList(0), -1, decrementOnlyIfAboveZero);
+        long start = startTime();
+        return record("decrementPage", queryString, start, builder(queryString).decrementPage().build());
+    }
+
+    /**
+     * See {@link #decrementPage(String)}, starting from an already parsed {@code snapshot}.
+     */
+    String decrementPageOf(QueryStringSnapshot snapshot) {
+        long start = startTime();
+        return record("decrementPage", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).decrementPage().build());
     }
 
     /**
@@ -902,10 +1264,17 @@ public final class QueryStringHelper {
      * @return The new query string with the page set to {@code 0} should the page key exist.
      */
     public String resetPageNumber(String queryString) {
-        if (getPageNumber(queryString) == null) {
-            return add(queryString, "page", "0");
-        }
-        return replaceFirst(queryString, "page", "0");
+        long start = startTime();
+        return record("resetPageNumber", queryString, start, builder(queryString).resetPageNumber().build());
+    }
+
+    /**
+     * See {@link #resetPageNumber(String)}, starting from an already parsed {@code snapshot}.
+     */
+    String resetPageNumberOf(QueryStringSnapshot snapshot) {
+        long start = startTime();
+        return record("resetPageNumber", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).resetPageNumber().build());
     }
 
     /**
@@ -969,10 +1338,17 @@ public final class QueryStringHelper {
      * @return The new query string with the page set to {@code number} should the page key exist.
      */
     public String setPageNumber(String queryString, String number) {
-        if (getPageNumber(queryString) == null) {
-            return add(queryString, "page", number);
-        }
-        return replaceFirst(queryString, "page", number);
+        long start = startTime();
+        return record("setPageNumber", queryString, start, builder(queryString).setPageNumber(number).build());
+    }
+
+    /**
+     * See {@link #setPageNumber(String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String setPageNumberOf(QueryStringSnapshot snapshot, String number) {
+        long start = startTime();
+        return record("setPageNumber", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).setPageNumber(number).build());
     }
 
     /**
@@ -998,7 +1374,91 @@ public final class QueryStringHelper {
      * @return The 'page' number should it exist otherwise {@code null}.
      */
     public String getPageNumber(String queryString) {
-        return getFirstValue(queryString, "page");
+        long start = startTime();
+        if (cache == null) {
+            return record("getPageNumber", queryString, start, view(queryString).getFirstValue("page"));
+        }
+        return record("getPageNumber", queryString, start, snapshot(queryString).getFirstValue("page"));
+    }
+
+    /**
+     * See {@link #getPageNumber(String)}, reading from an already parsed {@code snapshot}.
+     */
+    String pageNumberOf(QueryStringSnapshot snapshot) {
+        long start = startTime();
+        return record("getPageNumber", snapshot.getQueryString(), start, snapshot.getFirstValue("page"));
+    }
+
+    /**
+     * Creates every link of a pager bar in one pass. The first, previous, numbered, next and last links each have the
+     * same query string {@link #setPageNumber(String, String)} would return for their page, however the query string
+     * is only parsed and escaped once. Each link is then created by splicing its page number between the pre-rendered
+     * query string either side of the 'page' value.
+     *
+     * <p>Page numbers are zero based to match spring {@code Pageable}. The numbered links are a window of at most
+     * {@code windowSize} pages surrounding the current page.</p>
+     * <p></p>
+     *
+     * <p><b>Thymeleaf usage</b></p>
+     * <blockquote>
+     * <pre>
+     *     {@literal
+     *     <div th:with="pager=${#qs.pagination(#request.getQueryString(), results.getNumber(), results.getTotalPages(), 10)}">
+     *         <a th:if="${pager.hasPrevious()}" th:href="${#qs.url(#request.getRequestURI(), pager.previous.queryString)}">Prev</a>
+     *         <a th:each="link : ${pager.pages}"
+     *            th:classappend="${link.current} ? 'active'"
+     *            th:href="${#qs.url(#request.getRequestURI(), link.queryString)}"
+     *            th:text="${link.label}"></a>
+     *         <a th:if="${pager.hasNext()}" th:href="${#qs.url(#request.getRequestURI(), pager.next.queryString)}">Next</a>
+     *     </div>
+     *     }
+     * </pre>
+     * </blockquote>
+     *
+     * <p>Supplying a {@code null} or empty {@code queryString} results in links of the form {@code 'page=number'}.
+     * At least 1 page is always assumed, so a {@code totalPages} of {@code 0} gives links to page {@code 0} only. The
+     * {@code currentPage} is limited to the available pages.</p>
+     *
+     * @param queryString The current query string.
+     * @param currentPage The zero based current page.
+     * @param totalPages  The total number of pages.
+     * @param windowSize  The maximum number of numbered page links.
+     * @return The pagination links.
+     * @throws IllegalArgumentException If {@code windowSize < 1}.
+     */
+    public Pagination pagination(String queryString, int currentPage, int totalPages, int windowSize) {
+        long start = startTime();
+        QueryStringTemplate template = copy(snapshot(queryString)).templateOf("page");
+        return record("pagination", queryString, start, Pagination.of(template, currentPage, totalPages, windowSize));
+    }
+
+    /**
+     * See {@link #pagination(String, int, int, int)}, starting from an already parsed {@code snapshot}.
+     */
+    Pagination paginationOf(QueryStringSnapshot snapshot, int currentPage, int totalPages, int windowSize) {
+        long start = startTime();
+        QueryStringTemplate template = copy(snapshot).templateOf("page");
+        return record("pagination", snapshot.getQueryString(), start,
+                Pagination.of(template, currentPage, totalPages, windowSize));
+    }
+
+    /**
+     * See {@link #pagination(String, int, int, int)}, there is a numbered link for every page.
+     *
+     * @param queryString The current query string.
+     * @param currentPage The zero based current page.
+     * @param totalPages  The total number of pages.
+     * @return The pagination links.
+     */
+    public Pagination pagination(String queryString, int currentPage, int totalPages) {
+        return pagination(queryString, currentPage, totalPages, Math.max(totalPages, 1));
+    }
+
+    /**
+     * See {@link #pagination(String, int, int)}, starting from an already parsed {@code snapshot}.
+     */
+    Pagination paginationOf(QueryStringSnapshot snapshot, int currentPage, int totalPages) {
+        return paginationOf(snapshot, currentPage, totalPages, Math.max(totalPages, 1));
     }
 
     /**
@@ -1016,7 +1476,7 @@ public final class QueryStringHelper {
             throw new IllegalArgumentException("Invalid sort direction '" + sortDirection + "', expect either 'asc' or 'desc'");
         }
 
-        return QueryString.of(queryString, uris).setSortDirection(sortField, currentDirection -> sortDirection);
+        return parse(queryString).setSortDirection(sortField, currentDirection -> sortDirection);
     }
 
     /**
@@ -1047,7 +1507,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String setSortDirectionAsc(String queryString, String sortField) {
-        return setSortDirection(queryString, sortField, SortDirection.ASC);
+        long start = startTime();
+        return record("setSortDirectionAsc", queryString, start,
+                setSortDirection(queryString, sortField, SortDirection.ASC));
     }
 
     /**
@@ -1059,7 +1521,9 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String setSortDirectionDesc(String queryString, String sortField) {
-        return setSortDirection(queryString, sortField, SortDirection.DESC);
+        long start = startTime();
+        return record("setSortDirectionDesc", queryString, start,
+                setSortDirection(queryString, sortField, SortDirection.DESC));
     }
 
     /**
@@ -1103,7 +1567,17 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String toggleSortDefaultAsc(String queryString, String sortField) {
-        return QueryString.of(queryString, uris).toggleSortDefaultAsc(sortField);
+        long start = startTime();
+        return record("toggleSortDefaultAsc", queryString, start, parse(queryString).toggleSortDefaultAsc(sortField));
+    }
+
+    /**
+     * See {@link #toggleSortDefaultAsc(String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String toggleSortDefaultAscOf(QueryStringSnapshot snapshot, String sortField) {
+        long start = startTime();
+        return record("toggleSortDefaultAsc", snapshot.getQueryString(), start,
+                copy(snapshot).toggleSortDefaultAsc(sortField));
     }
 
     /**
@@ -1145,7 +1619,17 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String toggleSortDefaultDesc(String queryString, String sortField) {
-        return QueryString.of(queryString, uris).toggleSortDefaultDesc(sortField);
+        long start = startTime();
+        return record("toggleSortDefaultDesc", queryString, start, parse(queryString).toggleSortDefaultDesc(sortField));
+    }
+
+    /**
+     * See {@link #toggleSortDefaultDesc(String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    String toggleSortDefaultDescOf(QueryStringSnapshot snapshot, String sortField) {
+        long start = startTime();
+        return record("toggleSortDefaultDesc", snapshot.getQueryString(), start,
+                copy(snapshot).toggleSortDefaultDesc(sortField));
     }
 
     /**
@@ -1186,7 +1670,8 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String keepSortField(String queryString, String sortField) {
-        return QueryString.of(queryString, uris).keepSortField(sortField);
+        long start = startTime();
+        return record("keepSortField", queryString, start, parse(queryString).keepSortField(sortField));
     }
 
     /**
@@ -1198,26 +1683,14 @@ public final class QueryStringHelper {
      *                             determine the next sort direction.
      * @return The new query string.
      */
-    private String fieldSorter(String queryString, String field, SortDirection defaultSortDirection) {
-        List<List<String>> newKeyValuePairs = new ArrayList<>();
-        newKeyValuePairs.add(Arrays.asList("sort", field + "," + defaultSortDirection.value));
-
-        if (queryString == null || queryString.trim().isEmpty()) {
-            return addAll(queryString, newKeyValuePairs);
-        }
+    private String fieldSorter(String queryString, String field, SortDirection defaultSortDirection, String operation) {
+        long start = startTime();
+        return record(operation, queryString, start, sortField(builder(queryString), field, defaultSortDirection));
+    }
 
-        // keep just the sort field and toggle it
-        String afterRemovalsQueryString = QueryString.of(queryString, uris).keepSortField(field);
-        if (isFieldSorted(afterRemovalsQueryString, field)) {
-            switch (defaultSortDirection) {
-                case ASC:
-                    return toggleSortDefaultAsc(afterRemovalsQueryString, field);
-                case DESC:
-                    return toggleSortDefaultDesc(afterRemovalsQueryString, field);
-            }
-        }
-        // implies field is not associated to a sort key so append the new sort keys to the end.
-        return removeAllAndAdd(afterRemovalsQueryString, Collections.singletonList("sort"), newKeyValuePairs);
+    private static String sortField(QueryStringBuilder builder, String field, SortDirection defaultSortDirection) {
+        return defaultSortDirection == SortDirection.ASC ?
+                builder.sortFieldAsc(field).build() : builder.sortFieldDesc(field).build();
     }
 
     /**
@@ -1355,7 +1828,7 @@ public final class QueryStringHelper {
      * @return Function accepting the {@code field} to sort.
      */
     public Function<String, String> fieldSorterAsc(String queryString) {
-        return field -> fieldSorter(queryString, field, SortDirection.ASC);
+        return field -> fieldSorter(queryString, field, SortDirection.ASC, "fieldSorterAsc");
 
     }
 
@@ -1367,25 +1840,39 @@ public final class QueryStringHelper {
      * @return Function accepting the {@code field} to sort.
      */
     public Function<String, String> fieldSorterDesc(String queryString) {
-        return field -> fieldSorter(queryString, field, SortDirection.DESC);
+        return field -> fieldSorter(queryString, field, SortDirection.DESC, "fieldSorterDesc");
+    }
+
+    /**
+     * See {@link #fieldSorterAsc(String)} and {@link #fieldSorterDesc(String)}, starting from an already parsed
+     * {@code snapshot}.
+     */
+    Function<String, String> fieldSorterOf(QueryStringSnapshot snapshot, SortDirection defaultSortDirection) {
+        String operation = defaultSortDirection == SortDirection.ASC ? "fieldSorterAsc" : "fieldSorterDesc";
+        return field -> {
+            long start = startTime();
+            return record(operation, snapshot.getQueryString(), start,
+                    sortField(QueryStringBuilder.from(copy(snapshot)), field, defaultSortDirection));
+        };
     }
 
     /**
      * See {@link #valueWhenMatchesSortAsc(String, String, String, String)} for docs. This method centralises the logic.
      *
-     * @param queryString      The current query string.
+     * @param spec             The sorting of the current query string.
      * @param missingValue     The value to return if the sort field is not in the query string.
      * @param matchingValue    The value to return if there is a direction match.
      * @param nonMatchingValue The value to return upon no direction match.
      * @param direction        The sort direction to attempt to match to the existing sort {@code field}.
      * @return The function accepting the {@code String} sort field.
      */
-    private Function<String, String> valueWhenMatchesSort(String queryString,
-                                                          String missingValue,
-                                                          String matchingValue, String nonMatchingValue,
-                                                          SortDirection direction) {
+    private static Function<String, String> valueWhenMatchesSort(SortSpec spec,
+                                                                 String missingValue,
+                                                                 String matchingValue, String nonMatchingValue,
+                                                                 SortDirection direction) {
+        // The spec is parsed once by the caller, the returned function is typically applied once per table column.
         return field -> {
-            String currentDirection = getCurrentSortDirection(queryString, field, direction);
+            String currentDirection = spec.getCurrentDirection(field, direction);
             return currentDirection == null ? missingValue :
                     currentDirection.equals(direction.value) ? matchingValue : nonMatchingValue;
         };
@@ -1502,7 +1989,10 @@ public final class QueryStringHelper {
      */
     public Function<String, String> valueWhenMatchesSortAsc(String queryString, String missingValue,
                                                             String matchingValue, String nonMatchingValue) {
-        return valueWhenMatchesSort(queryString, missingValue, matchingValue, nonMatchingValue, SortDirection.ASC);
+        long start = startTime();
+        return record("valueWhenMatchesSortAsc", queryString, start,
+                valueWhenMatchesSort(sortSpec(queryString), missingValue, matchingValue, nonMatchingValue,
+                        SortDirection.ASC));
     }
 
     /**
@@ -1517,7 +2007,167 @@ public final class QueryStringHelper {
      */
     public Function<String, String> valueWhenMatchesSortDesc(String queryString, String missingValue,
                                                              String matchingValue, String nonMatchingValue) {
-        return valueWhenMatchesSort(queryString, missingValue, matchingValue, nonMatchingValue, SortDirection.DESC);
+        long start = startTime();
+        return record("valueWhenMatchesSortDesc", queryString, start,
+                valueWhenMatchesSort(sortSpec(queryString), missingValue, matchingValue, nonMatchingValue,
+                        SortDirection.DESC));
+    }
+
+    /**
+     * See {@link #valueWhenMatchesSortAsc(String, String, String, String)} and
+     * {@link #valueWhenMatchesSortDesc(String, String, String, String)}, starting from an already parsed
+     * {@code snapshot}.
+     */
+    Function<String, String> valueWhenMatchesSortOf(QueryStringSnapshot snapshot, String missingValue,
+                                                    String matchingValue, String nonMatchingValue,
+                                                    SortDirection direction) {
+        long start = startTime();
+        String operation = direction == SortDirection.ASC ? "valueWhenMatchesSortAsc" : "valueWhenMatchesSortDesc";
+        return record(operation, snapshot.getQueryString(), start,
+                valueWhenMatchesSort(snapshot.getSortSpec(), missingValue, matchingValue, nonMatchingValue, direction));
+    }
+
+    /**
+     * Computes everything needed by the headers of a sortable table in a single pass. For every field, the result is
+     * the same as calling {@code fieldSorterXXX}, {@code getCurrentSortDirectionXXX} and
+     * {@code valueWhenMatchesSortXXX} where 'XXX' is the fields default direction, but the query string is only
+     * parsed once rather than several times per column.
+     *
+     * <p>Each field is in the form {@code 'field'} or {@code 'field,direction'} where the optional direction is the
+     * fields default direction, 'asc' if omitted.</p>
+     * <p></p>
+     * <p><b>Thymeleaf usage</b></p>
+     *
+     * <blockquote>
+     * <pre>
+     *     #request.getQueryString() = city=melbourne&sort=name,desc
+     *
+     *     {@code
+     *     <table th:with="headers=${#qs.sortHeaders(#request.getQueryString(), {'name', 'stars,desc'}, '', 'up', 'down')}">
+     *         <thead>
+     *             <th th:each="header : ${headers.values()}" th:classappend="${header.value}">
+     *                 <a th:href="@{${#request.getRequestURI()}(${header.queryString})}" th:text="${header.field}"></a>
+     *             </th>
+     *         </thead>
+     *     </table>
+     *     }
+     *
+     *     => headers = {name  -> (queryString=city=melbourne&sort=name,asc, currentDirection=desc, value=down),
+     *                   stars -> (queryString=city=melbourne&sort=stars,desc, currentDirection=null, value='')}
+     * </pre>
+     * </blockquote>
+     *
+     * <p>Supplying a {@code null} or empty {@code queryString} is the same as no sorting being applied. All other
+     * arguments must receive valid values otherwise the behaviour is undefined.</p>
+     *
+     * @param queryString                The current query string.
+     * @param fieldsAndDefaultDirections The sort fields such as {@code {'name', 'stars,desc'}}.
+     * @param missingValue               The value for fields not in the query string.
+     * @param matchingValue              The value for fields whose direction matches their default direction.
+     * @param nonMatchingValue           The value for fields whose direction does not match their default direction.
+     * @return The sort header of each field keyed by field in the supplied order.
+     */
+    public Map<String, SortHeader> sortHeaders(String queryString, List<String> fieldsAndDefaultDirections,
+                                               String missingValue, String matchingValue, String nonMatchingValue) {
+        long start = startTime();
+        if (fieldsAndDefaultDirections == null) {
+            return record("sortHeaders", queryString, start, new LinkedHashMap<>());
+        }
+        return record("sortHeaders", queryString, start, sortHeaders(snapshot(queryString), fieldsAndDefaultDirections,
+                missingValue, matchingValue, nonMatchingValue));
+    }
+
+    /**
+     * See {@link #sortHeaders(String, List, String, String, String)}, starting from an already parsed {@code snapshot}.
+     */
+    Map<String, SortHeader> sortHeadersOf(QueryStringSnapshot snapshot, List<String> fieldsAndDefaultDirections,
+                                          String missingValue, String matchingValue, String nonMatchingValue) {
+        long start = startTime();
+        if (fieldsAndDefaultDirections == null) {
+            return record("sortHeaders", snapshot.getQueryString(), start, new LinkedHashMap<>());
+        }
+        return record("sortHeaders", snapshot.getQueryString(), start, sortHeaders(snapshot,
+                fieldsAndDefaultDirections, missingValue, matchingValue, nonMatchingValue));
+    }
+
+    private Map<String, SortHeader> sortHeaders(QueryStringSnapshot snapshot, List<String> fieldsAndDefaultDirections,
+                                                String missingValue, String matchingValue, String nonMatchingValue) {
+        Map<String, SortHeader> headers = new LinkedHashMap<>();
+        SortSpec currentSort = snapshot.getSortSpec();
+        SortSpec columns = SortSpec.of(fieldsAndDefaultDirections);
+
+        for (int i = 0; i < columns.size(); i++) {
+            String field = columns.getField(i);
+            SortDirection defaultDirection = columns.getDirection(i) == SortDirection.DESC ?
+                    SortDirection.DESC : SortDirection.ASC;
+            headers.put(field, sortHeader(snapshot, currentSort, field, defaultDirection, missingValue, matchingValue,
+                    nonMatchingValue));
+        }
+        return headers;
+    }
+
+    /**
+     * The same as {@link #sortHeaders(String, List, String, String, String)} for a single field. Every header of the
+     * same query string shares the parsed {@code SortSpec} when caching is enabled.
+     *
+     * @param queryString      The current query string.
+     * @param field            The sort field.
+     * @param defaultDirection The fields default direction, {@code ASC} unless {@code DESC}.
+     * @param missingValue     The value when the field is not in the query string.
+     * @param matchingValue    The value when the fields direction matches its default direction.
+     * @param nonMatchingValue The value when the fields direction does not match its default direction.
+     * @return The sort header of the field.
+     */
+    public SortHeader sortHeader(String queryString, String field, SortDirection defaultDirection,
+                                 String missingValue, String matchingValue, String nonMatchingValue) {
+        long start = startTime();
+        QueryStringSnapshot snapshot = snapshot(queryString);
+        SortDirection direction = defaultDirection == SortDirection.DESC ? SortDirection.DESC : SortDirection.ASC;
+        return record("sortHeader", queryString, start, sortHeader(snapshot, snapshot.getSortSpec(), field, direction,
+                missingValue, matchingValue, nonMatchingValue));
+    }
+
+    /**
+     * See {@link #sortHeader(String, String, SortDirection, String, String, String)}, starting from an already parsed
+     * {@code snapshot}.
+     */
+    SortHeader sortHeaderOf(QueryStringSnapshot snapshot, String field, SortDirection defaultDirection,
+                            String missingValue, String matchingValue, String nonMatchingValue) {
+        long start = startTime();
+        SortDirection direction = defaultDirection == SortDirection.DESC ? SortDirection.DESC : SortDirection.ASC;
+        return record("sortHeader", snapshot.getQueryString(), start, sortHeader(snapshot, snapshot.getSortSpec(),
+                field, direction, missingValue, matchingValue, nonMatchingValue));
+    }
+
+    private SortHeader sortHeader(QueryStringSnapshot snapshot, SortSpec currentSort, String field,
+                                  SortDirection defaultDirection, String missingValue, String matchingValue,
+                                  String nonMatchingValue) {
+        // Each column modifies its own copy of the already parsed pairs.
+        String sortQueryString = sortField(QueryStringBuilder.from(copy(snapshot)), field, defaultDirection);
+
+        String currentDirection = currentSort.getCurrentDirection(field, defaultDirection);
+        String value = currentDirection == null ? missingValue :
+                currentDirection.equals(defaultDirection.value) ? matchingValue : nonMatchingValue;
+
+        return new SortHeader(field, defaultDirection, sortQueryString, currentDirection, value);
+    }
+
+    /**
+     * See {@link #sortHeaders(String, List, String, String, String)}, every header value is {@code null}.
+     *
+     * @param queryString                The current query string.
+     * @param fieldsAndDefaultDirections The sort fields such as {@code {'name', 'stars,desc'}}.
+     * @return The sort header of each field keyed by field in the supplied order.
+     */
+    public Map<String, SortHeader> sortHeaders(String queryString, List<String> fieldsAndDefaultDirections) {
+        return sortHeaders(queryString, fieldsAndDefaultDirections, null, null, null);
+    }
+
+    /**
+     * See {@link #sortHeaders(String, List)}, starting from an already parsed {@code snapshot}.
+     */
+    Map<String, SortHeader> sortHeadersOf(QueryStringSnapshot snapshot, List<String> fieldsAndDefaultDirections) {
+        return sortHeadersOf(snapshot, fieldsAndDefaultDirections, null, null, null);
     }
 
 
@@ -1547,11 +2197,18 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     public String createNewSort(String queryString, List<String> fieldAndDirections) {
-        List<List<String>> newKeyValuePairs = fieldAndDirections.stream()
-                .map(fieldAndDirection -> Arrays.asList("sort", fieldAndDirection))
-                .collect(Collectors.toList());
+        long start = startTime();
+        return record("createNewSort", queryString, start,
+                builder(queryString).createNewSort(fieldAndDirections).build());
+    }
 
-        return removeAllAndAdd(queryString, Collections.singletonList("sort"), newKeyValuePairs);
+    /**
+     * See {@link #createNewSort(String, List)}, starting from an already parsed {@code snapshot}.
+     */
+    String createNewSortOf(QueryStringSnapshot snapshot, List<String> fieldAndDirections) {
+        long start = startTime();
+        return record("createNewSort", snapshot.getQueryString(), start,
+                QueryStringBuilder.from(copy(snapshot)).createNewSort(fieldAndDirections).build());
     }
 
     /**
@@ -1576,7 +2233,16 @@ public final class QueryStringHelper {
      * @return {@code true} if the {@code field} appears as a sort field otherwise {@code false}.
      */
     public boolean isFieldSorted(String queryString, String field) {
-        return QueryString.of(queryString, uris).isFieldSorted(field);
+        long start = startTime();
+        return record("isFieldSorted", queryString, start, sortSpec(queryString).isSorted(field));
+    }
+
+    /**
+     * See {@link #isFieldSorted(String, String)}, reading from an already parsed {@code snapshot}.
+     */
+    boolean isFieldSortedOf(QueryStringSnapshot snapshot, String field) {
+        long start = startTime();
+        return record("isFieldSorted", snapshot.getQueryString(), start, snapshot.getSortSpec().isSorted(field));
     }
 
     /**
@@ -1589,14 +2255,30 @@ public final class QueryStringHelper {
      * @return The new query string.
      */
     private String getCurrentSortDirection(String queryString, String field, SortDirection defaultDirection) {
-        final String sortFieldSeparator = ",";
+        return sortSpec(queryString).getCurrentDirection(field, defaultDirection);
+    }
 
-        return getAllValues(queryString, "sort").stream()
-                .map(value -> value.split(sortFieldSeparator))
-                .filter(pair -> pair[0].equals(field))
-                .map(pair -> pair.length == 1 ? defaultDirection.value : pair[1])
-                .findFirst()
-                .orElse(null);
+    /**
+     * @param queryString The current query string.
+     * @return The parsed sort values, shared between calls when the snapshot is cached.
+     */
+    private SortSpec sortSpec(String queryString) {
+        if (cache == null) {
+            return view(queryString).getSortSpec();
+        }
+        return snapshot(queryString).getSortSpec();
+    }
+
+    /**
+     * @param queryString The current query string.
+     * @return The parsed query string, from the cache should caching be enabled.
+     */
+    QueryStringSnapshot snapshot(String queryString) {
+        String limited = limit(queryString);
+        if (limited == null) {
+            return QueryStringSnapshot.unchanged(queryString, codec);
+        }
+        return cache == null ? snapshotLoader.apply(limited) : cache.get(limited, snapshotLoader);
     }
 
 
@@ -1668,7 +2350,9 @@ public final class QueryStringHelper {
      * @return The sort direction of either {@code asc | desc} if found, otherwise {@code null}.
      */
     public String getCurrentSortDirectionAsc(String queryString, String field) {
-        return getCurrentSortDirection(queryString, field, SortDirection.ASC);
+        long start = startTime();
+        return record("getCurrentSortDirectionAsc", queryString, start,
+                getCurrentSortDirection(queryString, field, SortDirection.ASC));
     }
 
     /**
@@ -1680,7 +2364,21 @@ public final class QueryStringHelper {
      * @return The sort direction of either {@code asc | desc} if found, otherwise {@code null}.
      */
     public String getCurrentSortDirectionDesc(String queryString, String field) {
-        return getCurrentSortDirection(queryString, field, SortDirection.DESC);
+        long start = startTime();
+        return record("getCurrentSortDirectionDesc", queryString, start,
+                getCurrentSortDirection(queryString, field, SortDirection.DESC));
+    }
+
+    /**
+     * See {@link #getCurrentSortDirectionAsc(String, String)} and {@link #getCurrentSortDirectionDesc(String, String)},
+     * reading from an already parsed {@code snapshot}.
+     */
+    String currentSortDirectionOf(QueryStringSnapshot snapshot, String field, SortDirection defaultDirection) {
+        long start = startTime();
+        String operation = defaultDirection == SortDirection.ASC ?
+                "getCurrentSortDirectionAsc" : "getCurrentSortDirectionDesc";
+        return record(operation, snapshot.getQueryString(), start,
+                snapshot.getSortSpec().getCurrentDirection(field, defaultDirection));
     }
 
     /**
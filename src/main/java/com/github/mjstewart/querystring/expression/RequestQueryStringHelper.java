@@ -0,0 +1,225 @@
+package com.github.mjstewart.querystring.expression;
+
+import com.github.mjstewart.querystring.util.Pagination;
+import com.github.mjstewart.querystring.util.QueryStringBuilder;
+import com.github.mjstewart.querystring.util.QueryStringSnapshot;
+import com.github.mjstewart.querystring.util.SortDirection;
+import com.github.mjstewart.querystring.util.SortHeader;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The {@code #qsr} expression object, bound to the query string of the request being rendered.
+ *
+ * <p>Rather than every expression supplying {@code #request.getQueryString()}, which is resolved reflectively on
+ * each call, the query string and request URI are read once when the template starts rendering. The query string is
+ * parsed on first use and every later {@code #qsr} expression starts from that snapshot, so the query is only parsed
+ * once for the rest of the render whether or not the helper caches parsed query strings.</p>
+ *
+ * <p>Each method behaves the same as the {@code QueryStringHelper} method of the same name minus the
+ * {@code queryString} argument.</p>
+ *
+ * <blockquote>
+ * <pre>
+ *     {@code
+ *     <a th:href="${#qsr.url(#qsr.incrementPage())}">Next</a>
+ *     <th th:with="headers=${#qsr.sortHeaders({'name', 'stars,desc'})}">...</th>
+ *     }
+ * </pre>
+ * </blockquote>
+ */
+public final class RequestQueryStringHelper {
+
+    private final QueryStringHelper helper;
+
+    // The raw request query string, null if the request has none.
+    private final String queryString;
+
+    private final String requestURI;
+
+    // Parsed on first use. Racing threads at worst parse it more than once.
+    private QueryStringSnapshot snapshot;
+
+    /**
+     * @param helper      Parses the query string and performs every operation.
+     * @param queryString The raw query string of the current request, may be {@code null}.
+     * @param requestURI  The URI of the current request, may be {@code null} outside of a web context.
+     */
+    public RequestQueryStringHelper(QueryStringHelper helper, String queryString, String requestURI) {
+        if (helper == null) {
+            throw new IllegalArgumentException("helper cannot be null");
+        }
+        this.helper = helper;
+        this.queryString = queryString;
+        this.requestURI = requestURI;
+    }
+
+    /**
+     * @return The raw query string of the current request, may be {@code null}.
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * @return The URI of the current request, may be {@code null} outside of a web context.
+     */
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    private QueryStringSnapshot snapshot() {
+        QueryStringSnapshot parsed = snapshot;
+        if (parsed == null) {
+            parsed = helper.snapshot(queryString);
+            snapshot = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * @param newQueryString The new query string.
+     * @return The current request URI joined with {@code newQueryString}.
+     */
+    public String url(String newQueryString) {
+        return helper.url(requestURI, newQueryString);
+    }
+
+    public QueryStringBuilder on() {
+        return helper.builderOf(snapshot());
+    }
+
+    public String applyPlan(String plan) {
+        return helper.applyPlanOf(snapshot(), plan);
+    }
+
+    public String getFirstValue(String key) {
+        return helper.firstValueOf(snapshot(), key);
+    }
+
+    public List<String> getAllValues(String key) {
+        return helper.allValuesOf(snapshot(), key);
+    }
+
+    public String replaceFirst(String key, String value) {
+        return helper.replaceFirstOf(snapshot(), key, value);
+    }
+
+    public String removeFirst(String key) {
+        return helper.removeFirstOf(snapshot(), key);
+    }
+
+    public String removeAll(List<String> keys) {
+        return helper.removeAllOf(snapshot(), keys);
+    }
+
+    public String add(String key, String value) {
+        return helper.addOf(snapshot(), key, value);
+    }
+
+    public String addAll(List<List<String>> keyValuePairs) {
+        return helper.addAllOf(snapshot(), keyValuePairs);
+    }
+
+    public String getPageNumber() {
+        return helper.pageNumberOf(snapshot());
+    }
+
+    public String incrementPage() {
+        return helper.incrementPageOf(snapshot());
+    }
+
+    public String incrementPage(int maxBound) {
+        return helper.incrementPageOf(snapshot(), maxBound);
+    }
+
+    public String decrementPage() {
+        return helper.decrementPageOf(snapshot());
+    }
+
+    public String resetPageNumber() {
+        return helper.resetPageNumberOf(snapshot());
+    }
+
+    public String setPageNumber(String number) {
+        return helper.setPageNumberOf(snapshot(), number);
+    }
+
+    public Pagination pagination(int currentPage, int totalPages, int windowSize) {
+        return helper.paginationOf(snapshot(), currentPage, totalPages, windowSize);
+    }
+
+    public Pagination pagination(int currentPage, int totalPages) {
+        return helper.paginationOf(snapshot(), currentPage, totalPages);
+    }
+
+    public boolean isFieldSorted(String field) {
+        return helper.isFieldSortedOf(snapshot(), field);
+    }
+
+    public String getCurrentSortDirectionAsc(String field) {
+        return helper.currentSortDirectionOf(snapshot(), field, SortDirection.ASC);
+    }
+
+    public String getCurrentSortDirectionDesc(String field) {
+        return helper.currentSortDirectionOf(snapshot(), field, SortDirection.DESC);
+    }
+
+    public String toggleSortDefaultAsc(String sortField) {
+        return helper.toggleSortDefaultAscOf(snapshot(), sortField);
+    }
+
+    public String toggleSortDefaultDesc(String sortField) {
+        return helper.toggleSortDefaultDescOf(snapshot(), sortField);
+    }
+
+    public Function<String, String> fieldSorterAsc() {
+        return helper.fieldSorterOf(snapshot(), SortDirection.ASC);
+    }
+
+    public Function<String, String> fieldSorterDesc() {
+        return helper.fieldSorterOf(snapshot(), SortDirection.DESC);
+    }
+
+    public Function<String, String> valueWhenMatchesSortAsc(String missingValue, String matchingValue,
+                                                            String nonMatchingValue) {
+        return helper.valueWhenMatchesSortOf(snapshot(), missingValue, matchingValue, nonMatchingValue,
+                SortDirection.ASC);
+    }
+
+    public Function<String, String> valueWhenMatchesSortDesc(String missingValue, String matchingValue,
+                                                             String nonMatchingValue) {
+        return helper.valueWhenMatchesSortOf(snapshot(), missingValue, matchingValue, nonMatchingValue,
+                SortDirection.DESC);
+    }
+
+    public Map<String, SortHeader> sortHeaders(List<String> fieldsAndDefaultDirections, String missingValue,
+                                               String matchingValue, String nonMatchingValue) {
+        return helper.sortHeadersOf(snapshot(), fieldsAndDefaultDirections, missingValue, matchingValue,
+                nonMatchingValue);
+    }
+
+    public Map<String, SortHeader> sortHeaders(List<String> fieldsAndDefaultDirections) {
+        return helper.sortHeadersOf(snapshot(), fieldsAndDefaultDirections);
+    }
+
+    public SortHeader sortHeader(String field, SortDirection defaultDirection, String missingValue,
+                                 String matchingValue, String nonMatchingValue) {
+        return helper.sortHeaderOf(snapshot(), field, defaultDirection, missingValue, matchingValue,
+                nonMatchingValue);
+    }
+
+    public String createNewSort(List<String> fieldAndDirections) {
+        return helper.createNewSortOf(snapshot(), fieldAndDirections);
+    }
+
+    @Override
+    public String toString() {
+        return "RequestQueryStringHelper{" +
+                "queryString='" + queryString + '\'' +
+                ", requestURI='" + requestURI + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.mjstewart.querystring.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe histogram of operation latencies using power of 2 microsecond buckets.
+ *
+ * <p>Bucket 0 counts operations under 1 microsecond, bucket {@code i} counts operations taking at least
+ * {@code 2^(i-1)} but less than {@code 2^i} microseconds and the last bucket counts everything slower. Recording is
+ * a single {@code LongAdder} increment so concurrent renders do not contend on a shared counter.</p>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * The last bucket starts at {@code 2^(BUCKET_COUNT - 2)} microseconds, roughly 1 second.
+     */
+    public static final int BUCKET_COUNT = 22;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder totalInputLength = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long elapsedNanos, int inputLength) {
+        buckets[bucketOf(elapsedNanos)].increment();
+        count.increment();
+        totalNanos.add(elapsedNanos);
+        totalInputLength.add(inputLength);
+    }
+
+    /**
+     * @param elapsedNanos The latency.
+     * @return The index of the bucket counting the latency.
+     */
+    static int bucketOf(long elapsedNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        if (micros <= 0) {
+            return 0;
+        }
+        return Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @param bucket The bucket index.
+     * @return The inclusive lower bound of the bucket in microseconds.
+     */
+    public static long lowerBoundMicros(int bucket) {
+        if (bucket < 0 || bucket >= BUCKET_COUNT) {
+            throw new IllegalArgumentException("bucket must be between 0 and " + (BUCKET_COUNT - 1) + " but was " + bucket);
+        }
+        return bucket == 0 ? 0 : 1L << (bucket - 1);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getTotalInputLength() {
+        return totalInputLength.sum();
+    }
+
+    /**
+     * @return The mean latency in microseconds, 0 if nothing has been recorded.
+     */
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1000.0 / n;
+    }
+
+    /**
+     * @return A copy of the bucket counts, see {@link #lowerBoundMicros(int)} for the bucket bounds.
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates a percentile as the upper bound of the bucket it falls in, so the answer is never optimistic by
+     * more than a factor of 2.
+     *
+     * @param percentile Between 0 and 100.
+     * @return The estimated latency in microseconds, 0 if nothing has been recorded.
+     */
+    public long getPercentileMicros(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100 but was " + percentile);
+        }
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return i == counts.length - 1 ? lowerBoundMicros(i) : 1L << i;
+            }
+        }
+        return lowerBoundMicros(counts.length - 1);
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        totalNanos.reset();
+        totalInputLength.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+                "count=" + getCount() +
+                ", meanMicros=" + getMeanMicros() +
+                ", p99Micros=" + getPercentileMicros(99) +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.mjstewart.querystring.metrics;
+
+/**
+ * Receives measurements from {@code QueryStringHelper}, {@code QueryStringCache}, {@code MemoizingCodec} and
+ * {@code QueryStringLimits}.
+ *
+ * <p>Methods are called on the rendering thread for every operation, implementations must therefore be thread safe
+ * and cheap. Every method does nothing by default so implementations only override what they are interested in.
+ * {@link #NOOP} is used unless metrics are supplied, see {@link QueryStringStatistics} for the built in
+ * implementation.</p>
+ */
+public interface QueryStringMetrics {
+
+    /**
+     * Records nothing. Components skip reading the clock altogether when given this instance.
+     */
+    QueryStringMetrics NOOP = new QueryStringMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return "QueryStringMetrics.NOOP";
+        }
+    };
+
+    /**
+     * @return {@code false} if measurements are discarded, allowing callers to avoid timing operations.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Called once a {@code QueryStringHelper} method completes without throwing.
+     *
+     * @param name         The {@code QueryStringHelper} method name such as {@code 'replaceFirst'}.
+     * @param elapsedNanos The time taken by the method.
+     * @param inputLength  The length of the input query string, 0 if {@code null}.
+     */
+    default void operation(String name, long elapsedNanos, int inputLength) {
+    }
+
+    /**
+     * Called each time a raw query string is parsed rather than read from a cache.
+     *
+     * @param inputLength The length of the parsed query string, 0 if {@code null}.
+     * @param pairCount   The number of {@code key=value} pairs found.
+     */
+    default void parsed(int inputLength, int pairCount) {
+    }
+
+    /**
+     * Called for each limit a query string exceeds, at most once per limit for a query string.
+     *
+     * @param limit       The exceeded limit such as {@code 'maxPairs'}, see {@code QueryStringLimits}.
+     * @param inputLength The length of the query string before the limits were applied.
+     */
+    default void limitExceeded(String limit, int inputLength) {
+    }
+
+    /**
+     * Called when {@code QueryStringCache} finds an already parsed query string.
+     */
+    default void cacheHit() {
+    }
+
+    /**
+     * Called when {@code QueryStringCache} must parse the query string.
+     */
+    default void cacheMiss() {
+    }
+
+    /**
+     * Called when {@code MemoizingCodec} answers an escape from its table.
+     */
+    default void escapeTableHit() {
+    }
+
+    /**
+     * Called when a memoizable value is not found in the {@code MemoizingCodec} table.
+     */
+    default void escapeTableMiss() {
+    }
+}
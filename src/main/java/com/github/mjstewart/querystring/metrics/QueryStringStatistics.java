@@ -0,0 +1,422 @@
+package com.github.mjstewart.querystring.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link QueryStringMetrics} keeping running totals and a {@link LatencyHistogram} per {@code QueryStringHelper}
+ * method.
+ *
+ * <p>All counters are {@code LongAdder}s so templates rendering concurrently do not contend on shared state.
+ * Operations taking at least the slow operation threshold are counted and logged at {@code WARN} with the method name
+ * and input length, the query string itself is never logged. Each method is logged at most once per log interval
+ * so a hot template under load cannot flood the logs, the counters include every slow call. Query strings exceeding a {@code QueryStringLimits} limit
+ * are counted per limit so abusive traffic can be alerted on.</p>
+ *
+ * <p>Given an object name, {@link #register()} publishes the statistics to the platform MBean server. The application
+ * registers them when it starts and calls {@link #unregister()} when it stops, otherwise the MBean server keeps the
+ * statistics and the classes of a redeployed application reachable.</p>
+ *
+ * <blockquote>
+ * <pre>
+ *     QueryStringStatistics statistics = QueryStringStatistics.builder()
+ *             .slowOperationThreshold(5, TimeUnit.MILLISECONDS)
+ *             .objectName(QueryStringStatistics.DEFAULT_OBJECT_NAME)
+ *             .build();
+ *     statistics.register();
+ *     ...
+ *     statistics.unregister();
+ * </pre>
+ * </blockquote>
+ */
+public final class QueryStringStatistics implements QueryStringMetrics, QueryStringStatisticsMXBean {
+
+    public static final String DEFAULT_OBJECT_NAME = "com.github.mjstewart.querystring:type=QueryStringStatistics";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryStringStatistics.class);
+
+    // 0 disables slow operation logging.
+    private final long slowThresholdNanos;
+
+    // Minimum time between slow operation log messages for the same method.
+    private final long logIntervalNanos;
+
+    // null if the statistics are not published.
+    private final ObjectName objectName;
+
+    // true while registered by register(), so unregister() never removes an MBean it did not register.
+    private volatile boolean registered;
+
+    private final Map<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+
+    private final Map<String, SlowLog> slowLogs = new ConcurrentHashMap<>();
+
+    private final LongAdder operationCount = new LongAdder();
+    private final LongAdder slowOperationCount = new LongAdder();
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder parsedInputLength = new LongAdder();
+    private final LongAdder parsedPairCount = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder escapeTableHits = new LongAdder();
+    private final LongAdder escapeTableMisses = new LongAdder();
+    private final LongAdder limitExceededCount = new LongAdder();
+
+    private final Map<String, LongAdder> limitsExceeded = new ConcurrentHashMap<>();
+
+    private QueryStringStatistics(Builder builder) {
+        this.slowThresholdNanos = builder.slowThresholdNanos;
+        this.logIntervalNanos = builder.logIntervalNanos;
+        this.objectName = builder.objectName;
+    }
+
+    /**
+     * @return Statistics which are not published and do not log slow operations.
+     */
+    public static QueryStringStatistics create() {
+        return builder().build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void operation(String name, long elapsedNanos, int inputLength) {
+        LatencyHistogram histogram = operations.get(name);
+        if (histogram == null) {
+            histogram = operations.computeIfAbsent(name, k -> new LatencyHistogram());
+        }
+        histogram.record(elapsedNanos, inputLength);
+        operationCount.increment();
+
+        if (slowThresholdNanos > 0 && elapsedNanos >= slowThresholdNanos) {
+            slowOperationCount.increment();
+            if (LOGGER.isWarnEnabled()) {
+                long suppressed = slowLogOf(name).tryLog(System.nanoTime(), logIntervalNanos);
+                if (suppressed >= 0) {
+                    LOGGER.warn("Slow #qs operation '{}' took {} us for a query string of length {}, "
+                                    + "{} more slow calls since last logged",
+                            new Object[]{name, TimeUnit.NANOSECONDS.toMicros(elapsedNanos), inputLength, suppressed});
+                }
+            }
+        }
+    }
+
+    SlowLog slowLogOf(String name) {
+        SlowLog slowLog = slowLogs.get(name);
+        if (slowLog == null) {
+            slowLog = slowLogs.computeIfAbsent(name, k -> new SlowLog());
+        }
+        return slowLog;
+    }
+
+    /**
+     * Limits the slow operation log messages of a single method.
+     */
+    static final class SlowLog {
+        // Earliest System.nanoTime() the next message may be logged, 0 before the first message.
+        private final AtomicLong nextLogNanos = new AtomicLong();
+        private final LongAdder suppressed = new LongAdder();
+        private volatile boolean logged;
+
+        /**
+         * @return The number of slow calls suppressed since the last message if this call should be logged,
+         * otherwise -1 having counted this call as suppressed.
+         */
+        long tryLog(long nowNanos, long intervalNanos) {
+            long next = nextLogNanos.get();
+            if ((!logged || nowNanos - next >= 0) && nextLogNanos.compareAndSet(next, nowNanos + intervalNanos)) {
+                logged = true;
+                return suppressed.sumThenReset();
+            }
+            suppressed.increment();
+            return -1;
+        }
+    }
+
+    @Override
+    public void parsed(int inputLength, int pairCount) {
+        parseCount.increment();
+        parsedInputLength.add(inputLength);
+        parsedPairCount.add(pairCount);
+    }
+
+    @Override
+    public void cacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void escapeTableHit() {
+        escapeTableHits.increment();
+    }
+
+    @Override
+    public void escapeTableMiss() {
+        escapeTableMisses.increment();
+    }
+
+    @Override
+    public void limitExceeded(String limit, int inputLength) {
+        LongAdder count = limitsExceeded.get(limit);
+        if (count == null) {
+            count = limitsExceeded.computeIfAbsent(limit, k -> new LongAdder());
+        }
+        count.increment();
+        limitExceededCount.increment();
+    }
+
+    /**
+     * @param operation The {@code QueryStringHelper} method name.
+     * @return The latencies of the method, {@code null} if it has never been called.
+     */
+    public LatencyHistogram getHistogram(String operation) {
+        return operations.get(operation);
+    }
+
+    /**
+     * Publishes these statistics to the platform MBean server. An MBean already registered under the same name, which
+     * may belong to another application in the same JVM, is left in place and this method fails.
+     *
+     * @return The name the MBean was registered under.
+     * @throws IllegalStateException If there is no object name, the name is already registered or the MBean could not
+     *                               be registered.
+     */
+    public ObjectName register() {
+        if (objectName == null) {
+            throw new IllegalStateException("Cannot register statistics without an object name");
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("An MBean is already registered as '" + objectName + "'", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register MBean '" + objectName + "'", e);
+        }
+        registered = true;
+        return objectName;
+    }
+
+    /**
+     * Removes the MBean published by {@link #register()}. Does nothing if these statistics are not registered, so an
+     * MBean registered under the same name by someone else is never removed.
+     */
+    public void unregister() {
+        if (!registered) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (InstanceNotFoundException e) {
+            // Already removed.
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to unregister MBean '" + objectName + "'", e);
+        }
+        registered = false;
+    }
+
+    /**
+     * @return The JMX object name, {@code null} if the statistics are not published.
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public long getOperationCount() {
+        return operationCount.sum();
+    }
+
+    @Override
+    public long getSlowOperationCount() {
+        return slowOperationCount.sum();
+    }
+
+    @Override
+    public long getSlowOperationThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    @Override
+    public long getParseCount() {
+        return parseCount.sum();
+    }
+
+    @Override
+    public long getParsedInputLength() {
+        return parsedInputLength.sum();
+    }
+
+    @Override
+    public long getParsedPairCount() {
+        return parsedPairCount.sum();
+    }
+
+    @Override
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public long getEscapeTableHitCount() {
+        return escapeTableHits.sum();
+    }
+
+    @Override
+    public long getEscapeTableMissCount() {
+        return escapeTableMisses.sum();
+    }
+
+    @Override
+    public long getLimitExceededCount() {
+        return limitExceededCount.sum();
+    }
+
+    @Override
+    public Map<String, Long> getLimitExceededCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        limitsExceeded.forEach((limit, count) -> counts.put(limit, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        operations.forEach((name, histogram) -> counts.put(name, histogram.getCount()));
+        return counts;
+    }
+
+    @Override
+    public Map<String, Double> getMeanLatencyMicros() {
+        Map<String, Double> means = new TreeMap<>();
+        operations.forEach((name, histogram) -> means.put(name, histogram.getMeanMicros()));
+        return means;
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyMicros() {
+        Map<String, Long> percentiles = new TreeMap<>();
+        operations.forEach((name, histogram) -> percentiles.put(name, histogram.getPercentileMicros(99)));
+        return percentiles;
+    }
+
+    @Override
+    public long[] latencyHistogram(String operation) {
+        LatencyHistogram histogram = operations.get(operation);
+        return histogram == null ? new long[0] : histogram.getBucketCounts();
+    }
+
+    @Override
+    public void reset() {
+        operations.values().forEach(LatencyHistogram::reset);
+        operationCount.reset();
+        slowOperationCount.reset();
+        parseCount.reset();
+        parsedInputLength.reset();
+        parsedPairCount.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        escapeTableHits.reset();
+        escapeTableMisses.reset();
+        limitExceededCount.reset();
+        limitsExceeded.values().forEach(LongAdder::reset);
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStringStatistics{" +
+                "operations=" + getOperationCount() +
+                ", slowOperations=" + getSlowOperationCount() +
+                ", parses=" + getParseCount() +
+                ", cacheHits=" + getCacheHitCount() +
+                ", cacheMisses=" + getCacheMissCount() +
+                ", escapeTableHits=" + getEscapeTableHitCount() +
+                ", escapeTableMisses=" + getEscapeTableMissCount() +
+                ", limitsExceeded=" + getLimitExceededCount() +
+                '}';
+    }
+
+    public static final class Builder {
+        private long slowThresholdNanos;
+        private long logIntervalNanos = TimeUnit.MINUTES.toNanos(1);
+        private ObjectName objectName;
+
+        private Builder() {
+        }
+
+        /**
+         * @param threshold Operations taking at least this long are logged, 0 disables logging.
+         * @param unit      The unit of {@code threshold}.
+         */
+        public Builder slowOperationThreshold(long threshold, TimeUnit unit) {
+            if (threshold < 0) {
+                throw new IllegalArgumentException("threshold cannot be negative but was " + threshold);
+            }
+            if (unit == null) {
+                throw new IllegalArgumentException("unit cannot be null");
+            }
+            this.slowThresholdNanos = unit.toNanos(threshold);
+            return this;
+        }
+
+        /**
+         * @param interval The minimum time between slow operation log messages for the same method, 1 minute
+         *                 unless set. 0 logs every slow operation.
+         * @param unit     The unit of {@code interval}.
+         */
+        public Builder slowOperationLogInterval(long interval, TimeUnit unit) {
+            if (interval < 0) {
+                throw new IllegalArgumentException("interval cannot be negative but was " + interval);
+            }
+            if (unit == null) {
+                throw new IllegalArgumentException("unit cannot be null");
+            }
+            this.logIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * @param name The JMX object name used by {@link QueryStringStatistics#register()}, such as
+         *             {@link QueryStringStatistics#DEFAULT_OBJECT_NAME}.
+         */
+        public Builder objectName(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name cannot be null");
+            }
+            try {
+                this.objectName = new ObjectName(name);
+            } catch (MalformedObjectNameException e) {
+                throw new IllegalArgumentException("Invalid object name '" + name + "'", e);
+            }
+            return this;
+        }
+
+        public QueryStringStatistics build() {
+            return new QueryStringStatistics(this);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.mjstewart.querystring.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link QueryStringStatistics}, published to the platform MBean server by
+ * {@link QueryStringStatistics#register()}.
+ */
+public interface QueryStringStatisticsMXBean {
+
+    long getOperationCount();
+
+    long getSlowOperationCount();
+
+    long getSlowOperationThresholdMillis();
+
+    long getParseCount();
+
+    long getParsedInputLength();
+
+    long getParsedPairCount();
+
+    long getCacheHitCount();
+
+    long getCacheMissCount();
+
+    long getEscapeTableHitCount();
+
+    long getEscapeTableMissCount();
+
+    long getLimitExceededCount();
+
+    /**
+     * @return Limit name such as {@code 'maxPairs'} to the number of query strings exceeding it.
+     */
+    Map<String, Long> getLimitExceededCounts();
+
+    /**
+     * @return Method name to the number of calls.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * @return Method name to the mean latency in microseconds.
+     */
+    Map<String, Double> getMeanLatencyMicros();
+
+    /**
+     * @return Method name to the estimated 99th percentile latency in microseconds.
+     */
+    Map<String, Long> getP99LatencyMicros();
+
+    /**
+     * @param operation The method name.
+     * @return The histogram bucket counts of the method, empty if never called.
+     */
+    long[] latencyHistogram(String operation);
+
+    /**
+     * Sets every count back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,186 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the escaped form of recently seen short keys and values.
+ *
+ * <p>Query string keys usually come from a tiny vocabulary such as {@code page}, {@code size} and {@code sort},
+ * and values such as {@code name,asc} repeat constantly, yet every reconstructed query string escapes each of
+ * them again. This codec keeps a fixed size table of escaped results in front of the {@code delegate}.</p>
+ *
+ * <p>The table is direct mapped, each value has exactly 1 slot determined by its hash and a colliding value simply
+ * replaces the previous entry. Memory is therefore bounded by the table size and {@code maxValueLength}
+ * no matter how many distinct values are seen. Values longer than {@code maxValueLength} are never memoized as
+ * they are unlikely to repeat. Unescaping is always delegated.</p>
+ */
+public final class MemoizingCodec implements QueryParamCodec {
+
+    public static final int DEFAULT_TABLE_SIZE = 512;
+    public static final int DEFAULT_MAX_VALUE_LENGTH = 32;
+
+    private final QueryParamCodec delegate;
+    private final Entry[] table;
+    private final int mask;
+    private final int maxValueLength;
+    private final QueryStringMetrics metrics;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+
+    private MemoizingCodec(QueryParamCodec delegate, int tableSize, int maxValueLength, QueryStringMetrics metrics) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate cannot be null");
+        }
+        if (tableSize <= 0) {
+            throw new IllegalArgumentException("tableSize must be greater than 0 but was " + tableSize);
+        }
+        if (maxValueLength <= 0) {
+            throw new IllegalArgumentException("maxValueLength must be greater than 0 but was " + maxValueLength);
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        int capacity = Integer.highestOneBit(tableSize);
+        if (capacity < tableSize) {
+            capacity <<= 1;
+        }
+        this.delegate = delegate;
+        this.table = new Entry[capacity];
+        this.mask = capacity - 1;
+        this.maxValueLength = maxValueLength;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @param delegate The codec performing the actual escaping.
+     * @return A memoizing codec using the default table size and max value length.
+     */
+    public static MemoizingCodec of(QueryParamCodec delegate) {
+        return new MemoizingCodec(delegate, DEFAULT_TABLE_SIZE, DEFAULT_MAX_VALUE_LENGTH, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * @param delegate       The codec performing the actual escaping.
+     * @param tableSize      The number of slots, rounded up to a power of 2.
+     * @param maxValueLength Values longer than this are escaped without being memoized.
+     * @return A new memoizing codec.
+     */
+    public static MemoizingCodec of(QueryParamCodec delegate, int tableSize, int maxValueLength) {
+        return new MemoizingCodec(delegate, tableSize, maxValueLength, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * @param delegate       The codec performing the actual escaping.
+     * @param tableSize      The number of slots, rounded up to a power of 2.
+     * @param maxValueLength Values longer than this are escaped without being memoized.
+     * @param metrics        Receives every table hit and miss.
+     * @return A new memoizing codec.
+     */
+    public static MemoizingCodec of(QueryParamCodec delegate, int tableSize, int maxValueLength,
+                                    QueryStringMetrics metrics) {
+        return new MemoizingCodec(delegate, tableSize, maxValueLength, metrics);
+    }
+
+    @Override
+    public String escapeQueryParam(String value) {
+        if (value == null || value.length() > maxValueLength) {
+            bypassed.increment();
+            return delegate.escapeQueryParam(value);
+        }
+
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        // Entries are immutable so a racing write can at worst cause a miss.
+        Entry entry = table[slot];
+        if (entry != null && entry.value.equals(value)) {
+            hits.increment();
+            metrics.escapeTableHit();
+            return entry.escaped;
+        }
+
+        misses.increment();
+        metrics.escapeTableMiss();
+        String escaped = delegate.escapeQueryParam(value);
+        // Values needing no escaping are returned unchanged rather than as an equal copy.
+        if (escaped.equals(value)) {
+            escaped = value;
+        }
+        table[slot] = new Entry(value, escaped);
+        return escaped;
+    }
+
+    @Override
+    public String unescapeQueryParam(String value) {
+        return delegate.unescapeQueryParam(value);
+    }
+
+    @Override
+    public void escapeQueryParam(String value, StringBuilder builder) {
+        if (value != null && value.length() > maxValueLength) {
+            bypassed.increment();
+            delegate.escapeQueryParam(value, builder);
+            return;
+        }
+        builder.append(escapeQueryParam(value));
+    }
+
+    public QueryParamCodec getDelegate() {
+        return delegate;
+    }
+
+    public int getTableSize() {
+        return table.length;
+    }
+
+    public int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * @return The number of escapes answered from the table.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of escapes that were memoizable but not found in the table.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of escapes skipping the table because the value was too long.
+     */
+    public long getBypassCount() {
+        return bypassed.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingCodec{" +
+                "delegate=" + delegate.getClass().getSimpleName() +
+                ", tableSize=" + table.length +
+                ", maxValueLength=" + maxValueLength +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", bypassed=" + getBypassCount() +
+                '}';
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final String escaped;
+
+        private Entry(String value, String escaped) {
+            this.value = value;
+            this.escaped = escaped;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.github.mjstewart.querystring.util;
+
+import java.util.function.LongPredicate;
+
+/**
+ * Parses, adjusts and formats numeric query string values without throwing exceptions.
+ *
+ * <p>Values such as {@code page=abc} or {@code page=1'--} are common in requests made by bots. Rather than
+ * relying on {@code Integer.parseInt} throwing a {@code NumberFormatException} for every one of them, values are
+ * validated by scanning their characters. Arithmetic is done on primitive {@code long}s and saturates at the bounds instead of
+ * silently overflowing.</p>
+ *
+ * <p>A numeric value has the same format accepted by {@code Long.parseLong}, an optional {@code '+'} or {@code '-'}
+ * sign followed by at least 1 decimal digit and fits into a {@code long}.</p>
+ */
+public final class NumericValues {
+
+    private NumericValues() {
+    }
+
+    /**
+     * @param value The value to check.
+     * @return {@code true} if {@code value} is a valid {@code long}.
+     */
+    public static boolean isLong(CharSequence value) {
+        return isWellFormed(value) && (parseLong(value, 0) != 0 || isZero(value));
+    }
+
+    /**
+     * @param value        The value to parse.
+     * @param defaultValue Returned if {@code value} is not a valid {@code long}.
+     * @return The parsed value or {@code defaultValue}.
+     */
+    public static long parseLong(CharSequence value, long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        int length = value.length();
+        if (length == 0) {
+            return defaultValue;
+        }
+
+        boolean negative = false;
+        int i = 0;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (length == 1) {
+                return defaultValue;
+            }
+        }
+
+        // Accumulate negatively to allow for Long.MIN_VALUE, the same as Long.parseLong.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(value.charAt(i), 10);
+            if (digit < 0 || result < multiplyLimit) {
+                return defaultValue;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * @return {@code a + b} saturated to {@code Long.MIN_VALUE} or {@code Long.MAX_VALUE} on overflow.
+     */
+    public static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        // Overflow only when both operands have the same sign and the sign of the sum differs.
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            return a < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return sum;
+    }
+
+    /**
+     * @return {@code value} limited to the inclusive range {@code [min, max]}.
+     */
+    public static long clamp(long value, long min, long max) {
+        if (min > max) {
+            throw new IllegalArgumentException("min " + min + " is greater than max " + max);
+        }
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Adds {@code delta} to the numeric {@code value}.
+     *
+     * @param value     The current value.
+     * @param delta     The amount to add, negative to subtract.
+     * @param min       The inclusive lower bound of the result.
+     * @param max       The inclusive upper bound of the result.
+     * @param predicate Gets passed the current value and if true permits the adjustment.
+     * @return The adjusted value saturated and clamped to {@code [min, max]}, or {@code null} if {@code value} is not
+     * numeric or the {@code predicate} is false.
+     */
+    public static String adjust(CharSequence value, long delta, long min, long max, LongPredicate predicate) {
+        if (!isWellFormed(value)) {
+            return null;
+        }
+        long current = parseLong(value, 0);
+        // A well formed value only fails to parse when out of range.
+        if (current == 0 && !isZero(value) || !predicate.test(current)) {
+            return null;
+        }
+        return Long.toString(clamp(saturatedAdd(current, delta), min, max));
+    }
+
+    private static boolean isWellFormed(CharSequence value) {
+        if (value == null || value.length() == 0) {
+            return false;
+        }
+        int i = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        if (i == value.length()) {
+            return false;
+        }
+        for (; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 10) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 10) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,194 @@
+package com.github.mjstewart.querystring.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The links of a pager bar, as returned by {@code #qs.pagination}.
+ *
+ * <p>Page numbers are zero based to match spring {@code Pageable}. The query string is rendered once around the
+ * {@code 'page'} value by a {@link QueryStringTemplate} so each link only costs the concatenation of its page
+ * number.</p>
+ */
+public final class Pagination {
+
+    private final int currentPage;
+    private final int lastPage;
+    private final PageLink first;
+    private final PageLink previous;
+    private final List<PageLink> pages;
+    private final PageLink next;
+    private final PageLink last;
+
+    private Pagination(QueryStringTemplate template, int currentPage, int lastPage, int windowSize) {
+        this.currentPage = currentPage;
+        this.lastPage = lastPage;
+
+        // Center the window on the current page, shifting it back within [0, lastPage] at either end.
+        int end = Math.min(lastPage, Math.max(currentPage + windowSize / 2, windowSize - 1));
+        int start = Math.max(0, end - windowSize + 1);
+
+        List<PageLink> links = new ArrayList<>(end - start + 1);
+        for (int page = start; page <= end; page++) {
+            links.add(link(template, page));
+        }
+        this.pages = Collections.unmodifiableList(links);
+        this.first = linkTo(template, 0);
+        this.last = linkTo(template, lastPage);
+        this.previous = currentPage > 0 ? linkTo(template, currentPage - 1) : null;
+        this.next = currentPage < lastPage ? linkTo(template, currentPage + 1) : null;
+    }
+
+    /**
+     * @param template    The query string rendered around the {@code 'page'} value.
+     * @param currentPage The zero based current page, limited to {@code [0, lastPage]}.
+     * @param totalPages  The total number of pages, at least 1 page is always assumed.
+     * @param windowSize  The maximum number of numbered page links.
+     * @return The pagination links.
+     * @throws IllegalArgumentException If {@code template} is null or {@code windowSize < 1}.
+     */
+    public static Pagination of(QueryStringTemplate template, int currentPage, int totalPages, int windowSize) {
+        if (template == null) {
+            throw new IllegalArgumentException("template cannot be null");
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1 but was " + windowSize);
+        }
+        int lastPage = Math.max(totalPages, 1) - 1;
+        int page = Math.max(0, Math.min(currentPage, lastPage));
+        return new Pagination(template, page, lastPage, windowSize);
+    }
+
+    /**
+     * Reuses the numbered link when it exists since the window usually contains the first, previous, next and last
+     * pages.
+     */
+    private PageLink linkTo(QueryStringTemplate template, int page) {
+        if (!pages.isEmpty()) {
+            int offset = page - pages.get(0).page;
+            if (offset >= 0 && offset < pages.size()) {
+                return pages.get(offset);
+            }
+        }
+        return link(template, page);
+    }
+
+    private PageLink link(QueryStringTemplate template, int page) {
+        return new PageLink(page, template.fill(page), page == currentPage);
+    }
+
+    /**
+     * @return The zero based current page.
+     */
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    /**
+     * @return The zero based last page.
+     */
+    public int getLastPage() {
+        return lastPage;
+    }
+
+    /**
+     * @return The link to page 0.
+     */
+    public PageLink getFirst() {
+        return first;
+    }
+
+    /**
+     * @return The link to the page before the current page or {@code null} if on the first page.
+     */
+    public PageLink getPrevious() {
+        return previous;
+    }
+
+    /**
+     * @return The numbered links within the window surrounding the current page.
+     */
+    public List<PageLink> getPages() {
+        return pages;
+    }
+
+    /**
+     * @return The link to the page after the current page or {@code null} if on the last page.
+     */
+    public PageLink getNext() {
+        return next;
+    }
+
+    /**
+     * @return The link to the last page.
+     */
+    public PageLink getLast() {
+        return last;
+    }
+
+    public boolean hasPrevious() {
+        return previous != null;
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Pagination{" +
+                "currentPage=" + currentPage +
+                ", lastPage=" + lastPage +
+                ", pages=" + pages +
+                '}';
+    }
+
+    /**
+     * A single page link.
+     */
+    public static final class PageLink {
+        private final int page;
+        private final String queryString;
+        private final boolean current;
+
+        private PageLink(int page, String queryString, boolean current) {
+            this.page = page;
+            this.queryString = queryString;
+            this.current = current;
+        }
+
+        /**
+         * @return The zero based page number.
+         */
+        public int getPage() {
+            return page;
+        }
+
+        /**
+         * @return The one based page number to display.
+         */
+        public int getLabel() {
+            return page + 1;
+        }
+
+        /**
+         * @return The query string with the 'page' key set to this page, the same as {@code #qs.setPageNumber}.
+         */
+        public String getQueryString() {
+            return queryString;
+        }
+
+        /**
+         * @return {@code true} if this is the current page.
+         */
+        public boolean isCurrent() {
+            return current;
+        }
+
+        @Override
+        public String toString() {
+            return page + " -> " + queryString;
+        }
+    }
+}
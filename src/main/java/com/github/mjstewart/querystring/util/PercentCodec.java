@@ -0,0 +1,285 @@
+package com.github.mjstewart.querystring.util;
+
+import org.thymeleaf.expression.Uris;
+
+/**
+ * UTF-8 percent encoder/decoder for query string keys and values.
+ *
+ * <p>Produces exactly the same output as the thymeleaf {@code #uris.escapeQueryParam} and
+ * {@code #uris.unescapeQueryParam} methods but is specialised for this library's inputs. Safe characters are
+ * looked up in a precomputed table, escaped output is written straight into the caller supplied
+ * {@code StringBuilder} and values which need no escaping or unescaping are returned as is without copying.</p>
+ *
+ * <p>Well formed input is always decoded here. Malformed escape sequences such as {@code %zz}, a trailing
+ * {@code %} or invalid UTF-8 are handed to the {@code fallback} codec so edge cases behave as they always have.</p>
+ */
+public final class PercentCodec implements QueryParamCodec {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    // Characters allowed unescaped in a query parameter, everything else is percent encoded.
+    private static final boolean[] SAFE = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            SAFE[c] = true;
+        }
+        // '&', '=', '+' and '#' are pchars but have a special meaning within a query string.
+        for (char c : "-._~!$'()*,;:@/?".toCharArray()) {
+            SAFE[c] = true;
+        }
+    }
+
+    private final QueryParamCodec fallback;
+
+    private PercentCodec(QueryParamCodec fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("fallback cannot be null");
+        }
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return A codec falling back to thymeleaf {@code Uris} for malformed input.
+     */
+    public static PercentCodec of() {
+        return new PercentCodec(new UrisCodec(new Uris()));
+    }
+
+    /**
+     * @param fallback Unescapes values containing malformed escape sequences.
+     * @return A new codec.
+     */
+    public static PercentCodec of(QueryParamCodec fallback) {
+        return new PercentCodec(fallback);
+    }
+
+    @Override
+    public String escapeQueryParam(String value) {
+        if (value == null) {
+            return null;
+        }
+        int first = firstUnsafe(value);
+        if (first == value.length()) {
+            return value;
+        }
+        // Most escaped characters expand to 3 characters.
+        StringBuilder builder = new StringBuilder(value.length() + 16);
+        builder.append(value, 0, first);
+        escape(value, first, builder);
+        return builder.toString();
+    }
+
+    @Override
+    public void escapeQueryParam(String value, StringBuilder builder) {
+        if (value == null) {
+            builder.append((String) null);
+            return;
+        }
+        int first = firstUnsafe(value);
+        builder.append(value, 0, first);
+        if (first < value.length()) {
+            escape(value, first, builder);
+        }
+    }
+
+    @Override
+    public String unescapeQueryParam(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value.length();
+        int first = 0;
+        while (first < length) {
+            char c = value.charAt(first);
+            if (c == '%' || c == '+') {
+                break;
+            }
+            first++;
+        }
+        if (first == length) {
+            return value;
+        }
+
+        StringBuilder builder = new StringBuilder(length);
+        builder.append(value, 0, first);
+
+        int i = first;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c == '+') {
+                builder.append(' ');
+                i++;
+            } else if (c == '%') {
+                i = decodeCodePoint(value, i, builder);
+                if (i < 0) {
+                    return fallback.unescapeQueryParam(value);
+                }
+                // Uris copies the character following a run of escaped bytes as is, so '+' is not a space there.
+                if (i < length && value.charAt(i) == '+') {
+                    builder.append('+');
+                    i++;
+                }
+            } else {
+                builder.append(c);
+                i++;
+            }
+        }
+        return builder.toString();
+    }
+
+    public QueryParamCodec getFallback() {
+        return fallback;
+    }
+
+    private static int firstUnsafe(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 128 || !SAFE[c]) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    private static void escape(String value, int from, StringBuilder builder) {
+        int length = value.length();
+        int i = from;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    builder.append(c);
+                } else {
+                    appendByte(c, builder);
+                }
+                i++;
+                continue;
+            }
+
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+                i += 2;
+            } else {
+                i++;
+            }
+
+            if (Character.isSurrogate((char) codePoint) && codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                // Unpaired surrogates cannot be encoded, String.getBytes replaces them with '?'.
+                appendByte('?', builder);
+            } else if (codePoint < 0x800) {
+                appendByte(0xC0 | (codePoint >> 6), builder);
+                appendByte(0x80 | (codePoint & 0x3F), builder);
+            } else if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                appendByte(0xE0 | (codePoint >> 12), builder);
+                appendByte(0x80 | ((codePoint >> 6) & 0x3F), builder);
+                appendByte(0x80 | (codePoint & 0x3F), builder);
+            } else {
+                appendByte(0xF0 | (codePoint >> 18), builder);
+                appendByte(0x80 | ((codePoint >> 12) & 0x3F), builder);
+                appendByte(0x80 | ((codePoint >> 6) & 0x3F), builder);
+                appendByte(0x80 | (codePoint & 0x3F), builder);
+            }
+        }
+    }
+
+    private static void appendByte(int b, StringBuilder builder) {
+        builder.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+    }
+
+    /**
+     * Decodes the UTF-8 sequence of escaped bytes starting at {@code index}.
+     *
+     * @return The index after the sequence, or {@code -1} if the sequence is malformed.
+     */
+    private static int decodeCodePoint(String value, int index, StringBuilder builder) {
+        int lead = decodeByte(value, index);
+        if (lead < 0) {
+            return -1;
+        }
+        if (lead < 0x80) {
+            builder.append((char) lead);
+            return index + 3;
+        }
+
+        int continuations;
+        int codePoint;
+        int min;
+        if ((lead & 0xE0) == 0xC0) {
+            continuations = 1;
+            codePoint = lead & 0x1F;
+            min = 0x80;
+        } else if ((lead & 0xF0) == 0xE0) {
+            continuations = 2;
+            codePoint = lead & 0x0F;
+            min = 0x800;
+        } else if ((lead & 0xF8) == 0xF0) {
+            continuations = 3;
+            codePoint = lead & 0x07;
+            min = Character.MIN_SUPPLEMENTARY_CODE_POINT;
+        } else {
+            return -1;
+        }
+
+        int i = index + 3;
+        for (int n = 0; n < continuations; n++, i += 3) {
+            if (i >= value.length() || value.charAt(i) != '%') {
+                return -1;
+            }
+            int b = decodeByte(value, i);
+            if (b < 0 || (b & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        // Overlong encodings, surrogates and values beyond unicode are not valid UTF-8.
+        if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return -1;
+        }
+        builder.appendCodePoint(codePoint);
+        return i;
+    }
+
+    /**
+     * @return The byte escaped as {@code %XX} at {@code index}, or {@code -1} if incomplete or not hexadecimal.
+     */
+    private static int decodeByte(String value, int index) {
+        if (index + 2 >= value.length()) {
+            return -1;
+        }
+        int high = hexDigit(value.charAt(index + 1));
+        int low = hexDigit(value.charAt(index + 2));
+        if (high < 0 || low < 0) {
+            return -1;
+        }
+        return (high << 4) | low;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    @Override
+    public String toString() {
+        return "PercentCodec{fallback=" + fallback.getClass().getSimpleName() + '}';
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.mjstewart.querystring.util;
+
+/**
+ * Escapes and unescapes individual query string keys and values.
+ *
+ * <p>Every {@code QueryString} operation unescapes the query string when parsing and escapes each key and value
+ * when the new query string is reconstructed, so implementations are on the hot path of every {@code #qs} call.</p>
+ */
+public interface QueryParamCodec {
+
+    /**
+     * @param value The unescaped key or value.
+     * @return The escaped form, or {@code value} itself if nothing needs escaping.
+     */
+    String escapeQueryParam(String value);
+
+    /**
+     * @param value The escaped key, value or query string.
+     * @return The unescaped form, or {@code value} itself if nothing needs unescaping.
+     */
+    String unescapeQueryParam(String value);
+
+    /**
+     * Appends the escaped form of {@code value} to {@code builder}.
+     *
+     * @param value   The unescaped key or value.
+     * @param builder The builder to append to.
+     */
+    default void escapeQueryParam(String value, StringBuilder builder) {
+        builder.append(escapeQueryParam(value));
+    }
+}
@@ -4,7 +4,6 @@ import org.thymeleaf.expression.Uris;
 
 import java.util.*;
 import java.util.function.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -15,19 +14,39 @@ import java.util.stream.Collectors;
  */
 public final class QueryString {
 
-    // The unescaped query string
+    // The escaped query string as supplied.
+    private String queryString;
+
+    // The unescaped query string, null until requested.
     private String originalQueryString;
 
     // Performs query string escape/unescaping.
-    private Uris uris;
+    private QueryParamCodec codec;
 
     // Representation of the query string to allow easier modifications across the range of operations.
     private Map<String, List<KeyValueIndex>> state;
 
-    private QueryString(String originalQueryString, Uris uris) {
+    // Every pair in the state map stored at its overall index so the original order is kept without sorting.
+    // Removed pairs leave behind a null slot.
+    private KeyValueIndex[] ordered = new KeyValueIndex[0];
+
+    // Overall index given to the next added pair. Only ever increases so removals never cause an index to be reused.
+    private int nextOverallIndex;
+
+    // Lazily built per key set of values used to reject duplicate pairs when adding, null until the first add.
+    // Any operation changing or removing existing values discards it.
+    private Map<String, Set<String>> valueIndex;
+
+    // Lazily parsed values of the 'sort' key, null until a sort operation needs it. Any change discards it.
+    private SortSpec sortSpec;
+
+    // true if the query string exceeded a limit, every operation then gives back the query string as supplied.
+    private boolean unchanged;
+
+    private QueryString(String queryString, QueryParamCodec codec) {
         // eliminates having to do null checks
-        this.originalQueryString = originalQueryString == null ? "" : uris.unescapeQueryParam(originalQueryString);
-        this.uris = uris;
+        this.queryString = queryString == null ? "" : queryString;
+        this.codec = codec;
         state = createState();
     }
 
@@ -39,32 +58,176 @@ public final class QueryString {
      * @return A valid instance
      */
     public static QueryString of(String queryString, Uris uris) {
-        return new QueryString(queryString, uris);
+        return new QueryString(queryString, new UrisCodec(uris));
+    }
+
+    /**
+     * Constructs a {@code QueryString} instance.
+     *
+     * @param queryString The query string. If {@code null} sets the internal instance to empty.
+     * @param codec       Handles escaping/unescaping the string
+     * @return A valid instance
+     */
+    public static QueryString of(String queryString, QueryParamCodec codec) {
+        return new QueryString(queryString, codec);
+    }
+
+    private QueryString(QueryStringSnapshot snapshot, QueryParamCodec codec) {
+        this.queryString = snapshot.getQueryString();
+        this.codec = codec;
+        state = createState(snapshot);
+        sortSpec = snapshot.getSortSpec();
+        unchanged = snapshot.isUnchanged();
+    }
+
+    /**
+     * Constructs a {@code QueryString} instance from an already parsed snapshot, avoiding having to unescape and
+     * parse the query string again. The snapshot is copied so it is never modified.
+     *
+     * @param snapshot The parsed query string.
+     * @param codec    Handles escaping the string
+     * @return A valid instance
+     */
+    public static QueryString fromSnapshot(QueryStringSnapshot snapshot, QueryParamCodec codec) {
+        return new QueryString(snapshot, codec);
     }
 
     /**
      * @return The unescaped query string.
      */
     public String getOriginalQueryString() {
+        if (originalQueryString == null) {
+            originalQueryString = QueryStringLexer.unescape(queryString, codec);
+        }
         return originalQueryString;
     }
 
     /**
-     * Transforms the internal state map back into a query string.
+     * Transforms the internal state back into a query string.
      *
-     * <p>The fundamental concept is to use flatMap over the {@code KeyValueIndex} values. The actual hash map keys
-     * are irrelevant given each value has the key embedded inside allowing flatMap to be used like this. If the flatMap
-     * stream is empty, the key isn't included which is perfect for simplifying delete operations.</p>
+     * <p>Every {@code KeyValueIndex} in the state map is also stored at its overall index, so the pairs are simply
+     * visited in order skipping the slots left behind by delete operations.</p>
      *
-     * @return The new query string.
+     * @return The new query string, or the query string as supplied if created from an unchanged snapshot.
      */
     public String reconstructQueryString() {
-        return state.entrySet().stream()
-                .flatMap(e -> e.getValue().stream())
-                .filter(kvi -> !kvi.keyValue.deleted)
-                .sorted(Comparator.comparing(KeyValueIndex::getOverallIndex))
-                .map(keyValueIndex -> keyValueIndex.keyValue.escape(uris::escapeQueryParam))
-                .collect(Collectors.joining("&"));
+        if (unchanged) {
+            return queryString;
+        }
+        StringBuilder builder = new StringBuilder(queryString.length() + 16);
+        for (KeyValueIndex keyValueIndex : ordered) {
+            if (keyValueIndex == null || keyValueIndex.keyValue.deleted) {
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            codec.escapeQueryParam(keyValueIndex.keyValue.key, builder);
+            builder.append('=');
+            codec.escapeQueryParam(keyValueIndex.keyValue.value, builder);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Pre-renders the query string around the value of the first {@code key}. Filling the template with a value
+     * gives the same query string as {@code replaceFirst(key, value)} when the key exists, otherwise the same as
+     * {@code add(key, value)} given the slot is appended to the end.
+     *
+     * <blockquote>
+     * <pre>
+     *     a=500&b=600&a=700
+     *
+     *     templateOf('a') => a={}&b=600&a=700
+     *     templateOf('c') => a=500&b=600&a=700&c={}
+     * </pre>
+     * </blockquote>
+     *
+     * @param key The key of the slot.
+     * @return The template.
+     * @throws IllegalArgumentException If {@code key} is null or blank.
+     */
+    public QueryStringTemplate templateOf(String key) {
+        if (key == null || key.trim().isEmpty()) {
+            throw new IllegalArgumentException("key cannot be null or blank");
+        }
+        if (unchanged) {
+            return QueryStringTemplate.unchanged(queryString, codec);
+        }
+        List<KeyValueIndex> indices = state.get(key);
+        int slotIndex = indices == null || indices.isEmpty() ? -1 : indices.get(0).overallIndex;
+
+        StringBuilder builder = new StringBuilder(queryString.length() + 16);
+        String prefix = null;
+        boolean empty = true;
+        for (KeyValueIndex keyValueIndex : ordered) {
+            if (keyValueIndex == null || keyValueIndex.keyValue.deleted) {
+                continue;
+            }
+            if (!empty) {
+                builder.append('&');
+            }
+            empty = false;
+            codec.escapeQueryParam(keyValueIndex.keyValue.key, builder);
+            builder.append('=');
+            if (keyValueIndex.overallIndex == slotIndex) {
+                prefix = builder.toString();
+                builder.setLength(0);
+            } else {
+                codec.escapeQueryParam(keyValueIndex.keyValue.value, builder);
+            }
+        }
+
+        if (prefix == null) {
+            if (!empty) {
+                builder.append('&');
+            }
+            codec.escapeQueryParam(key, builder);
+            return QueryStringTemplate.of(builder.append('=').toString(), "", codec);
+        }
+        return QueryStringTemplate.of(prefix, builder.toString(), codec);
+    }
+
+    /**
+     * Stores the {@code keyValueIndex} at its overall index, replacing the previous pair at that position.
+     */
+    private void link(KeyValueIndex keyValueIndex) {
+        sortSpec = null;
+        int index = keyValueIndex.overallIndex;
+        if (index >= ordered.length) {
+            ordered = Arrays.copyOf(ordered, Math.max(index + 1, ordered.length * 2));
+        }
+        ordered[index] = keyValueIndex;
+    }
+
+    /**
+     * Clears the overall index position of a pair removed from the state map.
+     */
+    private void unlink(KeyValueIndex keyValueIndex) {
+        valueIndex = null;
+        sortSpec = null;
+        int index = keyValueIndex.overallIndex;
+        if (index < ordered.length && ordered[index] == keyValueIndex) {
+            ordered[index] = null;
+        }
+    }
+
+    private void unlinkAll(List<KeyValueIndex> indices) {
+        if (indices != null) {
+            for (KeyValueIndex keyValueIndex : indices) {
+                unlink(keyValueIndex);
+            }
+        }
+    }
+
+    /**
+     * Replaces the value at the relative index of {@code indices} keeping its overall index.
+     */
+    private void updateValue(List<KeyValueIndex> indices, int relativeIndex, String value) {
+        valueIndex = null;
+        KeyValueIndex replacement = indices.get(relativeIndex).updateValue(value);
+        indices.set(relativeIndex, replacement);
+        link(replacement);
     }
 
     /**
@@ -75,14 +238,18 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String replaceFirst(String key, String value) {
+        applyReplaceFirst(key, value);
+        return reconstructQueryString();
+    }
+
+    void applyReplaceFirst(String key, String value) {
         if (key == null || value == null) {
-            return reconstructQueryString();
+            return;
         }
         List<KeyValueIndex> indices = state.get(key);
         if (indices != null && !indices.isEmpty()) {
-            indices.set(0, indices.get(0).updateValue(value));
+            updateValue(indices, 0, value);
         }
-        return reconstructQueryString();
     }
 
     /**
@@ -94,17 +261,23 @@ public final class QueryString {
      */
     public String replaceN(String key, List<String> values) {
         if (key == null || values == null) {
-            return originalQueryString;
+            return getOriginalQueryString();
         }
+        applyReplaceN(key, values);
+        return reconstructQueryString();
+    }
 
+    void applyReplaceN(String key, List<String> values) {
+        if (key == null || values == null) {
+            return;
+        }
         List<KeyValueIndex> indices = state.get(key);
         if (indices != null) {
             for (int i = 0; i < indices.size() && i < values.size(); i++) {
                 // Only replace legal indexes
-                indices.set(i, indices.get(i).updateValue(values.get(i)));
+                updateValue(indices, i, values.get(i));
             }
         }
-        return reconstructQueryString();
     }
 
     /**
@@ -112,20 +285,17 @@ public final class QueryString {
      * This method is separated to clean up {@link #replaceNth(Map)}
      *
      * @param instructions Instructions for creating the new state.
-     * @return The resulting query string.
      */
-    private String applyStateChangeInstructions(List<StateChangeInstruction> instructions) {
+    private void applyStateChangeInstructions(List<StateChangeInstruction> instructions) {
         for (StateChangeInstruction instruction : instructions) {
             List<KeyValueIndex> indices = state.get(instruction.key);
             if (indices != null) {
                 boolean isWithinBounds = instruction.relativeIndex >= 0 && instruction.relativeIndex < indices.size();
                 if (isWithinBounds) {
-                    KeyValueIndex replacement = indices.get(instruction.relativeIndex).updateValue(instruction.newValue);
-                    indices.set(instruction.relativeIndex, replacement);
+                    updateValue(indices, instruction.relativeIndex, instruction.newValue);
                 }
             }
         }
-        return reconstructQueryString();
     }
 
     /**
@@ -140,15 +310,20 @@ public final class QueryString {
      *     </pre>
      * </blockquote>
      * </li>
-     * <li>{@link #applyStateChangeInstructions(List)} performs the actual replacements and returns the new query string</li>
+     * <li>{@link #applyStateChangeInstructions(List)} performs the actual replacements</li>
      * </ol>
      *
      * @param stateChangeInstructions The map of instructions produced by the SpEL expression.
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String replaceNth(Map<String, Map<Integer, String>> stateChangeInstructions) {
+        applyReplaceNth(stateChangeInstructions);
+        return reconstructQueryString();
+    }
+
+    void applyReplaceNth(Map<String, Map<Integer, String>> stateChangeInstructions) {
         if (stateChangeInstructions == null || state.isEmpty()) {
-            return reconstructQueryString();
+            return;
         }
 
         List<StateChangeInstruction> instructions = stateChangeInstructions.entrySet().stream()
@@ -164,7 +339,7 @@ public final class QueryString {
                             .map(entry2 -> new StateChangeInstruction(key, entry2.getKey(), entry2.getValue()));
                 })
                 .collect(Collectors.toList());
-        return applyStateChangeInstructions(instructions);
+        applyStateChangeInstructions(instructions);
     }
 
     /**
@@ -174,12 +349,7 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeFirst(String key) {
-        if (key != null) {
-            List<KeyValueIndex> indices = state.get(key);
-            if (indices != null && !indices.isEmpty()) {
-                indices.get(0).keyValue.delete();
-            }
-        }
+        applyRemoveN(key, 1);
         return reconstructQueryString();
     }
 
@@ -190,11 +360,16 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null, empty or all keys are removed.
      */
     public String removeAll(List<String> keys) {
+        applyRemoveAll(keys);
+        return reconstructQueryString();
+    }
+
+    void applyRemoveAll(List<String> keys) {
         if (keys != null) {
-            // O(1) removal for each key vs marking each key/value pair as deleted.
-            keys.forEach(state::remove);
+            for (String key : keys) {
+                unlinkAll(state.remove(key));
+            }
         }
-        return reconstructQueryString();
     }
 
     /**
@@ -205,25 +380,30 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeN(String key, int n) {
+        applyRemoveN(key, n);
+        return reconstructQueryString();
+    }
+
+    /**
+     * Removed pairs are taken out of the state immediately rather than marked as deleted so that relative indexes
+     * remain correct for any further operations applied to this instance.
+     */
+    void applyRemoveN(String key, int n) {
         if (key == null || n <= 0) {
-            return reconstructQueryString();
+            return;
         }
 
         List<KeyValueIndex> indices = state.get(key);
 
         if (indices != null) {
             if (n >= indices.size()) {
-                // enhancement to remove all in O(1) to avoid iterating and deleting each element.
-                return removeAll(new ArrayList<>(Collections.singletonList(key)));
+                unlinkAll(state.remove(key));
             } else {
-                int removedCount = 0;
-                for (int i = 0; i < indices.size() && removedCount < n; i++) {
-                    indices.get(i).keyValue.delete();
-                    removedCount++;
-                }
+                List<KeyValueIndex> removed = indices.subList(0, n);
+                unlinkAll(removed);
+                removed.clear();
             }
         }
-        return reconstructQueryString();
     }
 
 
@@ -247,12 +427,7 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeNth(String key, int nthIndex) {
-        if (key != null) {
-            List<KeyValueIndex> indices = state.get(key);
-            if (indices != null && !indices.isEmpty() && nthIndex >= 0 && nthIndex < indices.size()) {
-                indices.get(nthIndex).keyValue.delete();
-            }
-        }
+        applyRemoveManyNth(key, Collections.singletonList(nthIndex));
         return reconstructQueryString();
     }
 
@@ -276,10 +451,36 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeManyNth(String key, List<Integer> relativeIndexes) {
-        applyToKeyValues(key, relativeIndexes, kvi -> kvi.keyValue.delete());
+        applyRemoveManyNth(key, relativeIndexes);
         return reconstructQueryString();
     }
 
+    void applyRemoveManyNth(String key, List<Integer> relativeIndexes) {
+        applyToKeyValues(key, relativeIndexes, kvi -> kvi.keyValue.delete());
+        removeDeleted(key);
+    }
+
+    /**
+     * Takes the pairs marked as deleted out of the state for the given key.
+     *
+     * @param key The target key.
+     */
+    private void removeDeleted(String key) {
+        List<KeyValueIndex> indices = key == null ? null : state.get(key);
+        if (indices != null) {
+            indices.removeIf(kvi -> {
+                if (kvi.keyValue.deleted) {
+                    unlink(kvi);
+                    return true;
+                }
+                return false;
+            });
+            if (indices.isEmpty()) {
+                state.remove(key);
+            }
+        }
+    }
+
     /**
      * Applies a side effecting consumer to each {@code KeyValueIndex} only if its index position is in the supplied
      * relative indexes list.
@@ -294,6 +495,10 @@ public final class QueryString {
      * </pre>
      * </blockquote>
      *
+     * <p>Only the supplied relative indexes are visited rather than searching {@code relativeIndexes} for every value
+     * of the key, so the cost is linear no matter how many values or indexes there are. Out of bounds and repeated
+     * indexes are ignored.</p>
+     *
      * @param key             The target key.
      * @param relativeIndexes Which indexes to apply the consumer to.
      * @param consumer        The side effecting consumer function.
@@ -302,9 +507,12 @@ public final class QueryString {
         if (key != null && relativeIndexes != null) {
             List<KeyValueIndex> indices = state.get(key);
             if (indices != null && !indices.isEmpty()) {
-                for (int i = 0; i < indices.size(); i++) {
-                    if (relativeIndexes.contains(i)) {
-                        consumer.accept(indices.get(i));
+                BitSet applied = new BitSet(indices.size());
+                for (Integer relativeIndex : relativeIndexes) {
+                    if (relativeIndex != null && relativeIndex >= 0 && relativeIndex < indices.size()
+                            && !applied.get(relativeIndex)) {
+                        applied.set(relativeIndex);
+                        consumer.accept(indices.get(relativeIndex));
                     }
                 }
             }
@@ -321,7 +529,7 @@ public final class QueryString {
      * @return The new query string.
      */
     public String adjustNumericValueBy(String key, List<Integer> relativeIndexes, int value) {
-        return adjustNumericValueBy(key, relativeIndexes, value, currentValue -> true);
+        return adjustIntValueBy(key, relativeIndexes, value, currentValue -> true);
     }
 
     /**
@@ -335,6 +543,10 @@ public final class QueryString {
      * {@code page} is being incremented for example, the list will contain 0 which implies
      * 'only update the first occurrence of the page value'</p>
      *
+     * <p>Only values within the {@code int} range are numeric. The result saturates at {@code Integer.MIN_VALUE} and
+     * {@code Integer.MAX_VALUE} rather than overflowing. {@link #adjustIntValueBy(String, List, int, IntPredicate)}
+     * avoids boxing each value passed to the {@code predicate}.</p>
+     *
      * @param key             The target key.
      * @param relativeIndexes The list of indexes.
      * @param value           The value to add to the existing value.
@@ -343,17 +555,61 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String adjustNumericValueBy(String key, List<Integer> relativeIndexes, int value, Predicate<Integer> predicate) {
+        return adjustIntValueBy(key, relativeIndexes, value, predicate::test);
+    }
+
+    /**
+     * Same as {@link #adjustNumericValueBy(String, List, int, Predicate)} except the {@code predicate} receives the
+     * current value without boxing it.
+     *
+     * @param key             The target key.
+     * @param relativeIndexes The list of indexes.
+     * @param value           The value to add to the existing value.
+     * @param predicate       Gets passed on the current value and if true permits the {@code value} being added
+     *                        to the current value.
+     * @return The new query string or an empty string if the original query string is null or empty.
+     */
+    public String adjustIntValueBy(String key, List<Integer> relativeIndexes, int value, IntPredicate predicate) {
+        applyAdjustNumericValueBy(key, relativeIndexes, value, predicate);
+        return reconstructQueryString();
+    }
+
+    /**
+     * Same as {@link #adjustIntValueBy(String, List, int, IntPredicate)} except values within the {@code long} range
+     * are numeric and the result is clamped to {@code [min, max]}.
+     *
+     * @param key             The target key.
+     * @param relativeIndexes The list of indexes.
+     * @param value           The value to add to the existing value.
+     * @param min             The inclusive lower bound of the new value.
+     * @param max             The inclusive upper bound of the new value.
+     * @param predicate       Gets passed on the current value and if true permits the {@code value} being added
+     *                        to the current value.
+     * @return The new query string or an empty string if the original query string is null or empty.
+     */
+    public String adjustLongValueBy(String key, List<Integer> relativeIndexes, long value, long min, long max,
+                                    LongPredicate predicate) {
+        applyAdjustNumericValueBy(key, relativeIndexes, value, min, max, predicate);
+        return reconstructQueryString();
+    }
+
+    void applyAdjustNumericValueBy(String key, List<Integer> relativeIndexes, int value, IntPredicate predicate) {
+        LongPredicate withinIntRange = currentValue -> currentValue >= Integer.MIN_VALUE
+                && currentValue <= Integer.MAX_VALUE
+                && predicate.test((int) currentValue);
+        applyAdjustNumericValueBy(key, relativeIndexes, value, Integer.MIN_VALUE, Integer.MAX_VALUE, withinIntRange);
+    }
+
+    void applyAdjustNumericValueBy(String key, List<Integer> relativeIndexes, long value, long min, long max,
+                                   LongPredicate predicate) {
         applyToKeyValues(key, relativeIndexes, kvi -> {
-            try {
-                int parsedInt = Integer.parseInt(kvi.keyValue.value);
-                if (predicate.test(parsedInt)) {
-                    kvi.keyValue.value = Integer.toString(parsedInt + value);
-                }
-            } catch (NumberFormatException e) {
-                // ignore
+            String adjusted = NumericValues.adjust(kvi.keyValue.value, value, min, max, predicate);
+            if (adjusted != null) {
+                valueIndex = null;
+                sortSpec = null;
+                kvi.keyValue.value = adjusted;
             }
         });
-        return reconstructQueryString();
     }
 
     /**
@@ -371,9 +627,13 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeKeyMatchingValue(String key, String valueMatch) {
+        applyRemoveKeyMatchingValue(key, valueMatch);
+        return reconstructQueryString();
+    }
+
+    void applyRemoveKeyMatchingValue(String key, String valueMatch) {
         Function<String, String> valueExtractor = Function.identity();
         removeKeyMatching(state.get(key), key, valueMatch, valueExtractor, false);
-        return reconstructQueryString();
     }
 
     /**
@@ -391,11 +651,15 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String removeAnyKeyMatchingValue(String valueMatch) {
+        applyRemoveAnyKeyMatchingValue(valueMatch);
+        return reconstructQueryString();
+    }
+
+    void applyRemoveAnyKeyMatchingValue(String valueMatch) {
         for (Map.Entry<String, List<KeyValueIndex>> entry : state.entrySet()) {
             Function<String, String> valueExtractor = Function.identity();
             removeKeyMatching(entry.getValue(), entry.getKey(), valueMatch, valueExtractor, false);
         }
-        return reconstructQueryString();
     }
 
     /**
@@ -406,11 +670,31 @@ public final class QueryString {
      * @return The new query string.
      */
     public String keepSortField(String sortField) {
-        final String sortKey = "sort";
-        removeKeyMatching(state.get(sortKey), sortKey, sortField, QueryStringUtil::extractSortField, true);
+        applyKeepSortField(sortField);
         return reconstructQueryString();
     }
 
+    void applyKeepSortField(String sortField) {
+        List<KeyValueIndex> indices = state.get(SortSpec.SORT_KEY);
+        if (indices == null || sortField == null) {
+            return;
+        }
+        SortSpec spec = getSortSpec();
+        List<KeyValueIndex> kept = new ArrayList<>(1);
+        if (!spec.isSorted(sortField)) {
+            unlinkAll(indices);
+        } else {
+            for (int i = 0; i < indices.size(); i++) {
+                if (spec.getField(i).equals(sortField)) {
+                    kept.add(indices.get(i));
+                } else {
+                    unlink(indices.get(i));
+                }
+            }
+        }
+        state.put(SortSpec.SORT_KEY, kept);
+    }
+
     /**
      * Mutates the state map by removing or keeping existing values that exactly equal {@code valueMatch} for the given
      * {@code key}. If {@code keep} is {@code true}, only keys with matching values are kept in the state map,
@@ -426,15 +710,15 @@ public final class QueryString {
                                    Function<String, String> valueExtractor,
                                    boolean keep) {
         if (indices != null && key != null && valueMatch != null) {
-            List<KeyValueIndex> newIndices = indices.stream()
-                    .filter(kv -> {
-                        boolean isEqual = Objects.equals(valueExtractor.apply(kv.keyValue.value), valueMatch);
-                        if (keep) {
-                            return isEqual;
-                        }
-                        return !isEqual;
-                    })
-                    .collect(Collectors.toList());
+            List<KeyValueIndex> newIndices = new ArrayList<>(indices.size());
+            for (KeyValueIndex kvi : indices) {
+                boolean isEqual = Objects.equals(valueExtractor.apply(kvi.keyValue.value), valueMatch);
+                if (isEqual == keep) {
+                    newIndices.add(kvi);
+                } else {
+                    unlink(kvi);
+                }
+            }
             state.put(key, newIndices);
         }
     }
@@ -503,21 +787,16 @@ public final class QueryString {
      * @return The new query string.
      */
     public String add(String key, String value) {
-        Optional<KeyValue> maybeKeyValue = KeyValue.fromKeyValue(key, value);
-
-        maybeKeyValue.ifPresent(kv -> {
-            if (!getAllValues(kv.key).contains(kv.value)) {
-                List<KeyValueIndex> newKeyValueList =
-                        new ArrayList<>(Collections.singletonList(kv.toIndex(getNextOverallIndex())));
+        applyAdd(key, value);
+        return reconstructQueryString();
+    }
 
-                state.merge(key, newKeyValueList, (existingList, newList) -> {
-                    existingList.addAll(newList);
-                    return existingList;
-                });
-            }
-        });
+    void applyAdd(String key, String value) {
+        Optional<KeyValue> maybeKeyValue = KeyValue.fromKeyValue(key, value);
 
-        return reconstructQueryString();
+        if (maybeKeyValue.isPresent()) {
+            append(maybeKeyValue.get());
+        }
     }
 
     /**
@@ -527,32 +806,90 @@ public final class QueryString {
      * @return The new query string.
      */
     public String addAll(List<List<String>> keyValuePairs) {
-        if (keyValuePairs != null) {
-            keyValuePairs.stream()
-                    .map(KeyValue::fromPair)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .filter(kv -> !getAllValues(kv.key).contains(kv.value))
-                    .map(kv -> kv.toIndex(getNextOverallIndex()))
-                    .forEach(kvi ->
-                            state.merge(kvi.keyValue.key, new ArrayList<>(Arrays.asList(kvi)), (existingList, newList) -> {
-                                existingList.addAll(newList);
-                                return existingList;
-                            }));
-        }
+        applyAddAll(keyValuePairs);
 
         // After the mutation of the state map, rebuild it.
         return reconstructQueryString();
     }
 
+    void applyAddAll(List<List<String>> keyValuePairs) {
+        if (keyValuePairs != null) {
+            for (List<String> pair : keyValuePairs) {
+                Optional<KeyValue> maybeKeyValue = KeyValue.fromPair(pair);
+                if (maybeKeyValue.isPresent()) {
+                    append(maybeKeyValue.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the {@code keyValue} to the end of the query string unless the same key and value already exists.
+     *
+     * @param keyValue The new key value pair.
+     */
+    private void append(KeyValue keyValue) {
+        if (!valuesOf(keyValue.key).add(keyValue.value)) {
+            return;
+        }
+        KeyValueIndex keyValueIndex = keyValue.toIndex(nextOverallIndex++);
+        link(keyValueIndex);
+
+        List<KeyValueIndex> indices = state.get(keyValue.key);
+        if (indices == null) {
+            indices = new ArrayList<>(2);
+            state.put(keyValue.key, indices);
+        }
+        indices.add(keyValueIndex);
+    }
+
+    /**
+     * @param key The target key.
+     * @return The mutable set of values for the key from the value index, built on first use.
+     */
+    private Set<String> valuesOf(String key) {
+        if (valueIndex == null) {
+            valueIndex = new HashMap<>();
+        }
+        Set<String> values = valueIndex.get(key);
+        if (values == null) {
+            List<KeyValueIndex> indices = state.get(key);
+            values = new HashSet<>(indices == null ? 4 : indices.size() * 2);
+            if (indices != null) {
+                for (KeyValueIndex kvi : indices) {
+                    values.add(kvi.keyValue.value);
+                }
+            }
+            valueIndex.put(key, values);
+        }
+        return values;
+    }
+
     /**
      * @param field The sort field.
      * @return {@code true} if the {@code field} appears under a 'sort' key.
      */
     public boolean isFieldSorted(String field) {
-        return getAllValues("sort").stream()
-                .map(QueryStringUtil::extractSortField)
-                .anyMatch(value -> value.equals(field));
+        return getSortSpec().isSorted(field);
+    }
+
+    /**
+     * @param field            The sort field.
+     * @param defaultDirection Returned when the {@code field} is sorted without an explicit direction.
+     * @return The sort direction or {@code null} if the field is not sorted.
+     */
+    public String getCurrentSortDirection(String field, SortDirection defaultDirection) {
+        return getSortSpec().getCurrentDirection(field, defaultDirection);
+    }
+
+    /**
+     * @return The parsed values of the 'sort' key, positioned by their relative index.
+     */
+    public SortSpec getSortSpec() {
+        if (sortSpec == null) {
+            sortSpec = SortSpec.of(getAllValues(SortSpec.SORT_KEY));
+        }
+        return sortSpec;
     }
 
     /**
@@ -589,42 +926,20 @@ public final class QueryString {
      * @return The new query string or an empty string if the original query string is null or empty.
      */
     public String setSortDirection(String sortField, Function<SortDirection, SortDirection> sortDirectionMapper) {
+        applySetSortDirection(sortField, sortDirectionMapper);
+        return reconstructQueryString();
+    }
+
+    void applySetSortDirection(String sortField, Function<SortDirection, SortDirection> sortDirectionMapper) {
         if (sortField == null) {
-            return reconstructQueryString();
+            return;
         }
-
-        List<KeyValueIndex> indices = state.get("sort");
-        if (indices != null) {
-
-            // store the relative index so we can update the existing object with the new sort order.
-            int foundIndex = -1;
-
-            /*
-             * When foundIndex is valid, sortTokens will contain the field and optionally the sort direction.
-             * Eg: sort=country,desc or sort=country. This means index 0 will always contain the sort field based
-             * on spring conventions. Sort direction is irrelevant given that is what this method is changing.
-             */
-            String[] sortTokens = null;
-
-            for (int i = 0; i < indices.size(); i++) {
-                sortTokens = indices.get(i).keyValue.value.split(",");
-
-                if (sortTokens.length > 0 && sortTokens[0].trim().equals(sortField.trim())) {
-                    foundIndex = i;
-                    break;
-                }
-            }
-            if (foundIndex != -1) {
-                SortDirection currentOrder = sortTokens.length == 2 ?
-                        SortDirection.from(sortTokens[1].trim()) : SortDirection.NONE;
-
-                SortDirection newSortDirection = sortDirectionMapper.apply(currentOrder);
-                String newSortValue = newSortDirection.withSortField(sortTokens[0].trim());
-                indices.set(foundIndex, indices.get(foundIndex).updateValue(newSortValue));
-            }
+        SortSpec spec = getSortSpec();
+        int position = spec.indexOfTrimmed(sortField);
+        if (position != -1) {
+            SortDirection newSortDirection = sortDirectionMapper.apply(spec.getDirection(position));
+            updateValue(state.get(SortSpec.SORT_KEY), position, spec.withDirection(position, newSortDirection));
         }
-
-        return reconstructQueryString();
     }
 
     /**
@@ -701,14 +1016,51 @@ public final class QueryString {
      * @return The state map.
      */
     private Map<String, List<KeyValueIndex>> createState() {
-        if (originalQueryString == null || originalQueryString.isEmpty()) {
-            return new HashMap<>();
+        Map<String, List<KeyValueIndex>> stateMap = new HashMap<>();
+        if (queryString.isEmpty()) {
+            return stateMap;
         }
-        return Pattern.compile("&").splitAsStream(originalQueryString)
-                .map(KeyValue::fromKeyValue)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(new QueryCollector());
+        final String source = queryString;
+        ordered = new KeyValueIndex[8];
+        // Split the escaped query string so escaped '&' and '=' characters never act as separators.
+        nextOverallIndex = QueryStringLexer.tokenize(source, codec, (index, keyStart, keyEnd, valueStart, valueEnd) -> {
+            KeyValue keyValue = new KeyValue(
+                    QueryStringLexer.token(source, keyStart, keyEnd, codec),
+                    QueryStringLexer.token(source, valueStart, valueEnd, codec));
+            List<KeyValueIndex> indices = stateMap.get(keyValue.key);
+            if (indices == null) {
+                indices = new ArrayList<>(2);
+                stateMap.put(keyValue.key, indices);
+            }
+            KeyValueIndex keyValueIndex = keyValue.toIndex(index);
+            indices.add(keyValueIndex);
+            link(keyValueIndex);
+        });
+        return stateMap;
+    }
+
+    /**
+     * See {@link #createState()}, except the pairs have already been parsed into the {@code snapshot}.
+     *
+     * @param snapshot The parsed query string.
+     * @return The state map.
+     */
+    private Map<String, List<KeyValueIndex>> createState(QueryStringSnapshot snapshot) {
+        Map<String, List<KeyValueIndex>> stateMap = new HashMap<>();
+        ordered = new KeyValueIndex[snapshot.size()];
+        nextOverallIndex = snapshot.size();
+        for (int i = 0; i < snapshot.size(); i++) {
+            KeyValue keyValue = new KeyValue(snapshot.getKey(i), snapshot.getValue(i));
+            List<KeyValueIndex> indices = stateMap.get(keyValue.key);
+            if (indices == null) {
+                indices = new ArrayList<>(2);
+                stateMap.put(keyValue.key, indices);
+            }
+            KeyValueIndex keyValueIndex = keyValue.toIndex(i);
+            indices.add(keyValueIndex);
+            ordered[i] = keyValueIndex;
+        }
+        return stateMap;
     }
 
     /**
@@ -723,14 +1075,16 @@ public final class QueryString {
      * in the exact same order. For example, if the current query string has 5 keys and we want to add to the end,
      * the next overall index would be 5 given 0 based indexing.
      *
-     * @return The next available index representing the max overall index + 1.
+     * <p>The index is tracked as pairs are parsed and added rather than searching the state, it is never decremented
+     * when pairs are removed.</p>
+     *
+     * <p>An empty query string returns 0. Earlier versions returned 1 as the highest index in use defaulted to 0
+     * before adding 1.</p>
+     *
+     * @return The next available index which is greater than every overall index in use.
      */
     public int getNextOverallIndex() {
-        return state.entrySet().stream()
-                .flatMap(entry -> entry.getValue().stream())
-                .map(KeyValueIndex::getOverallIndex)
-                .max(Integer::compareTo)
-                .orElse(0) + 1;
+        return nextOverallIndex;
     }
 
     /**
@@ -869,7 +1223,11 @@ public final class QueryString {
     /**
      * Creates the state map. If java had a zipWithIndex method this could be avoided. Basically a mutable index is
      * kept to assign each {@code KeyValue} its original index position in the query string.
+     *
+     * @deprecated No longer used, query strings are parsed in a single pass without collecting a stream. To be removed
+     * in the next major version.
      */
+    @Deprecated
     public static class QueryCollector implements
             Collector<KeyValue, Map<String, List<KeyValueIndex>>, Map<String, List<KeyValueIndex>>> {
 
@@ -917,4 +1275,4 @@ public final class QueryString {
             return EnumSet.noneOf(Characteristics.class);
         }
     }
-}
\ No newline at end of file
+}
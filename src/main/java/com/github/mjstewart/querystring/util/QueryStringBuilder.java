@@ -0,0 +1,267 @@
+package com.github.mjstewart.querystring.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Applies any number of operations to a single parsed {@code QueryString}. The query string is parsed once
+ * when the builder is created and only escaped and joined once when {@link #build()} is called, rather than
+ * once per operation as happens when chaining the {@code QueryStringHelper} methods.
+ *
+ * <p>Each method has the same behaviour as the {@code QueryStringHelper} method of the same name, minus the
+ * query string argument.</p>
+ *
+ * <p><b>Thymeleaf usage</b></p>
+ * <blockquote>
+ * <pre>
+ *     #request.getQueryString() = "city=dallas&sort=country,desc&page=3&region=north"
+ *
+ *     th:with="newQueryString=${#qs.on(#request.getQueryString()).removeAll({'region'}).resetPageNumber().createNewSort({'city,asc'}).build()}"
+ *     => newQueryString = city=dallas&page=0&sort=city,asc
+ * </pre>
+ * </blockquote>
+ */
+public final class QueryStringBuilder {
+
+    private final QueryString queryString;
+
+    private QueryStringBuilder(QueryString queryString) {
+        this.queryString = queryString;
+    }
+
+    /**
+     * @param queryString The parsed query string to modify.
+     * @return A new builder operating on {@code queryString}.
+     */
+    public static QueryStringBuilder from(QueryString queryString) {
+        return new QueryStringBuilder(queryString);
+    }
+
+    public QueryStringBuilder replaceFirst(String key, String value) {
+        queryString.applyReplaceFirst(key, value);
+        return this;
+    }
+
+    public QueryStringBuilder replaceNth(Map<String, Map<Integer, String>> stateChangeInstructions) {
+        queryString.applyReplaceNth(stateChangeInstructions);
+        return this;
+    }
+
+    public QueryStringBuilder replaceN(String key, List<String> values) {
+        queryString.applyReplaceN(key, values);
+        return this;
+    }
+
+    public QueryStringBuilder removeFirst(String key) {
+        queryString.applyRemoveN(key, 1);
+        return this;
+    }
+
+    public QueryStringBuilder removeAll(List<String> keys) {
+        queryString.applyRemoveAll(keys);
+        return this;
+    }
+
+    public QueryStringBuilder removeN(String key, int n) {
+        queryString.applyRemoveN(key, n);
+        return this;
+    }
+
+    public QueryStringBuilder removeNth(String key, int nthIndex) {
+        queryString.applyRemoveManyNth(key, Collections.singletonList(nthIndex));
+        return this;
+    }
+
+    public QueryStringBuilder removeManyNth(String key, List<Integer> relativeIndexes) {
+        queryString.applyRemoveManyNth(key, relativeIndexes);
+        return this;
+    }
+
+    /**
+     * Applies {@link #removeManyNth(String, List)} for every key in {@code removeInstructions}.
+     *
+     * @param removeInstructions The keys and corresponding relative value indexes to remove.
+     * @return This builder.
+     */
+    public QueryStringBuilder removeManyNth(Map<String, List<Integer>> removeInstructions) {
+        if (removeInstructions != null) {
+            for (Map.Entry<String, List<Integer>> entry : removeInstructions.entrySet()) {
+                queryString.applyRemoveManyNth(entry.getKey(), entry.getValue());
+            }
+        }
+        return this;
+    }
+
+    public QueryStringBuilder removeKeyMatchingValue(String key, String valueMatch) {
+        queryString.applyRemoveKeyMatchingValue(key, valueMatch);
+        return this;
+    }
+
+    public QueryStringBuilder removeAnyKeyMatchingValue(String valueMatch) {
+        queryString.applyRemoveAnyKeyMatchingValue(valueMatch);
+        return this;
+    }
+
+    public QueryStringBuilder add(String key, String value) {
+        queryString.applyAdd(key, value);
+        return this;
+    }
+
+    public QueryStringBuilder addAll(List<List<String>> keyValuePairs) {
+        queryString.applyAddAll(keyValuePairs);
+        return this;
+    }
+
+    public QueryStringBuilder removeAllAndAdd(List<String> removeKeys, List<List<String>> addKeyValuePairs) {
+        queryString.applyRemoveAll(removeKeys);
+        queryString.applyAddAll(addKeyValuePairs);
+        return this;
+    }
+
+    public QueryStringBuilder adjustNumericValueBy(String key, List<Integer> relativeIndexes, int value) {
+        queryString.applyAdjustNumericValueBy(key, relativeIndexes, value, currentValue -> true);
+        return this;
+    }
+
+    /**
+     * See {@link QueryString#adjustLongValueBy(String, List, long, long, long, java.util.function.LongPredicate)}.
+     *
+     * @param key             The target key.
+     * @param relativeIndexes The list of indexes.
+     * @param value           The value to add to the existing value.
+     * @param min             The inclusive lower bound of the new value.
+     * @param max             The inclusive upper bound of the new value.
+     * @return This builder.
+     */
+    public QueryStringBuilder adjustLongValueBy(String key, List<Integer> relativeIndexes, long value, long min, long max) {
+        queryString.applyAdjustNumericValueBy(key, relativeIndexes, value, min, max, currentValue -> true);
+        return this;
+    }
+
+    public QueryStringBuilder adjustFirstNumericValueBy(String key, int value) {
+        return adjustNumericValueBy(key, Collections.singletonList(0), value);
+    }
+
+    public QueryStringBuilder incrementPage() {
+        if (queryString.getFirstValue("page") == null) {
+            return add("page", "1");
+        }
+        return adjustFirstNumericValueBy("page", 1);
+    }
+
+    public QueryStringBuilder incrementPage(int maxBound) {
+        if (queryString.getFirstValue("page") == null && 0 < maxBound) {
+            return add("page", "1");
+        }
+        IntPredicate incrementIfBelowMax = currentValue -> currentValue < maxBound;
+        queryString.applyAdjustNumericValueBy("page", Collections.singletonList(0), 1, incrementIfBelowMax);
+        return this;
+    }
+
+    public QueryStringBuilder decrementPage() {
+        if (queryString.getFirstValue("page") == null) {
+            return add("page", "0");
+        }
+        IntPredicate decrementOnlyIfAboveZero = currentValue -> currentValue > 0;
+        queryString.applyAdjustNumericValueBy("page", Collections.singletonList(0), -1, decrementOnlyIfAboveZero);
+        return this;
+    }
+
+    public QueryStringBuilder resetPageNumber() {
+        return setPageNumber("0");
+    }
+
+    public QueryStringBuilder setPageNumber(String number) {
+        if (queryString.getFirstValue("page") == null) {
+            return add("page", number);
+        }
+        return replaceFirst("page", number);
+    }
+
+    public QueryStringBuilder setSortDirectionAsc(String sortField) {
+        queryString.applySetSortDirection(sortField, currentDirection -> SortDirection.ASC);
+        return this;
+    }
+
+    public QueryStringBuilder setSortDirectionDesc(String sortField) {
+        queryString.applySetSortDirection(sortField, currentDirection -> SortDirection.DESC);
+        return this;
+    }
+
+    public QueryStringBuilder toggleSortDefaultAsc(String sortField) {
+        queryString.applySetSortDirection(sortField, currentDirection -> currentDirection.toggle(SortDirection.ASC));
+        return this;
+    }
+
+    public QueryStringBuilder toggleSortDefaultDesc(String sortField) {
+        queryString.applySetSortDirection(sortField, currentDirection -> currentDirection.toggle(SortDirection.DESC));
+        return this;
+    }
+
+    public QueryStringBuilder keepSortField(String sortField) {
+        queryString.applyKeepSortField(sortField);
+        return this;
+    }
+
+    public QueryStringBuilder createNewSort(List<String> fieldAndDirections) {
+        List<List<String>> newKeyValuePairs = new ArrayList<>(fieldAndDirections.size());
+        for (String fieldAndDirection : fieldAndDirections) {
+            newKeyValuePairs.add(Arrays.asList("sort", fieldAndDirection));
+        }
+        return removeAllAndAdd(Collections.singletonList("sort"), newKeyValuePairs);
+    }
+
+    /**
+     * Equivalent to {@code #qs.fieldSorterAsc(queryString).apply(field)}.
+     *
+     * @param field The sort field.
+     * @return This builder.
+     */
+    public QueryStringBuilder sortFieldAsc(String field) {
+        return sortField(field, SortDirection.ASC);
+    }
+
+    /**
+     * Equivalent to {@code #qs.fieldSorterDesc(queryString).apply(field)}.
+     *
+     * @param field The sort field.
+     * @return This builder.
+     */
+    public QueryStringBuilder sortFieldDesc(String field) {
+        return sortField(field, SortDirection.DESC);
+    }
+
+    /**
+     * Keeps just the sort {@code field} and toggles it, otherwise all sorting is replaced with
+     * {@code field,defaultSortDirection}.
+     */
+    private QueryStringBuilder sortField(String field, SortDirection defaultSortDirection) {
+        queryString.applyKeepSortField(field);
+        if (queryString.isFieldSorted(field)) {
+            queryString.applySetSortDirection(field, currentDirection -> currentDirection.toggle(defaultSortDirection));
+            return this;
+        }
+        // implies field is not associated to a sort key so append the new sort key to the end.
+        queryString.applyRemoveAll(Collections.singletonList("sort"));
+        queryString.applyAdd("sort", field + "," + defaultSortDirection.value);
+        return this;
+    }
+
+    /**
+     * Escapes and joins the resulting key value pairs.
+     *
+     * @return The new query string.
+     */
+    public String build() {
+        return queryString.reconstructQueryString();
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+}
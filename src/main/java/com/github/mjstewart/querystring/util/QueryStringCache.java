@@ -0,0 +1,218 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded thread safe cache mapping a raw query string to its parsed {@code QueryStringSnapshot}.
+ *
+ * <p>The same query string such as {@code #request.getQueryString()} is typically supplied to many
+ * {@code #qs} calls within a single template and popular queries repeat across requests. Caching the snapshot
+ * means each operation only needs to copy the already parsed pairs rather than unescape and parse the
+ * query string again.</p>
+ *
+ * <p>Entries are spread over independently locked segments to reduce contention, each segment evicting
+ * according to the {@link EvictionPolicy} once it reaches its share of the maximum size.</p>
+ */
+public final class QueryStringCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /**
+     * Determines which entry is evicted once the cache is full.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evicts the least recently used entry.
+         */
+        LRU,
+        /**
+         * Evicts the oldest entry regardless of how often it is used. Lookups do not reorder entries which
+         * makes it slightly cheaper than {@code LRU}.
+         */
+        FIFO
+    }
+
+    private final int maxSize;
+    private final EvictionPolicy evictionPolicy;
+    private final Segment[] segments;
+    private final QueryStringMetrics metrics;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private QueryStringCache(int maxSize, EvictionPolicy evictionPolicy, QueryStringMetrics metrics) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0 but was " + maxSize);
+        }
+        if (evictionPolicy == null) {
+            throw new IllegalArgumentException("evictionPolicy cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("metrics cannot be null");
+        }
+        this.maxSize = maxSize;
+        this.evictionPolicy = evictionPolicy;
+        this.metrics = metrics;
+
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 <= maxSize) {
+            segmentCount *= 2;
+        }
+        segments = new Segment[segmentCount];
+        // Spread the remainder so the segment sizes add up to exactly maxSize.
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentSize = maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0);
+            segments[i] = new Segment(segmentSize, evictionPolicy == EvictionPolicy.LRU);
+        }
+    }
+
+    /**
+     * @param maxSize The maximum number of cached query strings.
+     * @return A cache evicting the least recently used query string.
+     */
+    public static QueryStringCache lru(int maxSize) {
+        return new QueryStringCache(maxSize, EvictionPolicy.LRU, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * @param maxSize        The maximum number of cached query strings.
+     * @param evictionPolicy Determines which entry is evicted once the cache is full.
+     * @return A new cache.
+     */
+    public static QueryStringCache of(int maxSize, EvictionPolicy evictionPolicy) {
+        return new QueryStringCache(maxSize, evictionPolicy, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * @param maxSize        The maximum number of cached query strings.
+     * @param evictionPolicy Determines which entry is evicted once the cache is full.
+     * @param metrics        Receives every hit and miss.
+     * @return A new cache.
+     */
+    public static QueryStringCache of(int maxSize, EvictionPolicy evictionPolicy, QueryStringMetrics metrics) {
+        return new QueryStringCache(maxSize, evictionPolicy, metrics);
+    }
+
+    /**
+     * Returns the cached snapshot for the query string, otherwise the {@code loader} parses and caches it.
+     *
+     * @param queryString The raw query string.
+     * @param loader      Parses the query string on a cache miss.
+     * @return The parsed snapshot.
+     */
+    public QueryStringSnapshot get(String queryString, Function<String, QueryStringSnapshot> loader) {
+        String key = queryString == null ? "" : queryString;
+        Segment segment = segmentFor(key);
+
+        QueryStringSnapshot snapshot;
+        synchronized (segment) {
+            snapshot = segment.get(key);
+        }
+        if (snapshot != null) {
+            hits.increment();
+            metrics.cacheHit();
+            return snapshot;
+        }
+        misses.increment();
+        metrics.cacheMiss();
+
+        // Parse outside of the lock, concurrent misses for the same query string simply produce an equal snapshot.
+        snapshot = loader.apply(queryString);
+        synchronized (segment) {
+            segment.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * @return The current number of cached query strings.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries. The hit and miss counts are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStringCache{" +
+                "maxSize=" + maxSize +
+                ", evictionPolicy=" + evictionPolicy +
+                ", size=" + size() +
+                ", hits=" + getHitCount() +
+                ", misses=" + getMissCount() +
+                ", evictions=" + getEvictionCount() +
+                '}';
+    }
+
+    /**
+     * Access ordered {@code LinkedHashMap} gives LRU eviction, insertion ordered gives FIFO eviction.
+     * All access must be synchronized on the segment.
+     */
+    private final class Segment extends LinkedHashMap<String, QueryStringSnapshot> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private Segment(int maxSize, boolean accessOrder) {
+            super(16, 0.75f, accessOrder);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QueryStringSnapshot> eldest) {
+            boolean evict = size() > maxSize;
+            if (evict) {
+                evictions.increment();
+            }
+            return evict;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.github.mjstewart.querystring.util;
+
+/**
+ * Single pass scanner locating the {@code key=value} boundaries of a query string without allocating any
+ * intermediate tokens.
+ *
+ * <p>The accepted pairs are identical to the previous {@code split("&")} followed by {@code split("=")} approach.</p>
+ * <ul>
+ * <li>Empty segments such as {@code a=1&&b=2} are skipped.</li>
+ * <li>Trailing {@code '='} characters are ignored, {@code a=b=} is treated as {@code a=b}.</li>
+ * <li>Segments without exactly 1 {@code '='} separator such as {@code a} or {@code a=b=c} are skipped.</li>
+ * <li>Segments having a blank key or blank value such as {@code =b} or {@code a= } are skipped.</li>
+ * </ul>
+ *
+ * <p>When given a {@code codec} the source is the raw escaped query string. Only the literal {@code '&'} and
+ * {@code '='} characters separate pairs so an escaped {@code %26} or {@code %3D} remains part of its key or value,
+ * and the blank checks apply to the unescaped key and value.</p>
+ *
+ * <p>Each key and value is unescaped on its own, so a {@code '%'} shortly before a {@code '&'} such as
+ * {@code q=100%&page=2} ends its token with an incomplete escape. Rather than failing the whole query string the
+ * incomplete escape is kept as literal text, giving {@code q=100%} and {@code page=2}.</p>
+ */
+final class QueryStringLexer {
+
+    private QueryStringLexer() {
+    }
+
+    /**
+     * Receives the offsets of every accepted {@code key=value} pair. All end offsets are exclusive.
+     */
+    interface PairHandler {
+        void pair(int index, int keyStart, int keyEnd, int valueStart, int valueEnd);
+    }
+
+    /**
+     * Scans {@code source} once, passing each accepted pair to the {@code handler} in query string order.
+     *
+     * @param source  The query string.
+     * @param handler Receives the offsets of each accepted pair.
+     * @return The total number of accepted pairs.
+     */
+    static int tokenize(CharSequence source, PairHandler handler) {
+        return tokenize(source, null, handler);
+    }
+
+    /**
+     * Scans the escaped {@code source} once, passing each accepted pair to the {@code handler} in query string order.
+     * The offsets refer to the escaped key and value, nothing is unescaped unless needed for a blank check.
+     *
+     * @param source  The escaped query string, or the unescaped query string if {@code codec} is {@code null}.
+     * @param codec   Unescapes keys and values which may be blank once unescaped.
+     * @param handler Receives the offsets of each accepted pair.
+     * @return The total number of accepted pairs.
+     */
+    static int tokenize(CharSequence source, QueryParamCodec codec, PairHandler handler) {
+        int length = source.length();
+        int index = 0;
+        int segmentStart = 0;
+
+        while (segmentStart < length) {
+            int segmentEnd = segmentStart;
+            int separator = -1;
+            int separatorCount = 0;
+
+            while (segmentEnd < length) {
+                char c = source.charAt(segmentEnd);
+                if (c == '&') {
+                    break;
+                }
+                if (c == '=') {
+                    if (separator == -1) {
+                        separator = segmentEnd;
+                    }
+                    separatorCount++;
+                }
+                segmentEnd++;
+            }
+
+            // Ignore trailing '=' characters, they are dropped by split("=").
+            int end = segmentEnd;
+            while (end > segmentStart && source.charAt(end - 1) == '=') {
+                end--;
+                separatorCount--;
+            }
+
+            if (separatorCount == 1
+                    && !isBlank(source, segmentStart, separator, codec)
+                    && !isBlank(source, separator + 1, end, codec)) {
+                handler.pair(index, segmentStart, separator, separator + 1, end);
+                index++;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Equivalent to {@code String.trim().isEmpty()} over the given range.
+     */
+    static boolean isBlank(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent to {@code codec.unescapeQueryParam(token).trim().isEmpty()} over the given range. The token is only
+     * unescaped when every literal character is blank, such as {@code %20+}.
+     */
+    static boolean isBlank(CharSequence source, int start, int end, QueryParamCodec codec) {
+        if (codec == null) {
+            return isBlank(source, start, end);
+        }
+        boolean escaped = false;
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '%') {
+                escaped = true;
+                // skip the hex digits
+                i += 2;
+            } else if (c == '+') {
+                escaped = true;
+            } else if (c > ' ') {
+                return false;
+            }
+        }
+        return !escaped || unescape(source.subSequence(start, end).toString(), codec).trim().isEmpty();
+    }
+
+    /**
+     * Creates the unescaped key or value over the given range. Tokens without a {@code '%'} or {@code '+'} are only
+     * scanned, never passed to the {@code codec}.
+     *
+     * @param codec Unescapes the token, or {@code null} if the source is already unescaped.
+     */
+    static String token(String source, int start, int end, QueryParamCodec codec) {
+        String token = source.substring(start, end);
+        if (codec == null || !needsUnescaping(source, start, end)) {
+            return token;
+        }
+        return unescape(token, codec);
+    }
+
+    /**
+     * Unescapes the {@code token}, keeping a trailing incomplete escape such as the {@code %} in {@code 100%} or the
+     * {@code %2} in {@code a%2} as literal text where the {@code codec} would otherwise throw.
+     *
+     * @param token The escaped token.
+     * @param codec Unescapes the token.
+     * @return The unescaped token.
+     */
+    static String unescape(String token, QueryParamCodec codec) {
+        int length = token.length();
+        int i = 0;
+        while (i < length) {
+            if (token.charAt(i) != '%') {
+                i++;
+            } else if (i + 2 < length) {
+                // skip the escape, the codec reads the next 2 characters whatever they are
+                i += 3;
+            } else {
+                String head = token.substring(0, i);
+                return (head.isEmpty() ? "" : codec.unescapeQueryParam(head)) + token.substring(i);
+            }
+        }
+        return codec.unescapeQueryParam(token);
+    }
+
+    /**
+     * @return {@code true} if the range contains a {@code '%'} or {@code '+'} and so may need unescaping.
+     */
+    static boolean needsUnescaping(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
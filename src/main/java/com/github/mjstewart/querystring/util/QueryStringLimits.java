@@ -0,0 +1,345 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.metrics.QueryStringMetrics;
+
+/**
+ * Bounds the work done for a query string, which usually comes straight from {@code #request.getQueryString()} and
+ * so is controlled by whoever sends the request.
+ *
+ * <p>Every limit applies to the escaped query string as supplied. A pair is any non empty segment between
+ * {@code '&'} characters, whether or not it is a valid {@code key=value} pair. When a limit is exceeded the
+ * {@link Policy} decides what happens.</p>
+ * <ul>
+ * <li>{@code maxPairs} - Pairs after the first {@code maxPairs} are discarded.</li>
+ * <li>{@code maxLength} - Only the first {@code maxLength} characters are read, a pair crossing the boundary is
+ * discarded.</li>
+ * <li>{@code maxKeyLength} and {@code maxValueLength} - Shortened under {@code TRUNCATE}, otherwise the pair is
+ * discarded.</li>
+ * </ul>
+ *
+ * <blockquote>
+ * <pre>
+ *     QueryStringLimits limits = QueryStringLimits.builder()
+ *             .maxPairs(100)
+ *             .maxKeyLength(64)
+ *             .maxValueLength(1024)
+ *             .maxLength(8192)
+ *             .policy(QueryStringLimits.Policy.IGNORE_EXCESS)
+ *             .build();
+ * </pre>
+ * </blockquote>
+ *
+ * <p>Checking the limits is a single pass over the query string which allocates nothing unless a limit is
+ * exceeded. Query strings too short to exceed any limit are not scanned at all.</p>
+ */
+public final class QueryStringLimits {
+
+    public static final String MAX_PAIRS = "maxPairs";
+    public static final String MAX_KEY_LENGTH = "maxKeyLength";
+    public static final String MAX_VALUE_LENGTH = "maxValueLength";
+    public static final String MAX_LENGTH = "maxLength";
+
+    /**
+     * Applies no limits, the query string is always processed in full.
+     */
+    public static final QueryStringLimits UNLIMITED = builder().build();
+
+    // Bits recording which limits were exceeded, each limit is reported at most once per query string.
+    private static final int PAIRS_EXCEEDED = 1;
+    private static final int KEY_LENGTH_EXCEEDED = 2;
+    private static final int VALUE_LENGTH_EXCEEDED = 4;
+    private static final int LENGTH_EXCEEDED = 8;
+
+    /**
+     * What happens to a query string exceeding a limit.
+     */
+    public enum Policy {
+        /**
+         * Over long keys and values are shortened to the limit, pairs beyond {@code maxPairs} or {@code maxLength}
+         * are discarded. An escape sequence such as {@code %E2%98%83} is never split.
+         */
+        TRUNCATE,
+
+        /**
+         * Pairs having an over long key or value are discarded along with pairs beyond {@code maxPairs} or
+         * {@code maxLength}.
+         */
+        IGNORE_EXCESS,
+
+        /**
+         * The query string is not processed at all. Methods producing a query string return the input unchanged
+         * and lookups behave as though the query string is empty.
+         */
+        UNCHANGED
+    }
+
+    private final int maxPairs;
+    private final int maxKeyLength;
+    private final int maxValueLength;
+    private final int maxLength;
+    private final Policy policy;
+
+    // Any query string up to this length cannot exceed a limit so is not scanned.
+    private final int unscannedLength;
+
+    private QueryStringLimits(Builder builder) {
+        this.maxPairs = builder.maxPairs;
+        this.maxKeyLength = builder.maxKeyLength;
+        this.maxValueLength = builder.maxValueLength;
+        this.maxLength = builder.maxLength;
+        this.policy = builder.policy;
+        // The shortest pair is 'a' so exceeding n pairs needs at least 2n + 1 characters.
+        long pairsLength = 2L * maxPairs;
+        this.unscannedLength = (int) Math.min(Math.min(maxKeyLength, maxValueLength), Math.min(maxLength, pairsLength));
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * See {@link #limit(String, QueryStringMetrics)}, exceeded limits are not reported.
+     */
+    public String limit(String queryString) {
+        return limit(queryString, QueryStringMetrics.NOOP);
+    }
+
+    /**
+     * Applies the limits to the escaped {@code queryString}, reporting each exceeded limit to
+     * {@link QueryStringMetrics#limitExceeded(String, int)}.
+     *
+     * @param queryString The escaped query string.
+     * @param metrics     Receives the name of each exceeded limit, such as {@link #MAX_PAIRS}.
+     * @return The same {@code queryString} if within every limit, otherwise the limited query string. {@code null}
+     * if a limit is exceeded under the {@link Policy#UNCHANGED} policy, meaning the query string must not be
+     * processed.
+     */
+    public String limit(String queryString, QueryStringMetrics metrics) {
+        if (queryString == null || queryString.length() <= unscannedLength) {
+            return queryString;
+        }
+
+        int length = queryString.length();
+        int readable = Math.min(length, maxLength);
+        int exceeded = 0;
+        int pairs = 0;
+
+        // null while the result is the input up to prefixEnd.
+        StringBuilder limited = null;
+        int prefixEnd = 0;
+
+        int segmentStart = 0;
+        while (segmentStart < length) {
+            int segmentEnd = queryString.indexOf('&', segmentStart);
+            if (segmentEnd == -1) {
+                segmentEnd = length;
+            }
+            if (segmentEnd == segmentStart) {
+                segmentStart++;
+                continue;
+            }
+            if (segmentEnd > readable) {
+                exceeded |= LENGTH_EXCEEDED;
+                break;
+            }
+            if (pairs == maxPairs) {
+                exceeded |= PAIRS_EXCEEDED;
+                break;
+            }
+
+            // Searched within the segment only, indexOf could scan the remainder of the query string per pair.
+            int keyEnd = segmentStart;
+            while (keyEnd < segmentEnd && queryString.charAt(keyEnd) != '=') {
+                keyEnd++;
+            }
+            boolean keyTooLong = keyEnd - segmentStart > maxKeyLength;
+            boolean valueTooLong = keyEnd < segmentEnd && segmentEnd - keyEnd - 1 > maxValueLength;
+
+            if (!keyTooLong && !valueTooLong) {
+                if (limited == null) {
+                    prefixEnd = segmentEnd;
+                } else {
+                    appendSeparator(limited).append(queryString, segmentStart, segmentEnd);
+                }
+                pairs++;
+            } else {
+                exceeded |= (keyTooLong ? KEY_LENGTH_EXCEEDED : 0) | (valueTooLong ? VALUE_LENGTH_EXCEEDED : 0);
+                if (policy == Policy.UNCHANGED) {
+                    break;
+                }
+                if (limited == null) {
+                    limited = new StringBuilder(Math.min(readable, prefixEnd + 64)).append(queryString, 0, prefixEnd);
+                }
+                if (policy == Policy.TRUNCATE) {
+                    appendSeparator(limited).append(queryString, segmentStart,
+                            truncate(queryString, segmentStart, keyEnd, maxKeyLength));
+                    if (keyEnd < segmentEnd) {
+                        limited.append('=').append(queryString, keyEnd + 1,
+                                truncate(queryString, keyEnd + 1, segmentEnd, maxValueLength));
+                    }
+                    pairs++;
+                }
+            }
+            segmentStart = segmentEnd + 1;
+        }
+
+        if (exceeded == 0) {
+            return queryString;
+        }
+        report(exceeded, length, metrics);
+        if (policy == Policy.UNCHANGED) {
+            return null;
+        }
+        return limited == null ? queryString.substring(0, prefixEnd) : limited.toString();
+    }
+
+    private static StringBuilder appendSeparator(StringBuilder builder) {
+        return builder.length() == 0 ? builder : builder.append('&');
+    }
+
+    /**
+     * @return The end of the escaped token {@code [start, end)} shortened to at most {@code max} characters, moved
+     * back so that neither a {@code %XX} escape nor the escaped bytes of a single UTF-8 character are split.
+     */
+    static int truncate(CharSequence source, int start, int end, int max) {
+        if (end - start <= max) {
+            return end;
+        }
+        int cut = start + max;
+        if (cut - 1 >= start && source.charAt(cut - 1) == '%') {
+            cut -= 1;
+        } else if (cut - 2 >= start && source.charAt(cut - 2) == '%') {
+            cut -= 2;
+        }
+        // Step back over UTF-8 continuation bytes (%80 to %BF) to the start of the character.
+        while (cut - 3 >= start && isContinuationByte(source, cut) && source.charAt(cut - 3) == '%') {
+            cut -= 3;
+        }
+        return cut;
+    }
+
+    private static boolean isContinuationByte(CharSequence source, int index) {
+        if (index + 1 >= source.length() || source.charAt(index) != '%') {
+            return false;
+        }
+        char high = source.charAt(index + 1);
+        return (high >= '8' && high <= '9') || high == 'A' || high == 'B' || high == 'a' || high == 'b';
+    }
+
+    private static void report(int exceeded, int inputLength, QueryStringMetrics metrics) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        if ((exceeded & PAIRS_EXCEEDED) != 0) {
+            metrics.limitExceeded(MAX_PAIRS, inputLength);
+        }
+        if ((exceeded & KEY_LENGTH_EXCEEDED) != 0) {
+            metrics.limitExceeded(MAX_KEY_LENGTH, inputLength);
+        }
+        if ((exceeded & VALUE_LENGTH_EXCEEDED) != 0) {
+            metrics.limitExceeded(MAX_VALUE_LENGTH, inputLength);
+        }
+        if ((exceeded & LENGTH_EXCEEDED) != 0) {
+            metrics.limitExceeded(MAX_LENGTH, inputLength);
+        }
+    }
+
+    public int getMaxPairs() {
+        return maxPairs;
+    }
+
+    public int getMaxKeyLength() {
+        return maxKeyLength;
+    }
+
+    public int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStringLimits{" +
+                "maxPairs=" + maxPairs +
+                ", maxKeyLength=" + maxKeyLength +
+                ", maxValueLength=" + maxValueLength +
+                ", maxLength=" + maxLength +
+                ", policy=" + policy +
+                '}';
+    }
+
+    /**
+     * Every limit is unbounded and the policy is {@link Policy#TRUNCATE} unless set.
+     */
+    public static final class Builder {
+        private int maxPairs = Integer.MAX_VALUE;
+        private int maxKeyLength = Integer.MAX_VALUE;
+        private int maxValueLength = Integer.MAX_VALUE;
+        private int maxLength = Integer.MAX_VALUE;
+        private Policy policy = Policy.TRUNCATE;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxPairs The maximum number of pairs, must be positive.
+         */
+        public Builder maxPairs(int maxPairs) {
+            this.maxPairs = positive(maxPairs, MAX_PAIRS);
+            return this;
+        }
+
+        /**
+         * @param maxKeyLength The maximum length of an escaped key, must be positive.
+         */
+        public Builder maxKeyLength(int maxKeyLength) {
+            this.maxKeyLength = positive(maxKeyLength, MAX_KEY_LENGTH);
+            return this;
+        }
+
+        /**
+         * @param maxValueLength The maximum length of an escaped value, must be positive.
+         */
+        public Builder maxValueLength(int maxValueLength) {
+            this.maxValueLength = positive(maxValueLength, MAX_VALUE_LENGTH);
+            return this;
+        }
+
+        /**
+         * @param maxLength The maximum length of the escaped query string, must be positive.
+         */
+        public Builder maxLength(int maxLength) {
+            this.maxLength = positive(maxLength, MAX_LENGTH);
+            return this;
+        }
+
+        /**
+         * @param policy What happens to a query string exceeding a limit.
+         */
+        public Builder policy(Policy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("policy cannot be null");
+            }
+            this.policy = policy;
+            return this;
+        }
+
+        private static int positive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1 but was " + value);
+            }
+            return value;
+        }
+
+        public QueryStringLimits build() {
+            return new QueryStringLimits(this);
+        }
+    }
+}
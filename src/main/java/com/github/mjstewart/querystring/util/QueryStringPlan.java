@@ -0,0 +1,253 @@
+package com.github.mjstewart.querystring.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, reusable recipe of query string edits compiled once and applied to any number of query strings.
+ *
+ * <p>A plan consists of 3 kinds of operation which are always applied in the following order regardless of the
+ * order they were declared in.</p>
+ * <ol>
+ * <li>{@code remove} - Removes every pair having one of the keys.</li>
+ * <li>{@code set} - Replaces the first remaining value of the key, otherwise appends the pair. Setting the same
+ * key again overwrites the earlier value.</li>
+ * <li>{@code add} - Appends the pair unless the same key and value already exists.</li>
+ * </ol>
+ *
+ * <p>This gives the same result as {@code removeAll}, followed by {@code replaceFirst} or {@code add} for each set,
+ * followed by {@code addAll}. However the keys are already resolved into hash lookups, so applying a plan is a
+ * single pass over the escaped input pairs without building any intermediate state.</p>
+ *
+ * <p><b>Definition syntax</b></p>
+ * <p>Statements are separated by {@code ';'}, each being an operation followed by whitespace separated
+ * arguments. Arguments are unescaped and cannot contain whitespace or {@code ';'}.</p>
+ * <blockquote>
+ * <pre>
+ *     remove page sort; add sort=price,asc
+ *     set page=0; remove region
+ * </pre>
+ * </blockquote>
+ */
+public final class QueryStringPlan {
+
+    // Templates have a finite number of expressions, the limit only guards against definitions built at runtime.
+    private static final int MAX_CACHED_PLANS = 512;
+
+    private static final Map<String, QueryStringPlan> COMPILED = new ConcurrentHashMap<>();
+
+    private final Set<String> removeKeys;
+
+    // key -> value in declaration order.
+    private final Map<String, String> setValues;
+
+    private final List<String[]> addPairs;
+
+    // Keys whose values need tracking to skip adding a pair that already exists.
+    private final Set<String> addKeys;
+
+    private QueryStringPlan(Builder builder) {
+        this.removeKeys = Collections.unmodifiableSet(new HashSet<>(builder.removeKeys));
+        this.setValues = Collections.unmodifiableMap(new LinkedHashMap<>(builder.setValues));
+        this.addPairs = Collections.unmodifiableList(new ArrayList<>(builder.addPairs));
+        Set<String> keys = new HashSet<>();
+        for (String[] pair : addPairs) {
+            keys.add(pair[0]);
+        }
+        this.addKeys = Collections.unmodifiableSet(keys);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compiles the {@code definition}, returning the previously compiled plan for the same definition.
+     *
+     * @param definition The plan definition such as {@code 'remove page sort; add sort=price,asc'}.
+     * @return The compiled plan.
+     * @throws IllegalArgumentException If the definition is null or invalid.
+     */
+    public static QueryStringPlan compile(String definition) {
+        if (definition == null) {
+            throw new IllegalArgumentException("definition cannot be null");
+        }
+        QueryStringPlan plan = COMPILED.get(definition);
+        if (plan == null) {
+            plan = parse(definition);
+            if (COMPILED.size() < MAX_CACHED_PLANS) {
+                COMPILED.putIfAbsent(definition, plan);
+            }
+        }
+        return plan;
+    }
+
+    private static QueryStringPlan parse(String definition) {
+        Builder builder = builder();
+        for (String statement : definition.split(";")) {
+            String[] tokens = statement.trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+            if (tokens.length < 2) {
+                throw new IllegalArgumentException("Missing arguments for '" + tokens[0] + "' in plan '" + definition + "'");
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                switch (tokens[0]) {
+                    case "remove":
+                        builder.remove(tokens[i]);
+                        break;
+                    case "set":
+                        builder.set(keyOf(tokens[i], definition), valueOf(tokens[i]));
+                        break;
+                    case "add":
+                        builder.add(keyOf(tokens[i], definition), valueOf(tokens[i]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown operation '" + tokens[0] + "' in plan '" + definition
+                                + "', expect 'remove', 'set' or 'add'");
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static String keyOf(String pair, String definition) {
+        int separator = pair.indexOf('=');
+        if (separator <= 0 || separator == pair.length() - 1) {
+            throw new IllegalArgumentException("Expected key=value but was '" + pair + "' in plan '" + definition + "'");
+        }
+        return pair.substring(0, separator);
+    }
+
+    private static String valueOf(String pair) {
+        return pair.substring(pair.indexOf('=') + 1);
+    }
+
+    /**
+     * Applies the plan in a single pass over the pairs of {@code queryString}.
+     *
+     * @param queryString The escaped query string, {@code null} is treated as empty.
+     * @param codec       Unescapes the input and escapes the output.
+     * @return The new escaped query string.
+     */
+    public String apply(String queryString, QueryParamCodec codec) {
+        String source = queryString == null ? "" : queryString;
+        StringBuilder builder = new StringBuilder(source.length() + 32);
+
+        // Only the keys which are added need their existing values tracked.
+        Map<String, Set<String>> existing = addKeys.isEmpty() ? Collections.emptyMap() : new HashMap<>();
+        Set<String> setApplied = setValues.isEmpty() ? Collections.emptySet() : new HashSet<>();
+
+        QueryStringLexer.tokenize(source, codec, (index, keyStart, keyEnd, valueStart, valueEnd) -> {
+            String key = QueryStringLexer.token(source, keyStart, keyEnd, codec);
+            if (removeKeys.contains(key)) {
+                return;
+            }
+            String value = setValues.get(key);
+            if (value == null || !setApplied.add(key)) {
+                value = QueryStringLexer.token(source, valueStart, valueEnd, codec);
+            }
+            append(key, value, builder, codec, existing);
+        });
+
+        for (Map.Entry<String, String> entry : setValues.entrySet()) {
+            if (!setApplied.contains(entry.getKey())) {
+                append(entry.getKey(), entry.getValue(), builder, codec, existing);
+            }
+        }
+
+        for (String[] pair : addPairs) {
+            Set<String> values = existing.get(pair[0]);
+            if (values == null || !values.contains(pair[1])) {
+                append(pair[0], pair[1], builder, codec, existing);
+            }
+        }
+        return builder.toString();
+    }
+
+    private void append(String key, String value, StringBuilder builder, QueryParamCodec codec,
+                        Map<String, Set<String>> existing) {
+        if (builder.length() > 0) {
+            builder.append('&');
+        }
+        codec.escapeQueryParam(key, builder);
+        builder.append('=');
+        codec.escapeQueryParam(value, builder);
+
+        if (addKeys.contains(key)) {
+            existing.computeIfAbsent(key, k -> new HashSet<>(4)).add(value);
+        }
+    }
+
+    /**
+     * @return The definition of this plan, compiling it gives an equivalent plan.
+     */
+    @Override
+    public String toString() {
+        List<String> statements = new ArrayList<>();
+        if (!removeKeys.isEmpty()) {
+            statements.add("remove " + String.join(" ", removeKeys));
+        }
+        for (Map.Entry<String, String> entry : setValues.entrySet()) {
+            statements.add("set " + entry.getKey() + "=" + entry.getValue());
+        }
+        for (String[] pair : addPairs) {
+            statements.add("add " + pair[0] + "=" + pair[1]);
+        }
+        return String.join("; ", statements);
+    }
+
+    /**
+     * Creates a {@code QueryStringPlan} from Java.
+     *
+     * <blockquote>
+     * <pre>
+     *     QueryStringPlan.builder().remove("page", "sort").add("sort", "price,asc").build()
+     * </pre>
+     * </blockquote>
+     */
+    public static final class Builder {
+        private final Set<String> removeKeys = new HashSet<>();
+        private final Map<String, String> setValues = new LinkedHashMap<>();
+        private final List<String[]> addPairs = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder remove(String... keys) {
+            for (String key : keys) {
+                removeKeys.add(requireNonBlank(key, "key"));
+            }
+            return this;
+        }
+
+        public Builder set(String key, String value) {
+            setValues.put(requireNonBlank(key, "key"), requireNonBlank(value, "value"));
+            return this;
+        }
+
+        public Builder add(String key, String value) {
+            addPairs.add(new String[]{requireNonBlank(key, "key"), requireNonBlank(value, "value")});
+            return this;
+        }
+
+        public QueryStringPlan build() {
+            return new QueryStringPlan(this);
+        }
+
+        private static String requireNonBlank(String value, String name) {
+            if (value == null || value.trim().isEmpty()) {
+                throw new IllegalArgumentException(name + " cannot be null or blank");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.github.mjstewart.querystring.util;
+
+import org.thymeleaf.expression.Uris;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable result of parsing a query string into its unescaped {@code key=value} pairs.
+ *
+ * <p>A snapshot is safe to share between threads which allows it to be stored in a {@code QueryStringCache}.
+ * {@link QueryString#fromSnapshot(QueryStringSnapshot, QueryParamCodec)} creates a new mutable {@code QueryString} from the snapshot
+ * without having to unescape or scan the query string again.</p>
+ */
+public final class QueryStringSnapshot {
+
+    private static final QueryStringSnapshot EMPTY =
+            new QueryStringSnapshot("", null, new String[0], new String[0], false);
+
+    // The escaped query string as supplied.
+    private final String queryString;
+
+    private final QueryParamCodec codec;
+
+    private final String[] keys;
+    private final String[] values;
+
+    // true if the query string exceeded a limit and must be passed through without being processed.
+    private final boolean unchanged;
+
+    // The unescaped query string, null until requested. Racing threads at worst unescape it more than once.
+    private String originalQueryString;
+
+    // Parsed values of the 'sort' key, null until requested. Racing threads at worst parse it more than once.
+    private SortSpec sortSpec;
+
+    private QueryStringSnapshot(String queryString, QueryParamCodec codec, String[] keys, String[] values,
+                                boolean unchanged) {
+        this.queryString = queryString;
+        this.codec = codec;
+        this.keys = keys;
+        this.values = values;
+        this.unchanged = unchanged;
+    }
+
+    /**
+     * Parses the query string into a snapshot.
+     *
+     * @param queryString The query string. If {@code null} or empty an empty snapshot is returned.
+     * @param uris        Handles unescaping the string
+     * @return A valid instance
+     */
+    public static QueryStringSnapshot of(String queryString, Uris uris) {
+        return of(queryString, new UrisCodec(uris));
+    }
+
+    /**
+     * Parses the query string into a snapshot.
+     *
+     * @param queryString The query string. If {@code null} or empty an empty snapshot is returned.
+     * @param codec       Handles unescaping the string
+     * @return A valid instance
+     */
+    public static QueryStringSnapshot of(String queryString, QueryParamCodec codec) {
+        if (queryString == null || queryString.isEmpty()) {
+            return EMPTY;
+        }
+        final String[][] pairs = {new String[8], new String[8]};
+
+        int size = QueryStringLexer.tokenize(queryString, codec, (index, keyStart, keyEnd, valueStart, valueEnd) -> {
+            if (index == pairs[0].length) {
+                pairs[0] = Arrays.copyOf(pairs[0], index * 2);
+                pairs[1] = Arrays.copyOf(pairs[1], index * 2);
+            }
+            pairs[0][index] = QueryStringLexer.token(queryString, keyStart, keyEnd, codec);
+            pairs[1][index] = QueryStringLexer.token(queryString, valueStart, valueEnd, codec);
+        });
+        return new QueryStringSnapshot(queryString, codec, Arrays.copyOf(pairs[0], size), Arrays.copyOf(pairs[1], size),
+                false);
+    }
+
+    /**
+     * Creates a snapshot of a query string which is not to be processed, see
+     * {@link QueryStringLimits.Policy#UNCHANGED}. The snapshot has no pairs and every {@code QueryString} created
+     * from it reconstructs the supplied {@code queryString} regardless of any operations applied.
+     *
+     * @param queryString The escaped query string.
+     * @param codec       Handles unescaping the string
+     * @return A valid instance
+     */
+    public static QueryStringSnapshot unchanged(String queryString, QueryParamCodec codec) {
+        return new QueryStringSnapshot(queryString == null ? "" : queryString, codec, new String[0], new String[0],
+                true);
+    }
+
+    /**
+     * @return The escaped query string as supplied.
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * @return The unescaped query string.
+     */
+    public String getOriginalQueryString() {
+        String unescaped = originalQueryString;
+        if (unescaped == null) {
+            unescaped = codec == null ? queryString : QueryStringLexer.unescape(queryString, codec);
+            originalQueryString = unescaped;
+        }
+        return unescaped;
+    }
+
+    /**
+     * @return {@code true} if the query string is passed through without being processed.
+     */
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * @return The total number of valid {@code key=value} pairs.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @param index The overall index of the pair.
+     * @return The unescaped key.
+     */
+    public String getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index The overall index of the pair.
+     * @return The unescaped value.
+     */
+    public String getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * See {@link QueryString#getFirstValue(String)}.
+     *
+     * @param key The target key.
+     * @return The associated value if found otherwise null.
+     */
+    public String getFirstValue(String key) {
+        if (key == null) {
+            return null;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * See {@link QueryString#getAllValues(String)}.
+     *
+     * @param key The target key.
+     * @return The associated values if found otherwise an empty list.
+     */
+    public List<String> getAllValues(String key) {
+        List<String> matches = new ArrayList<>();
+        if (key == null) {
+            return matches;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                matches.add(values[i]);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return The parsed values of the 'sort' key, shared by every operation on this snapshot.
+     */
+    public SortSpec getSortSpec() {
+        SortSpec spec = sortSpec;
+        if (spec == null) {
+            List<String> sortValues = new ArrayList<>(2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(SortSpec.SORT_KEY)) {
+                    sortValues.add(values[i]);
+                }
+            }
+            spec = SortSpec.of(sortValues);
+            sortSpec = spec;
+        }
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        return getOriginalQueryString();
+    }
+}
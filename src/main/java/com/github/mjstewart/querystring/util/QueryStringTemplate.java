@@ -0,0 +1,100 @@
+package com.github.mjstewart.querystring.util;
+
+/**
+ * A query string pre-rendered around the value of a single key, allowing many query strings differing only by that
+ * value to be created by concatenation.
+ *
+ * <blockquote>
+ * <pre>
+ *     city=dallas&amp;page=3&amp;sort=name
+ *
+ *     => prefix = city=dallas&amp;page=, suffix = &amp;sort=name
+ *     => fill("7") = city=dallas&amp;page=7&amp;sort=name
+ * </pre>
+ * </blockquote>
+ *
+ * <p>The prefix and suffix are already escaped so the cost of each {@link #fill(String)} is proportional to the
+ * length of the value rather than re-parsing and re-escaping the whole query string.</p>
+ */
+public final class QueryStringTemplate {
+
+    private final String prefix;
+    private final String suffix;
+    private final QueryParamCodec codec;
+
+    // false if every fill gives back the prefix, see unchanged.
+    private final boolean hasSlot;
+
+    private QueryStringTemplate(String prefix, String suffix, QueryParamCodec codec, boolean hasSlot) {
+        if (prefix == null || suffix == null || codec == null) {
+            throw new IllegalArgumentException("prefix, suffix and codec cannot be null");
+        }
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.codec = codec;
+        this.hasSlot = hasSlot;
+    }
+
+    /**
+     * @param prefix The escaped query string up to and including the {@code key=} of the slot.
+     * @param suffix The escaped query string following the value of the slot.
+     * @param codec  Escapes each value placed into the slot.
+     * @return A new template.
+     */
+    public static QueryStringTemplate of(String prefix, String suffix, QueryParamCodec codec) {
+        return new QueryStringTemplate(prefix, suffix, codec, true);
+    }
+
+    /**
+     * @param queryString The escaped query string given back by every fill, see
+     *                    {@link QueryStringLimits.Policy#UNCHANGED}.
+     * @param codec       Never used given there is no slot to escape a value into.
+     * @return A template ignoring the value of every fill.
+     */
+    public static QueryStringTemplate unchanged(String queryString, QueryParamCodec codec) {
+        return new QueryStringTemplate(queryString, "", codec, false);
+    }
+
+    /**
+     * @param value The unescaped value for the slot.
+     * @return The query string with {@code value} escaped into the slot.
+     */
+    public String fill(String value) {
+        if (!hasSlot) {
+            return prefix;
+        }
+        // Values such as page numbers rarely expand when escaped.
+        StringBuilder builder = new StringBuilder(prefix.length() + suffix.length() + value.length() + 8);
+        builder.append(prefix);
+        codec.escapeQueryParam(value, builder);
+        return builder.append(suffix).toString();
+    }
+
+    /**
+     * @param value The numeric value for the slot, which never requires escaping.
+     * @return The query string with {@code value} in the slot.
+     */
+    public String fill(long value) {
+        if (!hasSlot) {
+            return prefix;
+        }
+        return new StringBuilder(prefix.length() + suffix.length() + 20)
+                .append(prefix)
+                .append(value)
+                .append(suffix)
+                .toString();
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String getSuffix() {
+        return suffix;
+    }
+
+    @Override
+    public String toString() {
+        return hasSlot ? prefix + "{}" + suffix : prefix;
+    }
+}
@@ -0,0 +1,222 @@
+package com.github.mjstewart.querystring.util;
+
+import org.thymeleaf.expression.Uris;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read only view over a query string which only records the offsets of each {@code key=value} pair.
+ *
+ * <p>Unlike {@code QueryString} which materializes every pair into its state map, a {@code String} is only
+ * created for the keys and values a read operation actually returns. This makes it the cheaper choice for
+ * lookups such as {@link #getFirstValue(String)} or {@link #isFieldSorted(String)} which are commonly called
+ * once per table column.</p>
+ *
+ * <p>The offsets point into the escaped query string. Keys and values are compared in place and only unescaped
+ * when they are returned or contain a {@code '%'} or {@code '+'}.</p>
+ */
+public final class QueryStringView {
+
+    private static final int OFFSETS_PER_PAIR = 4;
+
+    // The query string the offsets point into.
+    private final String source;
+
+    // Unescapes keys and values, null if the source is already unescaped.
+    private final QueryParamCodec codec;
+
+    // keyStart, keyEnd, valueStart, valueEnd for each pair in query string order.
+    private int[] offsets;
+
+    private int size;
+
+    private SortSpec sortSpec;
+
+    private QueryStringView(String source, QueryParamCodec codec) {
+        this.source = source;
+        this.codec = codec;
+        this.offsets = new int[OFFSETS_PER_PAIR * 8];
+        this.size = QueryStringLexer.tokenize(source, codec, this::record);
+    }
+
+    /**
+     * Constructs a {@code QueryStringView} instance.
+     *
+     * @param queryString The query string. If {@code null} the view is empty.
+     * @param uris        Handles unescaping the string.
+     * @return A valid instance
+     */
+    public static QueryStringView of(String queryString, Uris uris) {
+        return of(queryString, new UrisCodec(uris));
+    }
+
+    /**
+     * Constructs a {@code QueryStringView} instance.
+     *
+     * @param queryString The query string. If {@code null} the view is empty.
+     * @param codec       Handles unescaping the string.
+     * @return A valid instance
+     */
+    public static QueryStringView of(String queryString, QueryParamCodec codec) {
+        return new QueryStringView(queryString == null ? "" : queryString, codec);
+    }
+
+    /**
+     * @param source The already unescaped query string.
+     * @return A view over {@code source}.
+     */
+    public static QueryStringView of(CharSequence source) {
+        return new QueryStringView(source == null ? "" : source.toString(), null);
+    }
+
+    private void record(int index, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+        int offset = index * OFFSETS_PER_PAIR;
+        if (offset + OFFSETS_PER_PAIR > offsets.length) {
+            int[] grown = new int[offsets.length * 2];
+            System.arraycopy(offsets, 0, grown, 0, offsets.length);
+            offsets = grown;
+        }
+        offsets[offset] = keyStart;
+        offsets[offset + 1] = keyEnd;
+        offsets[offset + 2] = valueStart;
+        offsets[offset + 3] = valueEnd;
+    }
+
+    /**
+     * @return The total number of valid {@code key=value} pairs.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index The overall index of the pair.
+     * @return The key of the pair.
+     */
+    public String getKey(int index) {
+        int offset = checkIndex(index) * OFFSETS_PER_PAIR;
+        return QueryStringLexer.token(source, offsets[offset], offsets[offset + 1], codec);
+    }
+
+    /**
+     * @param index The overall index of the pair.
+     * @return The value of the pair.
+     */
+    public String getValue(int index) {
+        int offset = checkIndex(index) * OFFSETS_PER_PAIR;
+        return QueryStringLexer.token(source, offsets[offset + 2], offsets[offset + 3], codec);
+    }
+
+    /**
+     * @param index The overall index of the pair.
+     * @param key   The key to compare against.
+     * @return {@code true} if the pair has a key equal to {@code key} without creating the key.
+     */
+    public boolean keyEquals(int index, String key) {
+        int offset = checkIndex(index) * OFFSETS_PER_PAIR;
+        if (key == null) {
+            return false;
+        }
+        if (isEscaped(offsets[offset], offsets[offset + 1])) {
+            return getKey(index).equals(key);
+        }
+        return regionEquals(source, offsets[offset], offsets[offset + 1], key);
+    }
+
+    /**
+     * See {@link QueryString#getFirstValue(String)}.
+     *
+     * @param key The target key.
+     * @return The associated value if found otherwise null.
+     */
+    public String getFirstValue(String key) {
+        if (key == null) {
+            return null;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keyEquals(i, key)) {
+                return getValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * See {@link QueryString#getAllValues(String)}.
+     *
+     * @param key The target key.
+     * @return The associated values if found otherwise an empty list.
+     */
+    public List<String> getAllValues(String key) {
+        List<String> values = new ArrayList<>();
+        if (key == null) {
+            return values;
+        }
+        for (int i = 0; i < size; i++) {
+            if (keyEquals(i, key)) {
+                values.add(getValue(i));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * See {@link QueryString#isFieldSorted(String)}.
+     *
+     * @param field The sort field.
+     * @return {@code true} if the {@code field} appears under a 'sort' key.
+     */
+    public boolean isFieldSorted(String field) {
+        return getSortSpec().isSorted(field);
+    }
+
+    /**
+     * Finds the sort direction of the first 'sort' key having a value in the form {@code field,direction}.
+     *
+     * @param field            The sort field.
+     * @param defaultDirection Returned when the {@code field} is sorted without an explicit direction.
+     * @return The sort direction or {@code null} if the field is not sorted.
+     */
+    public String getCurrentSortDirection(String field, SortDirection defaultDirection) {
+        return getSortSpec().getCurrentDirection(field, defaultDirection);
+    }
+
+    /**
+     * @return The parsed values of the 'sort' key, created on first use.
+     */
+    public SortSpec getSortSpec() {
+        if (sortSpec == null) {
+            sortSpec = SortSpec.of(getAllValues(SortSpec.SORT_KEY));
+        }
+        return sortSpec;
+    }
+
+    private boolean isEscaped(int start, int end) {
+        return codec != null && QueryStringLexer.needsUnescaping(source, start, end);
+    }
+
+    private static boolean regionEquals(CharSequence value, int start, int end, String other) {
+        if (end - start != other.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (value.charAt(i) != other.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " is not within [0, " + size + ")");
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return codec == null ? source : QueryStringLexer.unescape(source, codec);
+    }
+}
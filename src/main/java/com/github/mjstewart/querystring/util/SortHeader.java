@@ -0,0 +1,75 @@
+package com.github.mjstewart.querystring.util;
+
+/**
+ * Everything a sortable table column header needs, as returned by {@code #qs.sortHeaders}.
+ */
+public final class SortHeader {
+
+    private final String field;
+    private final SortDirection defaultDirection;
+    private final String queryString;
+    private final String currentDirection;
+    private final String value;
+
+    public SortHeader(String field, SortDirection defaultDirection, String queryString, String currentDirection,
+                      String value) {
+        this.field = field;
+        this.defaultDirection = defaultDirection;
+        this.queryString = queryString;
+        this.currentDirection = currentDirection;
+        this.value = value;
+    }
+
+    /**
+     * @return The sort field.
+     */
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return The direction used when the field is not sorted or has no explicit direction.
+     */
+    public SortDirection getDefaultDirection() {
+        return defaultDirection;
+    }
+
+    /**
+     * @return The query string toggling the sort on this field, the same as {@code #qs.fieldSorterXXX}.
+     */
+    public String getQueryString() {
+        return queryString;
+    }
+
+    /**
+     * @return The current sort direction, the same as {@code #qs.getCurrentSortDirectionXXX}.
+     */
+    public String getCurrentDirection() {
+        return currentDirection;
+    }
+
+    /**
+     * @return {@code true} if the field currently appears under a 'sort' key.
+     */
+    public boolean isSorted() {
+        return currentDirection != null;
+    }
+
+    /**
+     * @return The missing, matching or non matching value, the same as {@code #qs.valueWhenMatchesSortXXX}.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "SortHeader{" +
+                "field='" + field + '\'' +
+                ", defaultDirection=" + defaultDirection +
+                ", queryString='" + queryString + '\'' +
+                ", currentDirection='" + currentDirection + '\'' +
+                ", value='" + value + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,175 @@
+package com.github.mjstewart.querystring.util;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, ordered list of the {@code field,direction} entries found under the spring {@code 'sort'} key.
+ *
+ * <p>Each {@code sort} value is split once when the spec is created. A hash index from each field to the position
+ * of its first entry then answers {@link #isSorted(String)}, {@link #getCurrentDirection(String, SortDirection)}
+ * and {@link #indexOf(String)} in constant time rather than splitting every {@code sort} value again per lookup.
+ * Positions are the relative indexes of the {@code sort} values they were parsed from.</p>
+ *
+ * <blockquote>
+ * <pre>
+ *     sort=stars,desc&amp;sort=name
+ *
+ *     => [0 -> (stars, DESC), 1 -> (name, NONE)]
+ * </pre>
+ * </blockquote>
+ */
+public final class SortSpec {
+
+    public static final String SORT_KEY = "sort";
+
+    private static final SortSpec EMPTY = new SortSpec(new String[0], new String[0], new SortDirection[0]);
+
+    // The field, the first token of value.split(",") or empty if there are no tokens.
+    private final String[] fields;
+
+    // The raw direction token, the second token of value.split(",") or null if there is no second token.
+    private final String[] directionTokens;
+
+    // NONE unless the value is exactly field,direction.
+    private final SortDirection[] directions;
+
+    // field -> position of the first entry having the field.
+    private final Map<String, Integer> index;
+
+    // trimmed field -> position of the first entry having the field once trimmed.
+    private final Map<String, Integer> trimmedIndex;
+
+    /**
+     * @param fields A {@code null} field marks a value without any tokens such as {@code ',,'}. It is treated as an
+     *               empty field which is never matched once trimmed.
+     */
+    private SortSpec(String[] fields, String[] directionTokens, SortDirection[] directions) {
+        this.fields = fields;
+        this.directionTokens = directionTokens;
+        this.directions = directions;
+        this.index = new HashMap<>(fields.length * 2);
+        this.trimmedIndex = new HashMap<>(fields.length * 2);
+
+        // Visit in reverse so the first entry of a repeated field wins.
+        for (int i = fields.length - 1; i >= 0; i--) {
+            if (fields[i] == null) {
+                fields[i] = "";
+            } else {
+                trimmedIndex.put(fields[i].trim(), i);
+            }
+            index.put(fields[i], i);
+        }
+    }
+
+    /**
+     * Parses the values of every {@code sort} key.
+     *
+     * @param sortValues The {@code sort} values in query string order such as {@code ['stars,desc', 'name']}.
+     * @return The parsed spec.
+     */
+    public static SortSpec of(List<String> sortValues) {
+        if (sortValues == null || sortValues.isEmpty()) {
+            return EMPTY;
+        }
+        int size = sortValues.size();
+        String[] fields = new String[size];
+        String[] directionTokens = new String[size];
+        SortDirection[] directions = new SortDirection[size];
+
+        for (int i = 0; i < size; i++) {
+            String[] tokens = sortValues.get(i).split(",");
+            fields[i] = tokens.length > 0 ? tokens[0] : null;
+            directionTokens[i] = tokens.length > 1 ? tokens[1] : null;
+            directions[i] = tokens.length == 2 ? SortDirection.from(tokens[1].trim()) : SortDirection.NONE;
+        }
+        return new SortSpec(fields, directionTokens, directions);
+    }
+
+    /**
+     * @return The total number of entries.
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * @param position The relative index of the {@code sort} value.
+     * @return The sort field.
+     */
+    public String getField(int position) {
+        return fields[position];
+    }
+
+    /**
+     * @param position The relative index of the {@code sort} value.
+     * @return The sort direction, {@code NONE} if there is no explicit direction.
+     */
+    public SortDirection getDirection(int position) {
+        return directions[position];
+    }
+
+    /**
+     * @param field The sort field.
+     * @return The position of the first entry having the {@code field}, otherwise -1.
+     */
+    public int indexOf(String field) {
+        Integer position = field == null ? null : index.get(field);
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * Same as {@link #indexOf(String)} except leading and trailing whitespace is ignored on both fields.
+     *
+     * @param field The sort field.
+     * @return The position of the first entry having the trimmed {@code field}, otherwise -1.
+     */
+    public int indexOfTrimmed(String field) {
+        Integer position = field == null ? null : trimmedIndex.get(field.trim());
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * @param field The sort field.
+     * @return {@code true} if the {@code field} appears under a 'sort' key.
+     */
+    public boolean isSorted(String field) {
+        return indexOf(field) != -1;
+    }
+
+    /**
+     * @param field            The sort field.
+     * @param defaultDirection Returned when the {@code field} is sorted without an explicit direction.
+     * @return The direction of the first entry having the {@code field} or {@code null} if the field is not sorted.
+     */
+    public String getCurrentDirection(String field, SortDirection defaultDirection) {
+        int position = indexOf(field);
+        if (position == -1) {
+            return null;
+        }
+        String directionToken = directionTokens[position];
+        return directionToken == null ? defaultDirection.value : directionToken;
+    }
+
+    /**
+     * @param position     The relative index of the {@code sort} value.
+     * @param newDirection The new sort direction.
+     * @return The {@code sort} value having the trimmed field of the entry at {@code position} and {@code newDirection}.
+     */
+    public String withDirection(int position, SortDirection newDirection) {
+        return newDirection.withSortField(fields[position].trim());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("SortSpec[");
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(fields[i]).append(' ').append(directions[i]);
+        }
+        return builder.append(']').toString();
+    }
+}
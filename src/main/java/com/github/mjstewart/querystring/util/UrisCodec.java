@@ -0,0 +1,25 @@
+package com.github.mjstewart.querystring.util;
+
+import org.thymeleaf.expression.Uris;
+
+/**
+ * {@code QueryParamCodec} delegating to the thymeleaf {@code #uris} expression utility.
+ */
+public final class UrisCodec implements QueryParamCodec {
+
+    private final Uris uris;
+
+    public UrisCodec(Uris uris) {
+        this.uris = uris;
+    }
+
+    @Override
+    public String escapeQueryParam(String value) {
+        return uris.escapeQueryParam(value);
+    }
+
+    @Override
+    public String unescapeQueryParam(String value) {
+        return uris.unescapeQueryParam(value);
+    }
+}
@@ -0,0 +1,8 @@
+package com.github.mjstewart.querystring;
+
+/**
+ * JUnit category for tests timing operations across input sizes. They take several seconds and depend on the
+ * machine being otherwise idle, so are excluded from the default build and run with {@code mvn test -Pscalability}.
+ */
+public interface Scalability {
+}
@@ -0,0 +1,107 @@
+package com.github.mjstewart.querystring.dialect;
+
+import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.proxy;
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AttributeProcessorTest {
+
+    private static final String QUERY = "city=new%20york&sort=name,desc&page=2";
+
+    private final TemplateEngine engine = engine();
+
+    @Test
+    public void page() {
+        assertThat(render("<a qs:page=\"next\">n</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=3\">n</a>");
+        assertThat(render("<a qs:page=\"previous\">p</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=1\">p</a>");
+        assertThat(render("<a qs:page=\"first\">f</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=0\">f</a>");
+        assertThat(render("<a qs:page=\"7\">7</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=7\">7</a>");
+    }
+
+    /**
+     * The proxied request does not store attributes, so local variables are tested without a web context.
+     */
+    @Test
+    public void page_Expression() {
+        assertThat(engine.process("<a th:with=\"last=${9}\" qs:page=\"${last}\">l</a>", new Context()))
+                .isEqualTo("<a href=\"?page=9\">l</a>");
+    }
+
+    @Test
+    public void page_Invalid_Throws() {
+        assertThatThrownBy(() -> render("<a qs:page=\"last\">l</a>")).isInstanceOf(TemplateProcessingException.class);
+    }
+
+    @Test
+    public void sort() {
+        assertThat(render("<a qs:sort=\"name\">n</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,asc&amp;page=2\">n</a>");
+        assertThat(render("<a qs:sort=\"stars,desc\">s</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;page=2&amp;sort=stars,desc\">s</a>");
+    }
+
+    @Test
+    public void removeAndPlan() {
+        assertThat(render("<a qs:remove=\"sort page\">r</a>")).isEqualTo("<a href=\"/hotels?city=new%20york\">r</a>");
+        assertThat(render("<a qs:remove=\"city sort page\">r</a>")).isEqualTo("<a href=\"/hotels\">r</a>");
+        assertThat(render("<a qs:plan=\"remove page; set sort=price,asc\">p</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=price,asc\">p</a>");
+    }
+
+    /**
+     * Keys are only ever removed, never parsed as plan statements.
+     */
+    @Test
+    public void remove_OnlyRemovesKeys() {
+        assertThat(render("<a qs:remove=\"page; add admin=1\">r</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=2\">r</a>");
+        assertThat(render("<a qs:remove=\" sort \t page \">r</a>")).isEqualTo("<a href=\"/hotels?city=new%20york\">r</a>");
+        assertThat(engine.process("<a th:with=\"keys='a; add admin=1'\" qs:remove=\"${keys}\">r</a>", new Context()))
+                .isEqualTo("<a href=\"?\">r</a>");
+    }
+
+    @Test
+    public void remove_Empty_Unchanged() {
+        assertThat(engine.process("<a th:with=\"keys=''\" qs:remove=\"${keys}\">r</a>", new Context()))
+                .isEqualTo("<a href=\"?\">r</a>");
+        assertThat(render("<a qs:remove=\"\">r</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=2\">r</a>");
+    }
+
+    @Test
+    public void replacesExistingHref() {
+        assertThat(render("<a href=\"#\" class=\"item\" qs:page=\"0\">0</a>"))
+                .isEqualTo("<a href=\"/hotels?city=new%20york&amp;sort=name,desc&amp;page=0\" class=\"item\">0</a>");
+    }
+
+    @Test
+    public void notWebContext_WritesRelativeHref() {
+        assertThat(engine.process("<a qs:page=\"next\">n</a>", new Context())).isEqualTo("<a href=\"?page=1\">n</a>");
+    }
+
+    private String render(String template) {
+        WebContext context = new WebContext(request(QUERY, "/hotels"), proxy(javax.servlet.http.HttpServletResponse.class),
+                proxy(javax.servlet.ServletContext.class));
+        return engine.process(template, context);
+    }
+
+    static TemplateEngine engine() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new QueryStringDialect());
+        return engine;
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.mjstewart.querystring.dialect;
+
+import com.github.mjstewart.querystring.dialect.processor.PaginationMarkup;
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.exceptions.TemplateProcessingException;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.proxy;
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.request;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PaginationElementProcessorTest {
+
+    private final TemplateEngine engine = AttributeProcessorTest.engine();
+
+    @Test
+    public void bootstrap() {
+        WebContext context = new WebContext(request("city=dallas&page=1", "/hotels"), proxy(HttpServletResponse.class),
+                proxy(ServletContext.class));
+        String result = engine.process("<qs:pagination current=\"1\" total=\"3\"/>", context);
+
+        assertThat(result).isEqualTo("<ul class=\"pagination\">" +
+                "<li class=\"page-item\"><a class=\"page-link\" href=\"/hotels?city=dallas&amp;page=0\">\u00ab</a></li>" +
+                "<li class=\"page-item\"><a class=\"page-link\" href=\"/hotels?city=dallas&amp;page=0\">1</a></li>" +
+                "<li class=\"page-item active\"><a class=\"page-link\" href=\"/hotels?city=dallas&amp;page=1\" aria-current=\"page\">2</a></li>" +
+                "<li class=\"page-item\"><a class=\"page-link\" href=\"/hotels?city=dallas&amp;page=2\">3</a></li>" +
+                "<li class=\"page-item\"><a class=\"page-link\" href=\"/hotels?city=dallas&amp;page=2\">\u00bb</a></li>" +
+                "</ul>");
+    }
+
+    @Test
+    public void semantic_DisabledAtBounds() {
+        Context context = new Context();
+        context.setVariable("page", 0);
+        String result = engine.process("<qs:pagination current=\"${page}\" total=\"${1}\" markup=\"semantic\"/>", context);
+
+        assertThat(result).isEqualTo("<div class=\"ui pagination menu\">" +
+                "<a class=\"item disabled\" aria-disabled=\"true\">\u00ab</a>" +
+                "<a class=\"item active\" href=\"?page=0\" aria-current=\"page\">1</a>" +
+                "<a class=\"item disabled\" aria-disabled=\"true\">\u00bb</a>" +
+                "</div>");
+    }
+
+    @Test
+    public void window_AndCustomMarkup() {
+        TemplateEngine custom = new TemplateEngine();
+        custom.setTemplateResolver(new StringTemplateResolver());
+        PaginationMarkup markup = PaginationMarkup.builder().itemClass(null).linkClass(null)
+                .firstLabel("first").previousLabel(null).nextLabel(null).lastLabel("last").build();
+        custom.addDialect(new QueryStringDialect(null, QueryStringHelper.defaultCodec(),
+                Collections.singletonMap("compact", markup)));
+
+        String result = custom.process("<qs:pagination current=\"5\" total=\"20\" window=\"3\" markup=\"compact\"/>", new Context());
+        assertThat(result).isEqualTo("<ul class=\"pagination\">" +
+                "<li><a href=\"?page=0\">first</a></li>" +
+                "<li><a href=\"?page=4\">5</a></li>" +
+                "<li class=\"active\"><a href=\"?page=5\" aria-current=\"page\">6</a></li>" +
+                "<li><a href=\"?page=6\">7</a></li>" +
+                "<li><a href=\"?page=19\">last</a></li>" +
+                "</ul>");
+    }
+
+    @Test
+    public void invalid_Throws() {
+        assertThatThrownBy(() -> engine.process("<qs:pagination total=\"3\"/>", new Context()))
+                .isInstanceOf(TemplateProcessingException.class);
+        assertThatThrownBy(() -> engine.process("<qs:pagination current=\"0\" total=\"3\" markup=\"nope\"/>", new Context()))
+                .isInstanceOf(TemplateProcessingException.class);
+    }
+}
@@ -0,0 +1,178 @@
+package com.github.mjstewart.querystring.dialect;
+
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.expression.RequestQueryStringHelper;
+import com.github.mjstewart.querystring.metrics.QueryStringStatistics;
+import com.github.mjstewart.querystring.util.PercentCodec;
+import com.github.mjstewart.querystring.util.QueryStringLimits;
+import com.github.mjstewart.querystring.util.SortDirection;
+import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryStringExpressionFactoryTest {
+
+    @Test
+    public void qs_IsSharedInstance() {
+        QueryStringExpressionFactory factory = new QueryStringExpressionFactory();
+        Object first = factory.buildObject(null, "qs");
+        assertThat(first).isInstanceOf(QueryStringHelper.class);
+        assertThat(factory.buildObject(null, "qs")).isSameAs(first);
+        assertThat(factory.buildObject(null, "unknown")).isNull();
+        assertThat(factory.getAllExpressionObjectNames()).containsExactlyInAnyOrder("qs", "qsr");
+        assertThat(factory.isCacheable("qsr")).isTrue();
+    }
+
+    @Test
+    public void qsr_NotWebContext_HasNoQueryString() {
+        RequestQueryStringHelper qsr = (RequestQueryStringHelper) new QueryStringExpressionFactory().buildObject(null, "qsr");
+        assertThat(qsr.getQueryString()).isNull();
+        assertThat(qsr.incrementPage()).isEqualTo("page=1");
+    }
+
+    @Test
+    public void qsr_Lookups_ParseOnce() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        RequestQueryStringHelper qsr = new RequestQueryStringHelper(
+                new QueryStringHelper(null, PercentCodec.of(), statistics), "city=new%20york&sort=name&sort=stars&page=2",
+                "/hotels");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(qsr.getFirstValue("city")).isEqualTo("new york");
+            assertThat(qsr.getAllValues("sort")).containsExactly("name", "stars");
+            assertThat(qsr.getPageNumber()).isEqualTo("2");
+        }
+        assertThat(statistics.getParseCount()).isEqualTo(1);
+        assertThat(statistics.getOperationCount()).isEqualTo(9);
+    }
+
+    @Test
+    public void qsr_Operations_ParseOnce() {
+        String queryString = "city=new%20york&sort=name&sort=stars,desc&page=2";
+        QueryStringHelper qs = new QueryStringHelper(null, PercentCodec.of());
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        RequestQueryStringHelper qsr = new RequestQueryStringHelper(
+                new QueryStringHelper(null, PercentCodec.of(), statistics), queryString, "/hotels");
+        List<String> keys = Collections.singletonList("sort");
+        List<List<String>> pairs = Collections.singletonList(Arrays.asList("size", "10"));
+        List<String> fields = Arrays.asList("name", "stars,desc", "price");
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(qsr.on().removeAll(keys).incrementPage().build())
+                    .isEqualTo(qs.on(queryString).removeAll(keys).incrementPage().build());
+            assertThat(qsr.applyPlan("remove page")).isEqualTo(qs.applyPlan(queryString, "remove page"));
+            assertThat(qsr.replaceFirst("city", "dallas")).isEqualTo(qs.replaceFirst(queryString, "city", "dallas"));
+            assertThat(qsr.removeFirst("sort")).isEqualTo(qs.removeFirst(queryString, "sort"));
+            assertThat(qsr.removeAll(keys)).isEqualTo(qs.removeAll(queryString, keys));
+            assertThat(qsr.add("size", "10")).isEqualTo(qs.add(queryString, "size", "10"));
+            assertThat(qsr.addAll(pairs)).isEqualTo(qs.addAll(queryString, pairs));
+            assertThat(qsr.incrementPage()).isEqualTo(qs.incrementPage(queryString));
+            assertThat(qsr.incrementPage(2)).isEqualTo(qs.incrementPage(queryString, 2));
+            assertThat(qsr.decrementPage()).isEqualTo(qs.decrementPage(queryString));
+            assertThat(qsr.resetPageNumber()).isEqualTo(qs.resetPageNumber(queryString));
+            assertThat(qsr.setPageNumber("7")).isEqualTo(qs.setPageNumber(queryString, "7"));
+            assertThat(qsr.pagination(2, 10, 3).getNext().getQueryString())
+                    .isEqualTo(qs.pagination(queryString, 2, 10, 3).getNext().getQueryString());
+            assertThat(qsr.pagination(2, 10).getPages()).hasSameSizeAs(qs.pagination(queryString, 2, 10).getPages());
+            assertThat(qsr.isFieldSorted("stars")).isEqualTo(qs.isFieldSorted(queryString, "stars"));
+            assertThat(qsr.getCurrentSortDirectionAsc("name"))
+                    .isEqualTo(qs.getCurrentSortDirectionAsc(queryString, "name"));
+            assertThat(qsr.getCurrentSortDirectionDesc("name"))
+                    .isEqualTo(qs.getCurrentSortDirectionDesc(queryString, "name"));
+            assertThat(qsr.toggleSortDefaultAsc("name")).isEqualTo(qs.toggleSortDefaultAsc(queryString, "name"));
+            assertThat(qsr.toggleSortDefaultDesc("name")).isEqualTo(qs.toggleSortDefaultDesc(queryString, "name"));
+            assertThat(qsr.fieldSorterAsc().apply("price")).isEqualTo(qs.fieldSorterAsc(queryString).apply("price"));
+            assertThat(qsr.fieldSorterDesc().apply("stars")).isEqualTo(qs.fieldSorterDesc(queryString).apply("stars"));
+            assertThat(qsr.valueWhenMatchesSortAsc("", "up", "down").apply("name"))
+                    .isEqualTo(qs.valueWhenMatchesSortAsc(queryString, "", "up", "down").apply("name"));
+            assertThat(qsr.valueWhenMatchesSortDesc("", "up", "down").apply("stars"))
+                    .isEqualTo(qs.valueWhenMatchesSortDesc(queryString, "", "up", "down").apply("stars"));
+            assertThat(qsr.sortHeaders(fields, "", "up", "down"))
+                    .hasToString(qs.sortHeaders(queryString, fields, "", "up", "down").toString());
+            assertThat(qsr.sortHeaders(fields)).hasToString(qs.sortHeaders(queryString, fields).toString());
+            assertThat(qsr.sortHeaders(null)).isEmpty();
+            assertThat(qsr.sortHeader("stars", SortDirection.DESC, "", "up", "down"))
+                    .hasToString(qs.sortHeader(queryString, "stars", SortDirection.DESC, "", "up", "down").toString());
+            assertThat(qsr.createNewSort(Collections.singletonList("price,asc")))
+                    .isEqualTo(qs.createNewSort(queryString, Collections.singletonList("price,asc")));
+        }
+        assertThat(statistics.getParseCount()).isEqualTo(1);
+        assertThat(statistics.getOperationCount()).isEqualTo(56);
+    }
+
+    @Test
+    public void qsr_UnchangedPolicy_ReturnsInput() {
+        String queryString = "page=1&sort=name&sort=stars&city=melbourne";
+        QueryStringLimits limits = QueryStringLimits.builder().policy(QueryStringLimits.Policy.UNCHANGED).maxPairs(3)
+                .build();
+        RequestQueryStringHelper qsr = new RequestQueryStringHelper(
+                new QueryStringHelper(null, PercentCodec.of(), QueryStringStatistics.create(), limits), queryString,
+                "/hotels");
+
+        assertThat(qsr.replaceFirst("page", "2")).isEqualTo(queryString);
+        assertThat(qsr.on().incrementPage().build()).isEqualTo(queryString);
+        assertThat(qsr.applyPlan("remove page")).isEqualTo(queryString);
+        assertThat(qsr.pagination(0, 2).getNext().getQueryString()).isEqualTo(queryString);
+        assertThat(qsr.fieldSorterAsc().apply("name")).isEqualTo(queryString);
+        assertThat(qsr.isFieldSorted("name")).isFalse();
+    }
+
+    @Test
+    public void qsr_RendersFromCurrentRequest() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new QueryStringDialect());
+
+        String template = "[[${#qsr.url(#qsr.incrementPage())}]]|[[${#qsr.getCurrentSortDirectionAsc('name')}]]|" +
+                "[[${#qs.incrementPage(#qsr.queryString)}]]";
+        WebContext context = new WebContext(request("city=new%20york&sort=name,desc&page=2", "/hotels"),
+                proxy(HttpServletResponse.class), proxy(ServletContext.class));
+
+        assertThat(engine.process(template, context))
+                .isEqualTo("/hotels?city=new%20york&amp;sort=name,desc&amp;page=3|desc|city=new%20york&amp;sort=name,desc&amp;page=3");
+    }
+
+    @Test
+    public void qsr_NonWebRender_BehavesAsEmptyQueryString() {
+        TemplateEngine engine = new TemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        engine.addDialect(new QueryStringDialect());
+
+        assertThat(engine.process("[[${#qsr.setPageNumber('4')}]]", new Context())).isEqualTo("page=4");
+    }
+
+    static HttpServletRequest request(String queryString, String requestURI) {
+        return (HttpServletRequest) Proxy.newProxyInstance(QueryStringExpressionFactoryTest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getQueryString":
+                            return queryString;
+                        case "getRequestURI":
+                            return requestURI;
+                        case "getAttributeNames":
+                        case "getParameterNames":
+                            return Collections.emptyEnumeration();
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type) {
+        return (T) Proxy.newProxyInstance(QueryStringExpressionFactoryTest.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.mjstewart.querystring.dialect;
+
+import org.junit.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.WebContext;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletResponse;
+
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.proxy;
+import static com.github.mjstewart.querystring.dialect.QueryStringExpressionFactoryTest.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SortHeaderAttributeProcessorTest {
+
+    private final TemplateEngine engine = AttributeProcessorTest.engine();
+
+    @Test
+    public void sortedColumns() {
+        String template = "<tr>" +
+                "<th qs:sort-field=\"name\">Name</th>" +
+                "<th class=\"wide\" qs:sort-field=\"stars\" qs:sort-default=\"desc\">Stars</th>" +
+                "<th qs:sort-field=\"city\">City</th>" +
+                "</tr>";
+        WebContext context = new WebContext(request("sort=name,desc&sort=stars,asc", "/hotels"),
+                proxy(HttpServletResponse.class), proxy(ServletContext.class));
+
+        assertThat(engine.process(template, context)).isEqualTo("<tr>" +
+                "<th class=\"sorted descending\" aria-sort=\"descending\"><a href=\"/hotels?sort=name,asc\">Name</a></th>" +
+                "<th class=\"wide sorted ascending\" aria-sort=\"ascending\"><a href=\"/hotels?sort=stars,desc\">Stars</a></th>" +
+                "<th aria-sort=\"none\"><a href=\"/hotels?sort=city,asc\">City</a></th>" +
+                "</tr>");
+    }
+
+    @Test
+    public void anchor_CustomClasses() {
+        String template = "<a qs:sort-field=\"${field}\" qs:sort-asc-class=\"up\" qs:sort-desc-class=\"down\">Name</a>";
+        Context context = new Context();
+        context.setVariable("field", "name");
+
+        assertThat(engine.process(template, context))
+                .isEqualTo("<a aria-sort=\"none\" href=\"?sort=name,asc\">Name</a>");
+    }
+
+    @Test
+    public void standalone_NoLink() {
+        assertThat(engine.process("<th qs:sort-field=\"name\"/>", new Context()))
+                .isEqualTo("<th aria-sort=\"none\"/>");
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.mjstewart.querystring.expression;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * Fails when the bytes allocated per call of an operation exceed its budget.
+ *
+ * <p>Strings take twice the memory without compact strings, so budgets are kept per string layout in
+ * {@code allocation-budgets-compact.properties} and {@code allocation-budgets-utf16.properties}. See
+ * {@link AllocationMeasurement} for how allocation is measured and how to print the current measurements.</p>
+ */
+public class AllocationBudgetTest {
+
+    private static AllocationMeasurement measurement;
+
+    private static Properties budgets;
+
+    private final Map<String, Supplier<Object>> operations = AllocationMeasurement.operations(new QueryStringHelper());
+
+    @BeforeClass
+    public static void setup() throws IOException {
+        measurement = AllocationMeasurement.create();
+        assumeNotNull(measurement);
+
+        budgets = new Properties();
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream(AllocationMeasurement.budgetsResource())) {
+            budgets.load(in);
+        }
+    }
+
+    @Test
+    public void everyOperationHasABudget() {
+        assertThat(budgets.stringPropertyNames()).containsExactlyInAnyOrderElementsOf(operations.keySet());
+    }
+
+    @Test
+    public void allocationWithinBudget() {
+        List<String> exceeded = new ArrayList<>();
+        for (Map.Entry<String, Supplier<Object>> operation : operations.entrySet()) {
+            long bytes = measurement.bytesPerCall(operation.getValue());
+            long budget = Long.parseLong(budgets.getProperty(operation.getKey(), "0"));
+            if (bytes > budget) {
+                exceeded.add(operation.getKey() + " allocated " + bytes + " bytes per call, budget " + budget);
+            }
+        }
+        assertThat(exceeded).isEmpty();
+    }
+}
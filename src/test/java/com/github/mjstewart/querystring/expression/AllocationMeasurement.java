@@ -0,0 +1,157 @@
+package com.github.mjstewart.querystring.expression;
+
+import com.github.mjstewart.querystring.util.QueryParamCodec;
+import com.github.mjstewart.querystring.util.QueryString;
+import com.github.mjstewart.querystring.util.SortDirection;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bytes allocated per call of each operation checked by {@code AllocationBudgetTest}.
+ *
+ * <p>Each operation is warmed up so the JIT has compiled it before allocation is read from
+ * {@code com.sun.management.ThreadMXBean}. The lowest of several rounds is used, keeping the odd allocation by the
+ * JVM itself out of the result.</p>
+ *
+ * <p>Running {@link #main(String[])} prints every measurement in the format of the budgets file for the current
+ * string layout, use it when budgets need updating after an intentional change.</p>
+ * <blockquote>
+ * <pre>
+ *     mvn test -Pallocation-report -DskipTests
+ *     mvn test -Pallocation-report -DskipTests -Dallocation.jvmArgs=-XX:-CompactStrings
+ * </pre>
+ * </blockquote>
+ */
+final class AllocationMeasurement {
+
+    private static final String QUERY =
+            "city=dallas&region=north&amenity=pool&amenity=wifi&page=3&size=20&sort=name,asc&sort=stars,desc"
+                    + "&q=hotel%20deals";
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int CALLS = 2_000;
+    private static final int ROUNDS = 5;
+
+    // Prevents the JIT from eliminating the measured call.
+    private static volatile Object sink;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private AllocationMeasurement(com.sun.management.ThreadMXBean threadBean) {
+        this.threadBean = threadBean;
+    }
+
+    /**
+     * @return A measurement, otherwise {@code null} if this JVM cannot report the bytes allocated by a thread.
+     */
+    static AllocationMeasurement create() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        return new AllocationMeasurement(threadBean);
+    }
+
+    /**
+     * Strings are stored as a byte per character when compact strings are enabled, which is the default since
+     * Java 9, otherwise as two. The option does not exist on Java 8 where strings are always two bytes per character.
+     *
+     * @return {@code true} if this JVM stores Latin-1 strings as a byte per character.
+     */
+    static boolean compactStrings() {
+        HotSpotDiagnosticMXBean bean = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        if (bean == null) {
+            return false;
+        }
+        try {
+            return Boolean.parseBoolean(bean.getVMOption("CompactStrings").getValue());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The classpath resource holding the budgets for the current string layout.
+     */
+    static String budgetsResource() {
+        return compactStrings() ? "/allocation-budgets-compact.properties" : "/allocation-budgets-utf16.properties";
+    }
+
+    static Map<String, Supplier<Object>> operations(QueryStringHelper helper) {
+        QueryParamCodec codec = QueryStringHelper.defaultCodec();
+        QueryString parsed = QueryString.of(QUERY, codec);
+        List<String> removeKeys = Arrays.asList("region", "amenity");
+        List<List<String>> addPairs = Arrays.asList(Arrays.asList("amenity", "gym"), Arrays.asList("size", "50"));
+        List<String> sortFields = Arrays.asList("name", "stars,desc", "price");
+
+        Map<String, Supplier<Object>> operations = new LinkedHashMap<>();
+        operations.put("createState", () -> QueryString.of(QUERY, codec));
+        operations.put("reconstructQueryString", parsed::reconstructQueryString);
+        operations.put("getFirstValue", () -> helper.getFirstValue(QUERY, "city"));
+        operations.put("getAllValues", () -> helper.getAllValues(QUERY, "sort"));
+        operations.put("replaceFirst", () -> helper.replaceFirst(QUERY, "city", "houston"));
+        operations.put("removeFirst", () -> helper.removeFirst(QUERY, "sort"));
+        operations.put("removeAll", () -> helper.removeAll(QUERY, removeKeys));
+        operations.put("removeKeyMatchingValue", () -> helper.removeKeyMatchingValue(QUERY, "amenity", "pool"));
+        operations.put("add", () -> helper.add(QUERY, "amenity", "gym"));
+        operations.put("addAll", () -> helper.addAll(QUERY, addPairs));
+        operations.put("incrementPage", () -> helper.incrementPage(QUERY));
+        operations.put("setPageNumber", () -> helper.setPageNumber(QUERY, "9"));
+        operations.put("pagination", () -> helper.pagination(QUERY, 3, 50, 10));
+        operations.put("isFieldSorted", () -> helper.isFieldSorted(QUERY, "stars"));
+        operations.put("getCurrentSortDirectionAsc", () -> helper.getCurrentSortDirectionAsc(QUERY, "name"));
+        operations.put("toggleSortDefaultAsc", () -> helper.toggleSortDefaultAsc(QUERY, "name"));
+        operations.put("fieldSorterAsc", () -> helper.fieldSorterAsc(QUERY).apply("name"));
+        operations.put("valueWhenMatchesSortAsc",
+                () -> helper.valueWhenMatchesSortAsc(QUERY, "", "match", "other").apply("name"));
+        operations.put("sortHeaders", () -> helper.sortHeaders(QUERY, sortFields));
+        operations.put("sortHeader", () -> helper.sortHeader(QUERY, "name", SortDirection.ASC, null, null, null));
+        operations.put("createNewSort", () -> helper.createNewSort(QUERY, Collections.singletonList("price,asc")));
+        return operations;
+    }
+
+    /**
+     * @return The lowest average number of bytes allocated by a single call across the rounds.
+     */
+    long bytesPerCall(Supplier<Object> operation) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink = operation.get();
+        }
+        long threadId = Thread.currentThread().getId();
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < CALLS; i++) {
+                sink = operation.get();
+            }
+            long after = threadBean.getThreadAllocatedBytes(threadId);
+            lowest = Math.min(lowest, (after - before) / CALLS);
+        }
+        return lowest;
+    }
+
+    public static void main(String[] args) {
+        AllocationMeasurement measurement = create();
+        if (measurement == null) {
+            System.err.println("This JVM cannot report the bytes allocated by a thread");
+            System.exit(1);
+        }
+        System.out.println("# Measured for " + budgetsResource().substring(1) + " on " +
+                System.getProperty("java.vm.name") + " " + System.getProperty("java.version"));
+        for (Map.Entry<String, Supplier<Object>> operation : operations(new QueryStringHelper()).entrySet()) {
+            System.out.println(operation.getKey() + "=" + measurement.bytesPerCall(operation.getValue()));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.mjstewart.querystring.expression;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BuilderTest {
+
+    private static final String QUERY = "city=dallas&sort=country,desc&page=3&region=north&sort=city&region=upper&region=border";
+
+    @Test
+    public void build_NoOperations_SameAsOriginal() {
+        QueryStringHelper helper = new QueryStringHelper();
+        assertThat(helper.on(QUERY).build()).isEqualTo(QUERY);
+        assertThat(helper.on(null).build()).isEmpty();
+    }
+
+    @Test
+    public void build_ChainedOperations() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String result = helper.on(QUERY)
+                .removeAll(Collections.singletonList("region"))
+                .resetPageNumber()
+                .createNewSort(Collections.singletonList("city,asc"))
+                .build();
+
+        assertThat(result).isEqualTo("city=dallas&page=0&sort=city,asc");
+    }
+
+    /**
+     * Chaining the builder must give the same result as passing the result of each helper method into the next.
+     */
+    @Test
+    public void build_SameAsSequentialHelperCalls() {
+        QueryStringHelper helper = new QueryStringHelper();
+
+        String expected = helper.removeFirst(QUERY, "region");
+        expected = helper.replaceFirst(expected, "region", "south east");
+        expected = helper.incrementPage(expected);
+        expected = helper.add(expected, "locale", "AU");
+        expected = helper.toggleSortDefaultAsc(expected, "city");
+        expected = helper.removeNth(expected, "sort", 0);
+
+        String result = helper.on(QUERY)
+                .removeFirst("region")
+                .replaceFirst("region", "south east")
+                .incrementPage()
+                .add("locale", "AU")
+                .toggleSortDefaultAsc("city")
+                .removeNth("sort", 0)
+                .build();
+
+        assertThat(result).isEqualTo(expected);
+    }
+
+    /**
+     * Removed pairs no longer count towards relative indexes of later operations.
+     */
+    @Test
+    public void build_RemovalsShiftRelativeIndexes() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String result = helper.on(QUERY)
+                .removeFirst("region")
+                .removeFirst("region")
+                .build();
+
+        assertThat(result).isEqualTo("city=dallas&sort=country,desc&page=3&sort=city&region=border");
+    }
+
+    @Test
+    public void build_RemovedValueCanBeAddedAgain() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String result = helper.on("a=1&b=2")
+                .removeFirst("a")
+                .add("a", "1")
+                .build();
+
+        assertThat(result).isEqualTo("b=2&a=1");
+    }
+
+    /**
+     * Duplicate checks when adding must see the values left behind by earlier replacements and additions.
+     */
+    @Test
+    public void build_AddAfterReplace_RejectsOnlyCurrentDuplicates() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String result = helper.on("a=1")
+                .add("a", "2")
+                .replaceFirst("a", "3")
+                .add("a", "1")
+                .add("a", "2")
+                .add("a", "3")
+                .adjustFirstNumericValueBy("a", 1)
+                .add("a", "3")
+                .build();
+
+        assertThat(result).isEqualTo("a=4&a=2&a=1&a=3");
+    }
+
+    @Test
+    public void build_SortField() {
+        QueryStringHelper helper = new QueryStringHelper();
+
+        assertThat(helper.on(QUERY).sortFieldAsc("city").build())
+                .isEqualTo(helper.fieldSorterAsc(QUERY).apply("city"));
+        assertThat(helper.on(QUERY).sortFieldDesc("stars").build())
+                .isEqualTo(helper.fieldSorterDesc(QUERY).apply("stars"));
+    }
+
+    @Test
+    public void build_RemoveManyNthForManyKeys() {
+        QueryStringHelper helper = new QueryStringHelper();
+        Map<String, List<Integer>> removeInstructions = new HashMap<>();
+        removeInstructions.put("sort", Collections.singletonList(0));
+        removeInstructions.put("region", Arrays.asList(1, 2));
+
+        String result = helper.on(QUERY).removeManyNth(removeInstructions).build();
+
+        assertThat(result).isEqualTo("city=dallas&page=3&region=north&sort=city");
+    }
+}
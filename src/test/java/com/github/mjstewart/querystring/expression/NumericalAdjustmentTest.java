@@ -299,4 +299,29 @@ public class NumericalAdjustmentTest {
         String result = helper.adjustFirstNumericValueBy(query, "key8", 3);
         assertThat(result).isEqualTo(query);
     }
+
+    /**
+     * Adjusting a value at the int bounds saturates rather than overflowing.
+     */
+    @Test
+    public void adjustFirstNumericValueBy_SaturatesAtIntBounds() {
+        QueryStringHelper helper = new QueryStringHelper();
+
+        assertThat(helper.adjustFirstNumericValueBy("a=2147483647", "a", 1)).isEqualTo("a=2147483647");
+        assertThat(helper.adjustFirstNumericValueBy("a=-2147483648", "a", -1)).isEqualTo("a=-2147483648");
+        assertThat(helper.adjustFirstNumericValueBy("a=2147483640", "a", Integer.MAX_VALUE)).isEqualTo("a=2147483647");
+    }
+
+    /**
+     * Values outside the int range are not numeric, the same as {@code Integer.parseInt}.
+     */
+    @Test
+    public void adjustFirstNumericValueBy_OutsideIntRange_HasNoEffect() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String query = "a=2147483648&b=1'--&c=%2B5";
+
+        assertThat(helper.adjustFirstNumericValueBy(query, "a", 1)).isEqualTo(query);
+        assertThat(helper.adjustFirstNumericValueBy(query, "b", 1)).isEqualTo(query);
+        assertThat(helper.adjustFirstNumericValueBy(query, "c", 1)).isEqualTo("a=2147483648&b=1'--&c=6");
+    }
 }
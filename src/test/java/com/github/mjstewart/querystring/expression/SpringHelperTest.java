@@ -1,10 +1,16 @@
 package com.github.mjstewart.querystring.expression;
 
+import com.github.mjstewart.querystring.util.Pagination;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import com.github.mjstewart.querystring.util.SortDirection;
+import com.github.mjstewart.querystring.util.SortHeader;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -1830,4 +1836,129 @@ public class SpringHelperTest {
         String result = helper.getCurrentSortDirectionDesc(query, "address.city.postcode");
         assertThat(result).isEqualTo("asc");
     }
+
+    @Test
+    public void incrementPage_MaxIntPage_DoesNotOverflow() {
+        QueryStringHelper helper = new QueryStringHelper();
+        assertThat(helper.incrementPage("page=2147483647")).isEqualTo("page=2147483647");
+    }
+
+    @Test
+    public void sortHeaders_SameAsPerColumnHelpers() {
+        List<String> fields = Arrays.asList("name", "stars,desc", "city", "country,asc", "rating,desc");
+        String[] queries = {
+                null, "", "city=melbourne", "city=melbourne&sort=name,desc&page=2",
+                "sort=stars&sort=name,asc&sort=city,desc", "sort=rating,desc&sort=country,desc&sort=stars,asc",
+                "sort=name,desc,extra&sort=&sort=city,sideways"
+        };
+        QueryStringHelper[] helpers = {
+                new QueryStringHelper(), new QueryStringHelper(QueryStringCache.lru(10))
+        };
+
+        for (QueryStringHelper helper : helpers) {
+            for (String query : queries) {
+                Map<String, SortHeader> headers = helper.sortHeaders(query, fields, "missing", "match", "nonmatch");
+                assertThat(headers.keySet()).containsExactly("name", "stars", "city", "country", "rating");
+
+                for (SortHeader header : headers.values()) {
+                    String field = header.getField();
+                    boolean asc = header.getDefaultDirection() == SortDirection.ASC;
+                    String expectQuery = (asc ? helper.fieldSorterAsc(query) : helper.fieldSorterDesc(query)).apply(field);
+                    String expectDirection = asc ? helper.getCurrentSortDirectionAsc(query, field) :
+                            helper.getCurrentSortDirectionDesc(query, field);
+                    String expectValue = (asc ? helper.valueWhenMatchesSortAsc(query, "missing", "match", "nonmatch") :
+                            helper.valueWhenMatchesSortDesc(query, "missing", "match", "nonmatch")).apply(field);
+
+                    assertThat(header.getQueryString()).as("%s %s", query, field).isEqualTo(expectQuery);
+                    assertThat(header.getCurrentDirection()).as("%s %s", query, field).isEqualTo(expectDirection);
+                    assertThat(header.getValue()).as("%s %s", query, field).isEqualTo(expectValue);
+                    assertThat(header.isSorted()).isEqualTo(expectDirection != null);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void sortHeaders_DefaultDirections() {
+        QueryStringHelper helper = new QueryStringHelper();
+        Map<String, SortHeader> headers = helper.sortHeaders("sort=name,desc", Arrays.asList("name", "stars,desc"));
+
+        assertThat(headers.get("name").getDefaultDirection()).isEqualTo(SortDirection.ASC);
+        assertThat(headers.get("name").getQueryString()).isEqualTo("sort=name,asc");
+        assertThat(headers.get("name").getCurrentDirection()).isEqualTo("desc");
+        assertThat(headers.get("name").getValue()).isNull();
+
+        assertThat(headers.get("stars").getDefaultDirection()).isEqualTo(SortDirection.DESC);
+        assertThat(headers.get("stars").getQueryString()).isEqualTo("sort=stars,desc");
+        assertThat(headers.get("stars").isSorted()).isFalse();
+    }
+
+    @Test
+    public void sortHeaders_NoFields_IsEmpty() {
+        QueryStringHelper helper = new QueryStringHelper();
+        assertThat(helper.sortHeaders("sort=name", null)).isEmpty();
+        assertThat(helper.sortHeaders("sort=name", Collections.emptyList())).isEmpty();
+    }
+
+    @Test
+    public void pagination_SameAsSetPageNumber() {
+        String[] queries = {null, "", "city=dallas", "city=new%20york&page=4&sort=name,desc", "page=2&page=9"};
+        QueryStringHelper[] helpers = {new QueryStringHelper(), new QueryStringHelper(QueryStringCache.lru(10))};
+
+        for (QueryStringHelper helper : helpers) {
+            for (String query : queries) {
+                Pagination pagination = helper.pagination(query, 4, 20, 5);
+                List<Pagination.PageLink> links = new ArrayList<>(pagination.getPages());
+                links.add(pagination.getFirst());
+                links.add(pagination.getPrevious());
+                links.add(pagination.getNext());
+                links.add(pagination.getLast());
+                for (Pagination.PageLink link : links) {
+                    assertThat(link.getQueryString()).as("%s %s", query, link.getPage())
+                            .isEqualTo(helper.setPageNumber(query, String.valueOf(link.getPage())));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void pagination_Window() {
+        QueryStringHelper helper = new QueryStringHelper();
+        Pagination pagination = helper.pagination("page=4", 4, 20, 5);
+        assertThat(pagination.getPages()).extracting(Pagination.PageLink::getPage).containsExactly(2, 3, 4, 5, 6);
+        assertThat(pagination.getPages()).filteredOn(Pagination.PageLink::isCurrent)
+                .extracting(Pagination.PageLink::getLabel).containsExactly(5);
+        assertThat(pagination.getFirst().getQueryString()).isEqualTo("page=0");
+        assertThat(pagination.getPrevious().getQueryString()).isEqualTo("page=3");
+        assertThat(pagination.getNext().getQueryString()).isEqualTo("page=5");
+        assertThat(pagination.getLast().getQueryString()).isEqualTo("page=19");
+
+        // The window is shifted back within the available pages at either end.
+        assertThat(helper.pagination(null, 0, 20, 5).getPages())
+                .extracting(Pagination.PageLink::getPage).containsExactly(0, 1, 2, 3, 4);
+        assertThat(helper.pagination(null, 19, 20, 5).getPages())
+                .extracting(Pagination.PageLink::getPage).containsExactly(15, 16, 17, 18, 19);
+        assertThat(helper.pagination(null, 1, 3, 5).getPages())
+                .extracting(Pagination.PageLink::getPage).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void pagination_Bounds() {
+        QueryStringHelper helper = new QueryStringHelper();
+
+        Pagination first = helper.pagination("page=0", 0, 3);
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(first.getNext().getPage()).isEqualTo(1);
+        assertThat(first.getPages()).hasSize(3);
+
+        Pagination last = helper.pagination("page=2", 7, 3);
+        assertThat(last.getCurrentPage()).isEqualTo(2);
+        assertThat(last.hasNext()).isFalse();
+
+        Pagination empty = helper.pagination(null, 0, 0);
+        assertThat(empty.getLastPage()).isEqualTo(0);
+        assertThat(empty.getPages()).extracting(Pagination.PageLink::getQueryString).containsExactly("page=0");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> helper.pagination(null, 0, 10, 0));
+    }
 }
@@ -0,0 +1,215 @@
+package com.github.mjstewart.querystring.metrics;
+
+import com.github.mjstewart.querystring.dialect.QueryStringDialect;
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.util.MemoizingCodec;
+import com.github.mjstewart.querystring.util.PercentCodec;
+import com.github.mjstewart.querystring.util.QueryStringCache;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class QueryStringStatisticsTest {
+
+    @Test
+    public void construction_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new QueryStringHelper(null, PercentCodec.of(), null));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringStatistics.builder()
+                .slowOperationThreshold(-1, TimeUnit.MILLISECONDS));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringStatistics.builder().objectName("invalid"));
+    }
+
+    @Test
+    public void helper_RecordsOperationsAndParses() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        QueryStringHelper helper = new QueryStringHelper(null, PercentCodec.of(), statistics);
+
+        assertThat(helper.replaceFirst("page=1&size=10", "page", "2")).isEqualTo("page=2&size=10");
+        helper.replaceFirst("page=1", "page", "2");
+        helper.getFirstValue("a=1&b=2&c=3", "b");
+
+        assertThat(statistics.getOperationCount()).isEqualTo(3);
+        assertThat(statistics.getOperationCounts()).containsEntry("replaceFirst", 2L).containsEntry("getFirstValue", 1L);
+        assertThat(statistics.getHistogram("replaceFirst").getTotalInputLength()).isEqualTo(20);
+        assertThat(statistics.getParseCount()).isEqualTo(3);
+        assertThat(statistics.getParsedPairCount()).isEqualTo(6);
+        assertThat(statistics.getParsedInputLength()).isEqualTo(31);
+    }
+
+    @Test
+    public void helper_DelegatingMethodsAreRecordedOnce() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        QueryStringHelper helper = new QueryStringHelper(null, PercentCodec.of(), statistics);
+
+        helper.getPageNumber("page=1");
+        helper.incrementPage("page=1");
+        helper.pagination("page=1", 1, 5);
+        helper.sortHeaders("sort=name", Collections.singletonList("name"));
+        helper.fieldSorterAsc("sort=name").apply("name");
+
+        assertThat(statistics.getOperationCounts()).containsOnlyKeys("getPageNumber", "incrementPage", "pagination",
+                "sortHeaders", "fieldSorterAsc");
+        assertThat(statistics.getOperationCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void cacheAndCodec_RecordHitsAndMisses() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        QueryStringCache cache = QueryStringCache.of(10, QueryStringCache.EvictionPolicy.LRU, statistics);
+        MemoizingCodec codec = MemoizingCodec.of(PercentCodec.of(), MemoizingCodec.DEFAULT_TABLE_SIZE,
+                MemoizingCodec.DEFAULT_MAX_VALUE_LENGTH, statistics);
+        QueryStringHelper helper = new QueryStringHelper(cache, codec, statistics);
+
+        helper.add("a=1", "b", "2");
+        helper.add("a=1", "b", "2");
+
+        assertThat(statistics.getCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getParseCount()).isEqualTo(1);
+        assertThat(statistics.getEscapeTableHitCount()).isEqualTo(codec.getHitCount());
+        assertThat(statistics.getEscapeTableMissCount()).isEqualTo(codec.getMissCount());
+        assertThat(statistics.getEscapeTableHitCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void noop_IsDisabled() {
+        assertThat(QueryStringMetrics.NOOP.isEnabled()).isFalse();
+        assertThat(QueryStringStatistics.create().isEnabled()).isTrue();
+    }
+
+    @Test
+    public void slowOperations_AreCounted() {
+        QueryStringStatistics statistics = QueryStringStatistics.builder()
+                .slowOperationThreshold(1, TimeUnit.MILLISECONDS)
+                .build();
+
+        statistics.operation("add", TimeUnit.MICROSECONDS.toNanos(999), 10);
+        statistics.operation("add", TimeUnit.MILLISECONDS.toNanos(1), 10);
+        statistics.operation("add", TimeUnit.MILLISECONDS.toNanos(20), 10);
+
+        assertThat(statistics.getSlowOperationThresholdMillis()).isEqualTo(1);
+        assertThat(statistics.getSlowOperationCount()).isEqualTo(2);
+        assertThat(statistics.getOperationCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void slowOperations_LoggedOncePerInterval() {
+        QueryStringStatistics statistics = QueryStringStatistics.builder()
+                .slowOperationThreshold(1, TimeUnit.MILLISECONDS)
+                .slowOperationLogInterval(1, TimeUnit.SECONDS)
+                .build();
+        QueryStringStatistics.SlowLog slowLog = statistics.slowLogOf("add");
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        assertThat(slowLog.tryLog(0, second)).isEqualTo(0);
+        assertThat(slowLog.tryLog(1, second)).isEqualTo(-1);
+        assertThat(slowLog.tryLog(second - 1, second)).isEqualTo(-1);
+        assertThat(slowLog.tryLog(second, second)).isEqualTo(2);
+        assertThat(slowLog.tryLog(second + 1, second)).isEqualTo(-1);
+        assertThat(statistics.slowLogOf("add")).isSameAs(slowLog);
+        assertThat(statistics.slowLogOf("remove")).isNotSameAs(slowLog);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringStatistics.builder()
+                .slowOperationLogInterval(-1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void histogram_Buckets() {
+        assertThat(LatencyHistogram.bucketOf(0)).isEqualTo(0);
+        assertThat(LatencyHistogram.bucketOf(999)).isEqualTo(0);
+        assertThat(LatencyHistogram.bucketOf(1000)).isEqualTo(1);
+        assertThat(LatencyHistogram.bucketOf(3000)).isEqualTo(2);
+        assertThat(LatencyHistogram.bucketOf(4000)).isEqualTo(3);
+        assertThat(LatencyHistogram.bucketOf(Long.MAX_VALUE)).isEqualTo(LatencyHistogram.BUCKET_COUNT - 1);
+        assertThat(LatencyHistogram.lowerBoundMicros(3)).isEqualTo(4);
+        assertThatIllegalArgumentException().isThrownBy(() -> LatencyHistogram.lowerBoundMicros(-1));
+    }
+
+    @Test
+    public void histogram_Percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getPercentileMicros(99)).isEqualTo(0);
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(500, 0);
+        }
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(100), 0);
+
+        assertThat(histogram.getCount()).isEqualTo(100);
+        assertThat(histogram.getPercentileMicros(50)).isEqualTo(1);
+        assertThat(histogram.getPercentileMicros(99)).isEqualTo(1);
+        assertThat(histogram.getPercentileMicros(100)).isEqualTo(128);
+        assertThat(histogram.getBucketCounts()[0]).isEqualTo(99);
+
+        histogram.reset();
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMeanMicros()).isEqualTo(0);
+    }
+
+    @Test
+    public void reset_ClearsCounts() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        statistics.operation("add", 1000, 5);
+        statistics.parsed(5, 1);
+        statistics.cacheHit();
+
+        statistics.reset();
+
+        assertThat(statistics.getOperationCount()).isEqualTo(0);
+        assertThat(statistics.getParseCount()).isEqualTo(0);
+        assertThat(statistics.getCacheHitCount()).isEqualTo(0);
+        assertThat(statistics.latencyHistogram("add")).containsOnly(0L);
+        assertThat(statistics.latencyHistogram("unknown")).isEmpty();
+    }
+
+    @Test
+    public void register_PublishesMBean() throws Exception {
+        String name = "com.github.mjstewart.querystring:type=QueryStringStatisticsTest";
+        QueryStringStatistics statistics = QueryStringStatistics.builder().objectName(name).build();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(name);
+
+        new QueryStringDialect(null, PercentCodec.of(), Collections.emptyMap(), statistics);
+        assertThat(server.isRegistered(objectName)).isFalse();
+
+        try {
+            assertThat(statistics.register()).isEqualTo(objectName);
+            statistics.operation("add", 1000, 5);
+            assertThat(server.getAttribute(objectName, "OperationCount")).isEqualTo(1L);
+
+            // Another registration under the same name fails and leaves the existing MBean in place.
+            QueryStringStatistics other = QueryStringStatistics.builder().objectName(name).build();
+            assertThatIllegalStateException().isThrownBy(other::register);
+            other.unregister();
+            assertThat(server.getAttribute(objectName, "OperationCount")).isEqualTo(1L);
+        } finally {
+            statistics.unregister();
+        }
+        assertThat(server.isRegistered(objectName)).isFalse();
+
+        // Registration is possible again once the previous MBean is removed, as on a redeploy.
+        QueryStringStatistics redeployed = QueryStringStatistics.builder().objectName(name).build();
+        redeployed.register();
+        redeployed.unregister();
+        assertThat(server.isRegistered(objectName)).isFalse();
+    }
+
+    @Test
+    public void dialect_WithoutObjectName_IsNotPublished() throws Exception {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        new QueryStringDialect(null, PercentCodec.of(), Collections.emptyMap(), statistics);
+
+        assertThat(statistics.getObjectName()).isNull();
+        assertThat(ManagementFactory.getPlatformMBeanServer()
+                .isRegistered(new ObjectName(QueryStringStatistics.DEFAULT_OBJECT_NAME))).isFalse();
+        assertThatIllegalStateException().isThrownBy(statistics::register);
+    }
+}
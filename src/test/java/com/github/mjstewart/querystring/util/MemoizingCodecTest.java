@@ -0,0 +1,79 @@
+package com.github.mjstewart.querystring.util;
+
+import org.junit.Test;
+import org.thymeleaf.expression.Uris;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class MemoizingCodecTest {
+
+    private final QueryParamCodec uris = new UrisCodec(new Uris());
+
+    @Test
+    public void construction_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> MemoizingCodec.of(null));
+        assertThatIllegalArgumentException().isThrownBy(() -> MemoizingCodec.of(uris, 0, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> MemoizingCodec.of(uris, 10, 0));
+    }
+
+    @Test
+    public void tableSize_RoundedUpToPowerOf2() {
+        assertThat(MemoizingCodec.of(uris, 100, 10).getTableSize()).isEqualTo(128);
+        assertThat(MemoizingCodec.of(uris, 64, 10).getTableSize()).isEqualTo(64);
+    }
+
+    @Test
+    public void escapeQueryParam_RepeatedValues_AreHits() {
+        MemoizingCodec codec = MemoizingCodec.of(uris);
+
+        assertThat(codec.escapeQueryParam("new york")).isEqualTo("new%20york");
+        assertThat(codec.escapeQueryParam("new york")).isEqualTo("new%20york");
+        assertThat(codec.escapeQueryParam("sort")).isEqualTo("sort");
+
+        assertThat(codec.getHitCount()).isEqualTo(1);
+        assertThat(codec.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void escapeQueryParam_NothingToEscape_ReturnsSameInstance() {
+        MemoizingCodec codec = MemoizingCodec.of(uris);
+        String value = new String("name,asc");
+
+        assertThat(codec.escapeQueryParam(value)).isSameAs(value);
+        assertThat(codec.escapeQueryParam(new String("name,asc"))).isSameAs(value);
+    }
+
+    @Test
+    public void escapeQueryParam_LongValues_BypassTable() {
+        MemoizingCodec codec = MemoizingCodec.of(uris, 16, 5);
+        StringBuilder builder = new StringBuilder();
+
+        assertThat(codec.escapeQueryParam("a long value")).isEqualTo("a%20long%20value");
+        codec.escapeQueryParam("another long value", builder);
+
+        assertThat(builder.toString()).isEqualTo("another%20long%20value");
+        assertThat(codec.getBypassCount()).isEqualTo(2);
+        assertThat(codec.getHitCount() + codec.getMissCount()).isEqualTo(0);
+    }
+
+    /**
+     * Colliding values replace each other, so a small table must still always return the correct escaped value.
+     */
+    @Test
+    public void escapeQueryParam_SmallTable_AlwaysMatchesDelegate() {
+        MemoizingCodec codec = MemoizingCodec.of(uris, 1, 32);
+
+        for (int i = 0; i < 3; i++) {
+            for (String value : new String[]{"a b", "c&d", "page", "e=f"}) {
+                assertThat(codec.escapeQueryParam(value)).isEqualTo(uris.escapeQueryParam(value));
+            }
+        }
+    }
+
+    @Test
+    public void unescapeQueryParam_Delegates() {
+        MemoizingCodec codec = MemoizingCodec.of(uris);
+        assertThat(codec.unescapeQueryParam("a%20b")).isEqualTo("a b");
+    }
+}
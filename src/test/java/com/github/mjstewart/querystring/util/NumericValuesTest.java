@@ -0,0 +1,55 @@
+package com.github.mjstewart.querystring.util;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class NumericValuesTest {
+
+    @Test
+    public void parseLong_SameAsLongParseLong() {
+        String[] values = {"0", "-0", "+7", "-15", "007", "9223372036854775807", "-9223372036854775808"};
+        for (String value : values) {
+            assertThat(NumericValues.isLong(value)).as(value).isTrue();
+            assertThat(NumericValues.parseLong(value, -1)).as(value).isEqualTo(Long.parseLong(value));
+        }
+    }
+
+    @Test
+    public void parseLong_Invalid_ReturnsDefault() {
+        String[] values = {null, "", "-", "+", "abc", "1'--", "1.5", " 1", "1 ", "--1", "0x10",
+                "9223372036854775808", "-9223372036854775809", "99999999999999999999"};
+        for (String value : values) {
+            assertThat(NumericValues.isLong(value)).as(value).isFalse();
+            assertThat(NumericValues.parseLong(value, 42)).as(value).isEqualTo(42);
+        }
+    }
+
+    @Test
+    public void saturatedAdd() {
+        assertThat(NumericValues.saturatedAdd(1, 2)).isEqualTo(3);
+        assertThat(NumericValues.saturatedAdd(Long.MAX_VALUE, 1)).isEqualTo(Long.MAX_VALUE);
+        assertThat(NumericValues.saturatedAdd(Long.MIN_VALUE, -1)).isEqualTo(Long.MIN_VALUE);
+        assertThat(NumericValues.saturatedAdd(Long.MAX_VALUE, Long.MIN_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    public void clamp() {
+        assertThat(NumericValues.clamp(5, 0, 10)).isEqualTo(5);
+        assertThat(NumericValues.clamp(-5, 0, 10)).isEqualTo(0);
+        assertThat(NumericValues.clamp(15, 0, 10)).isEqualTo(10);
+        assertThatIllegalArgumentException().isThrownBy(() -> NumericValues.clamp(1, 10, 0));
+    }
+
+    @Test
+    public void adjust() {
+        assertThat(NumericValues.adjust("3", 2, Long.MIN_VALUE, Long.MAX_VALUE, current -> true)).isEqualTo("5");
+        assertThat(NumericValues.adjust("3", -10, 0, 100, current -> true)).isEqualTo("0");
+        assertThat(NumericValues.adjust("9223372036854775807", 1, Long.MIN_VALUE, Long.MAX_VALUE, current -> true))
+                .isEqualTo("9223372036854775807");
+        assertThat(NumericValues.adjust("3", 1, 0, 100, current -> current > 5)).isNull();
+        assertThat(NumericValues.adjust("abc", 1, 0, 100, current -> true)).isNull();
+        assertThat(NumericValues.adjust("99999999999999999999", 1, 0, 100, current -> true)).isNull();
+    }
+}
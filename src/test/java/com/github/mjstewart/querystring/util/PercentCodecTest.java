@@ -0,0 +1,159 @@
+package com.github.mjstewart.querystring.util;
+
+import org.junit.Test;
+import org.thymeleaf.expression.Uris;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Differential tests asserting {@code PercentCodec} gives identical output to thymeleaf {@code Uris}.
+ */
+public class PercentCodecTest {
+
+    private static final String ALPHABET = "aZ09-._~!$'()*,;:@/?&=+# %[]{}|\\^`\"<>\u0000\u007f";
+
+    private final Uris uris = new Uris();
+    private final PercentCodec codec = PercentCodec.of();
+
+    @Test
+    public void construction_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PercentCodec.of(null));
+    }
+
+    @Test
+    public void escapeQueryParam_NothingToEscape_ReturnsSameInstance() {
+        String value = "name,asc";
+        assertThat(codec.escapeQueryParam(value)).isSameAs(value);
+        assertThat(codec.escapeQueryParam("")).isEmpty();
+        assertThat(codec.escapeQueryParam(null)).isNull();
+    }
+
+    @Test
+    public void unescapeQueryParam_NothingToUnescape_ReturnsSameInstance() {
+        String value = "city=dallas&sort=name,asc";
+        assertThat(codec.unescapeQueryParam(value)).isSameAs(value);
+        assertThat(codec.unescapeQueryParam(null)).isNull();
+    }
+
+    @Test
+    public void escapeQueryParam_SameAsUris() {
+        String[] values = {
+                "a b", "x+y", "k&v=w", "[]", "#hash", "100%", "~!*'()/?:@$,;",
+                "\u00e9", "\u20ac", "\ud83d\ude00", "\ud83d", "x\ude00y", "\ud83d\ud83d\ude00", "\u0000\u007f\u0080\u07ff\u0800\uffff"
+        };
+        for (String value : values) {
+            assertEscapeSameAsUris(value);
+        }
+    }
+
+    @Test
+    public void escapeQueryParam_AppendsToBuilder() {
+        StringBuilder builder = new StringBuilder("q=");
+        codec.escapeQueryParam("new york", builder);
+        codec.escapeQueryParam("&plain", builder);
+        assertThat(builder.toString()).isEqualTo("q=new%20york%26plain");
+    }
+
+    @Test
+    public void unescapeQueryParam_SameAsUris() {
+        String[] values = {
+                "a+b", "a%20b", "%2B", "%26%3D", "%c3%a9", "%C3%A9", "%e2%82%ac", "%f0%9f%98%80",
+                // malformed input is handled by the fallback codec.
+                "%zz", "%g1", "%e9", "%c3", "%e2%82", "%ff%fe", "%ed%a0%80", "%c0%80", "%%41", "%c3%41", "%c3a9",
+                // Uris does not treat a + directly following an escaped byte as a space.
+                "%41+b", "%c3%a9+%41++"
+        };
+        for (String value : values) {
+            assertUnescapeSameAsUris(value);
+        }
+    }
+
+    @Test
+    public void unescapeQueryParam_Incomplete_ThrowsSameAsUris() {
+        for (String value : new String[]{"%", "%2", "a%2", "%41%"}) {
+            assertThatIllegalArgumentException().isThrownBy(() -> uris.unescapeQueryParam(value));
+            assertThatIllegalArgumentException().isThrownBy(() -> codec.unescapeQueryParam(value));
+        }
+    }
+
+    @Test
+    public void randomValues_SameAsUris() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String value = randomValue(random);
+            assertEscapeSameAsUris(value);
+            assertUnescapeSameAsUris(uris.escapeQueryParam(value));
+        }
+    }
+
+    @Test
+    public void randomEscapedValues_SameAsUris() {
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                switch (random.nextInt(4)) {
+                    case 0:
+                        builder.append('%').append(Integer.toHexString(0x100 | random.nextInt(256)).substring(1));
+                        break;
+                    case 1:
+                        builder.append('+');
+                        break;
+                    default:
+                        builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+                }
+            }
+            assertUnescapeOrThrowSameAsUris(builder.toString());
+        }
+    }
+
+    private String randomValue(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(10);
+        for (int i = 0; i < length; i++) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    builder.append((char) random.nextInt(0x800));
+                    break;
+                case 1:
+                    builder.append((char) random.nextInt(0x10000));
+                    break;
+                case 2:
+                    builder.appendCodePoint(0x10000 + random.nextInt(0x100000));
+                    break;
+                default:
+                    builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+        }
+        return builder.toString();
+    }
+
+    private void assertEscapeSameAsUris(String value) {
+        String expected = uris.escapeQueryParam(value);
+        assertThat(codec.escapeQueryParam(value)).as("escape %s", value).isEqualTo(expected);
+
+        StringBuilder builder = new StringBuilder();
+        codec.escapeQueryParam(value, builder);
+        assertThat(builder.toString()).as("escape into builder %s", value).isEqualTo(expected);
+    }
+
+    private void assertUnescapeSameAsUris(String value) {
+        assertThat(codec.unescapeQueryParam(value)).as("unescape %s", value).isEqualTo(uris.unescapeQueryParam(value));
+    }
+
+    private void assertUnescapeOrThrowSameAsUris(String value) {
+        String expected;
+        try {
+            expected = uris.unescapeQueryParam(value);
+        } catch (IllegalArgumentException e) {
+            assertThatIllegalArgumentException().as("unescape %s", value)
+                    .isThrownBy(() -> codec.unescapeQueryParam(value));
+            return;
+        }
+        assertThat(codec.unescapeQueryParam(value)).as("unescape %s", value).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,117 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import org.junit.Test;
+import org.thymeleaf.expression.Uris;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class QueryStringCacheTest {
+
+    private final Uris uris = new Uris();
+
+    @Test
+    public void construction_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringCache.lru(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringCache.of(10, null));
+    }
+
+    @Test
+    public void get_CountsHitsAndMisses() {
+        QueryStringCache cache = QueryStringCache.lru(100);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, QueryStringSnapshot> loader = query -> {
+            loads.incrementAndGet();
+            return QueryStringSnapshot.of(query, uris);
+        };
+
+        QueryStringSnapshot first = cache.get("a=1&b=2", loader);
+        QueryStringSnapshot second = cache.get("a=1&b=2", loader);
+        cache.get("a=1", loader);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_LRU_EvictsLeastRecentlyUsed() {
+        QueryStringCache cache = QueryStringCache.lru(1);
+        Function<String, QueryStringSnapshot> loader = query -> QueryStringSnapshot.of(query, uris);
+
+        cache.get("a=1", loader);
+        cache.get("b=2", loader);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+        cache.get("b=2", loader);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_NeverExceedsMaxSize() {
+        QueryStringCache cache = QueryStringCache.of(50, QueryStringCache.EvictionPolicy.FIFO);
+        Function<String, QueryStringSnapshot> loader = query -> QueryStringSnapshot.of(query, uris);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.get("page=" + i, loader);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(50);
+        assertThat(cache.getMissCount()).isEqualTo(1000);
+    }
+
+    @Test
+    public void snapshot_HasUnescapedPairs() {
+        QueryStringSnapshot snapshot = QueryStringSnapshot.of("city=new%20york&x=a=b&page=2", uris);
+
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getKey(0)).isEqualTo("city");
+        assertThat(snapshot.getValue(0)).isEqualTo("new york");
+        assertThat(snapshot.getKey(1)).isEqualTo("page");
+        assertThat(snapshot.getOriginalQueryString()).isEqualTo("city=new york&x=a=b&page=2");
+    }
+
+    @Test
+    public void snapshot_GetValues() {
+        QueryStringSnapshot snapshot = QueryStringSnapshot.of("sort=name&city=new%20york&sort=stars,desc", uris);
+
+        assertThat(snapshot.getFirstValue("city")).isEqualTo("new york");
+        assertThat(snapshot.getFirstValue("sort")).isEqualTo("name");
+        assertThat(snapshot.getFirstValue("page")).isNull();
+        assertThat(snapshot.getFirstValue(null)).isNull();
+        assertThat(snapshot.getAllValues("sort")).containsExactly("name", "stars,desc");
+        assertThat(snapshot.getAllValues("page")).isEmpty();
+        assertThat(snapshot.getAllValues(null)).isEmpty();
+    }
+
+    /**
+     * Operations modify a copy of the cached snapshot, so repeating them must always give the same result.
+     */
+    @Test
+    public void helper_CachedSnapshotIsNeverModified() {
+        String query = "sort=country,asc&sort=city,desc&location=AU&page=3&region=north%20east";
+        QueryStringCache cache = QueryStringCache.lru(10);
+        QueryStringHelper cached = new QueryStringHelper(cache);
+        QueryStringHelper uncached = new QueryStringHelper();
+
+        for (int i = 0; i < 2; i++) {
+            assertThat(cached.removeAll(query, Collections.singletonList("sort")))
+                    .isEqualTo(uncached.removeAll(query, Collections.singletonList("sort")));
+            assertThat(cached.replaceFirst(query, "region", "south"))
+                    .isEqualTo(uncached.replaceFirst(query, "region", "south"));
+            assertThat(cached.incrementPage(query)).isEqualTo(uncached.incrementPage(query));
+            assertThat(cached.addAll(query, Collections.singletonList(Arrays.asList("a", "b"))))
+                    .isEqualTo(uncached.addAll(query, Collections.singletonList(Arrays.asList("a", "b"))));
+            assertThat(cached.fieldSorterAsc(query).apply("city")).isEqualTo(uncached.fieldSorterAsc(query).apply("city"));
+        }
+        assertThat(cache.getHitCount()).isGreaterThan(0);
+    }
+}
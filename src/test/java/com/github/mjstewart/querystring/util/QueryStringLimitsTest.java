@@ -0,0 +1,157 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import com.github.mjstewart.querystring.metrics.QueryStringStatistics;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class QueryStringLimitsTest {
+
+    private static QueryStringLimits.Builder limits(QueryStringLimits.Policy policy) {
+        return QueryStringLimits.builder().policy(policy);
+    }
+
+    @Test
+    public void construction_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringLimits.builder().maxPairs(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringLimits.builder().maxKeyLength(-1));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringLimits.builder().maxValueLength(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringLimits.builder().maxLength(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringLimits.builder().policy(null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new QueryStringHelper(null, PercentCodec.of(),
+                QueryStringStatistics.create(), null));
+    }
+
+    @Test
+    public void limit_WithinLimits_SameInstance() {
+        QueryStringLimits limits = QueryStringLimits.builder().maxPairs(3).maxKeyLength(4).maxValueLength(4)
+                .maxLength(100).build();
+        String queryString = "page=1&size=10&sort=name";
+        assertThat(limits.limit(queryString)).isSameAs(queryString);
+        assertThat(limits.limit(null)).isNull();
+        assertThat(limits.limit("")).isEmpty();
+        assertThat(QueryStringLimits.UNLIMITED.limit(queryString)).isSameAs(queryString);
+    }
+
+    @Test
+    public void limit_MaxPairs() {
+        QueryStringLimits truncate = limits(QueryStringLimits.Policy.TRUNCATE).maxPairs(2).build();
+        QueryStringLimits ignore = limits(QueryStringLimits.Policy.IGNORE_EXCESS).maxPairs(2).build();
+
+        assertThat(truncate.limit("a=1&b=2&c=3&d=4")).isEqualTo("a=1&b=2");
+        assertThat(ignore.limit("a=1&b=2&c=3&d=4")).isEqualTo("a=1&b=2");
+        // Empty segments are not pairs.
+        assertThat(truncate.limit("a=1&&&b=2")).isEqualTo("a=1&&&b=2");
+        // Invalid segments still count.
+        assertThat(truncate.limit("a&b&c=3")).isEqualTo("a&b");
+    }
+
+    @Test
+    public void limit_MaxLength_DiscardsPairCrossingBoundary() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.TRUNCATE).maxLength(10).build();
+        assertThat(limits.limit("a=1&bb=22&ccc=333")).isEqualTo("a=1&bb=22");
+        assertThat(limits.limit("aaaaaaaaaaaa=1")).isEmpty();
+    }
+
+    @Test
+    public void limit_TruncatePolicy_ShortensKeysAndValues() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.TRUNCATE).maxKeyLength(3).maxValueLength(4).build();
+        assertThat(limits.limit("city=melbourne&page=1&q=abcdefgh")).isEqualTo("cit=melb&pag=1&q=abcd");
+        assertThat(limits.limit("a=1&q=abcdefgh&b=2")).isEqualTo("a=1&q=abcd&b=2");
+    }
+
+    @Test
+    public void limit_TruncatePolicy_NeverSplitsEscapes() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.TRUNCATE).maxValueLength(8).build();
+        // 'a b' where the cut would land inside %20.
+        assertThat(limits.limit("q=aaaaaaa%20b")).isEqualTo("q=aaaaaaa");
+        assertThat(limits.limit("q=aaaaaa%20b")).isEqualTo("q=aaaaaa");
+        // A snowman is %E2%98%83, the cut would land between its escaped bytes.
+        assertThat(limits.limit("q=a%E2%98%83b")).isEqualTo("q=a");
+        assertThat(limits.limit("q=%E2%98%83%E2%98%83")).isEqualTo("q=");
+
+        String limited = limits.limit("q=ab%E2%98%83%E2%98%83");
+        assertThat(QueryString.of(limited, PercentCodec.of()).getFirstValue("q")).isEqualTo("ab");
+    }
+
+    @Test
+    public void limit_IgnoreExcessPolicy_DiscardsOverLongPairs() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.IGNORE_EXCESS).maxKeyLength(4).maxValueLength(4)
+                .build();
+        assertThat(limits.limit("city=melbourne&page=1&country=AU&q=abc")).isEqualTo("page=1&q=abc");
+        assertThat(limits.limit("city=melbourne")).isEmpty();
+    }
+
+    @Test
+    public void limit_UnchangedPolicy_Null() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.UNCHANGED).maxPairs(2).maxValueLength(4).build();
+        assertThat(limits.limit("a=1&b=2")).isEqualTo("a=1&b=2");
+        assertThat(limits.limit("a=1&b=2&c=3")).isNull();
+        assertThat(limits.limit("a=12345")).isNull();
+    }
+
+    @Test
+    public void limit_ReportsEachExceededLimitOnce() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        QueryStringLimits limits = QueryStringLimits.builder().maxPairs(3).maxValueLength(2).build();
+
+        limits.limit("a=100&b=200&c=3&d=4", statistics);
+        limits.limit("a=1&b=2", statistics);
+
+        assertThat(statistics.getLimitExceededCount()).isEqualTo(2);
+        assertThat(statistics.getLimitExceededCounts())
+                .containsEntry(QueryStringLimits.MAX_PAIRS, 1L)
+                .containsEntry(QueryStringLimits.MAX_VALUE_LENGTH, 1L)
+                .doesNotContainKey(QueryStringLimits.MAX_KEY_LENGTH);
+    }
+
+    @Test
+    public void helper_LimitsEveryOperation() {
+        QueryStringStatistics statistics = QueryStringStatistics.create();
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.IGNORE_EXCESS).maxPairs(3).build();
+        String queryString = "page=1&sort=name&sort=stars&city=melbourne";
+
+        for (QueryStringCache cache : Arrays.asList(null, QueryStringCache.lru(10))) {
+            QueryStringHelper helper = new QueryStringHelper(cache, PercentCodec.of(), statistics, limits);
+            assertThat(helper.replaceFirst(queryString, "page", "2")).isEqualTo("page=2&sort=name&sort=stars");
+            assertThat(helper.getFirstValue(queryString, "city")).isNull();
+            assertThat(helper.getAllValues(queryString, "sort")).containsExactly("name", "stars");
+            assertThat(helper.isFieldSorted(queryString, "stars")).isTrue();
+            assertThat(helper.applyPlan(queryString, "remove page")).isEqualTo("sort=name&sort=stars");
+            assertThat(helper.pagination(queryString, 0, 2).getNext().getQueryString())
+                    .isEqualTo("page=1&sort=name&sort=stars");
+        }
+        assertThat(statistics.getLimitExceededCounts()).containsOnlyKeys(QueryStringLimits.MAX_PAIRS);
+    }
+
+    @Test
+    public void helper_UnchangedPolicy_ReturnsInput() {
+        QueryStringLimits limits = limits(QueryStringLimits.Policy.UNCHANGED).maxPairs(3).build();
+        String queryString = "page=1&sort=name&sort=stars&city=melbourne";
+
+        for (QueryStringCache cache : Arrays.asList(null, QueryStringCache.lru(10))) {
+            QueryStringHelper helper = new QueryStringHelper(cache, PercentCodec.of(), QueryStringStatistics.create(),
+                    limits);
+            assertThat(helper.replaceFirst(queryString, "page", "2")).isEqualTo(queryString);
+            assertThat(helper.add(queryString, "size", "10")).isEqualTo(queryString);
+            assertThat(helper.removeAll(queryString, Collections.singletonList("sort"))).isEqualTo(queryString);
+            assertThat(helper.on(queryString).incrementPage().build()).isEqualTo(queryString);
+            assertThat(helper.applyPlan(queryString, "remove page")).isEqualTo(queryString);
+            assertThat(helper.pagination(queryString, 0, 2).getNext().getQueryString()).isEqualTo(queryString);
+            assertThat(helper.sortHeader(queryString, "name", SortDirection.ASC, null, null, null).getQueryString())
+                    .isEqualTo(queryString);
+
+            assertThat(helper.getFirstValue(queryString, "page")).isNull();
+            assertThat(helper.getAllValues(queryString, "sort")).isEmpty();
+            assertThat(helper.isFieldSorted(queryString, "name")).isFalse();
+
+            // Within the limits the query string is processed as usual.
+            assertThat(helper.replaceFirst("page=1&size=10", "page", "2")).isEqualTo("page=2&size=10");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.expression.QueryStringHelper;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class QueryStringPlanTest {
+
+    private final QueryParamCodec codec = PercentCodec.of();
+
+    @Test
+    public void compile_illegal() {
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile(null));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile("remove"));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile("drop page"));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile("add sort"));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile("set =0"));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.compile("set page="));
+        assertThatIllegalArgumentException().isThrownBy(() -> QueryStringPlan.builder().add(" ", "x"));
+    }
+
+    @Test
+    public void compile_SameDefinition_ReturnsCachedPlan() {
+        String definition = "remove page sort; add sort=price,asc";
+        assertThat(QueryStringPlan.compile(definition)).isSameAs(QueryStringPlan.compile(definition));
+    }
+
+    @Test
+    public void compile_ToStringRoundTrips() {
+        QueryStringPlan plan = QueryStringPlan.compile("  add sort=price,asc ;; set page=0 ; remove region  ");
+        assertThat(plan.toString()).isEqualTo("remove region; set page=0; add sort=price,asc");
+        assertThat(QueryStringPlan.compile(plan.toString()).apply("region=x&page=4&a=1", codec))
+                .isEqualTo(plan.apply("region=x&page=4&a=1", codec));
+    }
+
+    @Test
+    public void apply_RemoveThenAdd() {
+        QueryStringPlan plan = QueryStringPlan.compile("remove page sort; add sort=price,asc");
+        assertThat(plan.apply("city=dallas&sort=country,desc&page=3&sort=name", codec)).isEqualTo("city=dallas&sort=price,asc");
+        assertThat(plan.apply(null, codec)).isEqualTo("sort=price,asc");
+        assertThat(plan.apply("", codec)).isEqualTo("sort=price,asc");
+    }
+
+    @Test
+    public void apply_SetReplacesFirstOrAppends() {
+        QueryStringPlan plan = QueryStringPlan.builder().set("page", "0").build();
+        assertThat(plan.apply("page=3&a=1&page=4", codec)).isEqualTo("page=0&a=1&page=4");
+        assertThat(plan.apply("a=1", codec)).isEqualTo("a=1&page=0");
+    }
+
+    @Test
+    public void apply_AddSkipsExistingPair() {
+        QueryStringPlan plan = QueryStringPlan.compile("add a=1 a=2 a=2");
+        assertThat(plan.apply("a=1&b=new%20york", codec)).isEqualTo("a=1&b=new%20york&a=2");
+    }
+
+    @Test
+    public void apply_SameAsQueryStringOperations() {
+        Random random = new Random(11);
+        String[] keys = {"a", "b", "page", "sort", "x%26y"};
+        String[] values = {"1", "2", "0", "name,asc", "new%20york", "%3D"};
+
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder query = new StringBuilder();
+            int pairs = random.nextInt(8);
+            for (int j = 0; j < pairs; j++) {
+                query.append(j > 0 ? "&" : "").append(keys[random.nextInt(keys.length)])
+                        .append('=').append(values[random.nextInt(values.length)]);
+            }
+
+            QueryStringPlan.Builder builder = QueryStringPlan.builder();
+            QueryString expected = QueryString.of(query.toString(), codec);
+            String removeKey = codec.unescapeQueryParam(keys[random.nextInt(keys.length)]);
+            builder.remove(removeKey);
+            expected.applyRemoveAll(Arrays.asList(removeKey));
+
+            String setKey = codec.unescapeQueryParam(keys[random.nextInt(keys.length)]);
+            String setValue = codec.unescapeQueryParam(values[random.nextInt(values.length)]);
+            builder.set(setKey, setValue);
+            if (expected.getFirstValue(setKey) == null) {
+                expected.applyAdd(setKey, setValue);
+            } else {
+                expected.applyReplaceFirst(setKey, setValue);
+            }
+
+            for (int j = 0; j < 2; j++) {
+                String addKey = codec.unescapeQueryParam(keys[random.nextInt(keys.length)]);
+                String addValue = codec.unescapeQueryParam(values[random.nextInt(values.length)]);
+                builder.add(addKey, addValue);
+                expected.applyAdd(addKey, addValue);
+            }
+
+            assertThat(builder.build().apply(query.toString(), codec)).as("%s", query)
+                    .isEqualTo(expected.reconstructQueryString());
+        }
+    }
+
+    @Test
+    public void helper_ApplyPlan() {
+        QueryStringHelper helper = new QueryStringHelper();
+        String plan = "set page=0; add sort=price,asc";
+        assertThat(helper.applyPlan("city=dallas&page=3", plan)).isEqualTo("city=dallas&page=0&sort=price,asc");
+        assertThat(helper.applyPlan(null, plan)).isEqualTo("page=0&sort=price,asc");
+        assertThat(helper.applyPlan("page=3", QueryStringPlan.builder().remove("page").build())).isEmpty();
+    }
+}
@@ -0,0 +1,287 @@
+package com.github.mjstewart.querystring.util;
+
+import com.github.mjstewart.querystring.Scalability;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards against operations whose cost grows faster than the size of the query string, since a crafted URL could
+ * otherwise pin a CPU inside a template render.
+ *
+ * <p>Every operation is timed at 10, 100, 1,000 and 10,000 pairs, with distinct keys, with every pair sharing the
+ * same key and with distinct keys sharing the same hash code. Each step is 10 times larger, so a linear operation
+ * grows about 10 times per step while a quadratic one grows about 100 times. {@code MAX_GROWTH} sits well between
+ * the two to tolerate timer noise.</p>
+ *
+ * <p>Timings depend on the machine so these only run with {@code mvn test -Pscalability}.</p>
+ */
+@Category(Scalability.class)
+public class QueryStringScalabilityTest {
+
+    private static final int[] SIZES = {10, 100, 1_000, 10_000};
+
+    // Linear growth is 10 per step, quadratic growth is 100.
+    private static final double MAX_GROWTH = 35;
+
+    // No operation should come close to this even at the largest size.
+    private static final long MAX_NANOS = 250_000_000L;
+
+    // Each sample processes about this many pairs so small sizes are not lost in timer resolution.
+    private static final int PAIRS_PER_SAMPLE = 20_000;
+
+    // Every operation is called this many times at each size before anything is timed, so the JIT has compiled every
+    // path, including those only reached once colliding hash bins become trees.
+    private static final int WARMUP_CALLS = 5_000;
+
+    // Caps the warm up of the largest sizes, the smaller sizes have already run the same code WARMUP_CALLS times.
+    private static final long MAX_WARMUP_NANOS = 500_000_000L;
+
+    private static final int SAMPLES = 7;
+
+    private static final QueryParamCodec CODEC = PercentCodec.of();
+
+    // Prevents the JIT from eliminating the measured call.
+    private static volatile Object sink;
+
+    /**
+     * The input an operation is timed against.
+     */
+    private static final class Input {
+        private final String queryString;
+        private final String key;
+        private final int pairs;
+
+        private Input(String queryString, String key, int pairs) {
+            this.queryString = queryString;
+            this.key = key;
+            this.pairs = pairs;
+        }
+
+        private QueryString parse() {
+            return QueryString.of(queryString, CODEC);
+        }
+    }
+
+    /**
+     * {@code k0=v0&k1=v1&...&sort=f0,asc&...} where half the pairs are distinct keys and half are sort fields.
+     */
+    private static Input distinctKeys(int pairs) {
+        StringBuilder builder = new StringBuilder(pairs * 12);
+        for (int i = 0; i < pairs; i++) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            if (i % 2 == 0) {
+                builder.append('k').append(i).append("=v").append(i);
+            } else {
+                builder.append("sort=f").append(i).append(i % 4 == 1 ? ",asc" : ",desc");
+            }
+        }
+        return new Input(builder.toString(), "sort", pairs);
+    }
+
+    /**
+     * {@code a=0&a=1&...} where every pair shares the same key.
+     */
+    private static Input repeatedKey(int pairs) {
+        StringBuilder builder = new StringBuilder(pairs * 6);
+        for (int i = 0; i < pairs; i++) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            builder.append("a=").append(i);
+        }
+        return new Input(builder.toString(), "a", pairs);
+    }
+
+    /**
+     * {@code AaAa...=0&AaBB...=1&...} where every key has the same {@code hashCode}, given {@code "Aa"} and
+     * {@code "BB"} collide and so does any string built from them.
+     */
+    private static Input collidingKeys(int pairs) {
+        StringBuilder builder = new StringBuilder(pairs * 36);
+        for (int i = 0; i < pairs; i++) {
+            if (builder.length() > 0) {
+                builder.append('&');
+            }
+            for (int bit = 0; bit < 14; bit++) {
+                builder.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+            }
+            builder.append('=').append(i);
+        }
+        return new Input(builder.toString(), "AaAaAaAaAaAaAaAaAaAaAaAaAaAa", pairs);
+    }
+
+    private static List<Integer> everyOtherIndex(int pairs) {
+        List<Integer> indexes = new ArrayList<>(pairs / 2);
+        // Descending to defeat any early exit on sorted input.
+        for (int i = pairs - 1; i >= 0; i -= 2) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    private static List<String> values(int pairs) {
+        List<String> values = new ArrayList<>(pairs);
+        for (int i = 0; i < pairs; i++) {
+            values.add("x" + i);
+        }
+        return values;
+    }
+
+    /**
+     * Each operation receives its input and returns the call to time, so arguments are built outside the measurement.
+     */
+    private static Map<String, Function<Input, Runnable>> operations() {
+        Map<String, Function<Input, Runnable>> operations = new LinkedHashMap<>();
+        operations.put("createState", input -> input::parse);
+        operations.put("reconstructQueryString", input -> {
+            QueryString parsed = input.parse();
+            return () -> sink = parsed.reconstructQueryString();
+        });
+        operations.put("getAllValues", input -> () -> sink = input.parse().getAllValues(input.key));
+        operations.put("replaceN", input -> {
+            List<String> values = values(input.pairs);
+            return () -> sink = input.parse().replaceN(input.key, values);
+        });
+        operations.put("replaceNth", input -> {
+            Map<Integer, String> replacements = new HashMap<>();
+            for (int i = 0; i < input.pairs; i += 2) {
+                replacements.put(i, "x" + i);
+            }
+            Map<String, Map<Integer, String>> instructions = new HashMap<>();
+            instructions.put(input.key, replacements);
+            return () -> sink = input.parse().replaceNth(instructions);
+        });
+        operations.put("removeAll", input -> {
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; i < input.pairs; i += 4) {
+                keys.add("k" + i);
+            }
+            keys.add(input.key);
+            return () -> sink = input.parse().removeAll(keys);
+        });
+        operations.put("removeN", input -> () -> sink = input.parse().removeN(input.key, input.pairs / 2));
+        operations.put("removeManyNth", input -> {
+            List<Integer> indexes = everyOtherIndex(input.pairs);
+            return () -> sink = input.parse().removeManyNth(input.key, indexes);
+        });
+        operations.put("adjustNumericValueBy", input -> {
+            List<Integer> indexes = everyOtherIndex(input.pairs);
+            return () -> sink = input.parse().adjustNumericValueBy(input.key, indexes, 1);
+        });
+        operations.put("removeKeyMatchingValue", input -> () -> sink = input.parse().removeKeyMatchingValue(input.key, "1"));
+        operations.put("removeAnyKeyMatchingValue", input -> () -> sink = input.parse().removeAnyKeyMatchingValue("v0"));
+        operations.put("addAll", input -> {
+            List<List<String>> pairs = new ArrayList<>(input.pairs);
+            for (int i = 0; i < input.pairs; i++) {
+                pairs.add(Arrays.asList(i % 2 == 0 ? input.key : "n" + i, "x" + i));
+            }
+            return () -> sink = input.parse().addAll(pairs);
+        });
+        operations.put("keepSortField", input -> () -> sink = input.parse().keepSortField("f1"));
+        operations.put("toggleSortDefaultAsc", input -> () -> sink = input.parse().toggleSortDefaultAsc("f1"));
+        return operations;
+    }
+
+    @Test
+    public void distinctKeysGrowLinearly() {
+        assertLinearGrowth(QueryStringScalabilityTest::distinctKeys);
+    }
+
+    @Test
+    public void repeatedKeyGrowsLinearly() {
+        assertLinearGrowth(QueryStringScalabilityTest::repeatedKey);
+    }
+
+    @Test
+    public void collidingKeysGrowLinearly() {
+        assertLinearGrowth(QueryStringScalabilityTest::collidingKeys);
+    }
+
+    @Test
+    public void thousandRepeatsOfOneKeyRemainCheap() {
+        Input input = repeatedKey(1_000);
+        List<String> slow = new ArrayList<>();
+        for (Map.Entry<String, Function<Input, Runnable>> operation : operations().entrySet()) {
+            Runnable call = operation.getValue().apply(input);
+            warmUp(call);
+            long nanos = nanosPerCall(call, 1_000);
+            // 1,000 pairs is comfortably below a millisecond for every linear operation.
+            if (nanos > 5_000_000L) {
+                slow.add(operation.getKey() + " took " + nanos + "ns");
+            }
+        }
+        assertThat(slow).isEmpty();
+    }
+
+    private static void assertLinearGrowth(IntFunction<Input> inputOfSize) {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, Function<Input, Runnable>> operation : operations().entrySet()) {
+            List<Runnable> calls = new ArrayList<>(SIZES.length);
+            for (int size : SIZES) {
+                calls.add(operation.getValue().apply(inputOfSize.apply(size)));
+            }
+            // Warm up every size before timing any, so no size runs code the JIT has not yet seen.
+            for (Runnable call : calls) {
+                warmUp(call);
+            }
+
+            long previous = 0;
+            for (int i = 0; i < SIZES.length; i++) {
+                int size = SIZES[i];
+                long nanos = nanosPerCall(calls.get(i), size);
+                if (nanos > MAX_NANOS) {
+                    failures.add(operation.getKey() + " took " + nanos + "ns at " + size + " pairs");
+                }
+                // The smallest size is dominated by fixed costs and noise, growth is checked from 100 pairs.
+                if (i >= 2 && nanos > previous * MAX_GROWTH) {
+                    failures.add(operation.getKey() + " grew from " + previous + "ns to " + nanos + "ns at "
+                            + size + " pairs");
+                }
+                previous = nanos;
+            }
+        }
+        assertThat(failures).isEmpty();
+    }
+
+    /**
+     * Runs the {@code call} {@code WARMUP_CALLS} times or for {@code MAX_WARMUP_NANOS}, whichever comes first, so the
+     * JIT has compiled the operation before it is timed.
+     */
+    private static void warmUp(Runnable call) {
+        long start = System.nanoTime();
+        int calls = 0;
+        while (calls < WARMUP_CALLS && System.nanoTime() - start < MAX_WARMUP_NANOS) {
+            call.run();
+            calls++;
+        }
+    }
+
+    /**
+     * @return The lowest average time of a single call across the samples, the call must already be warmed up.
+     */
+    private static long nanosPerCall(Runnable call, int pairs) {
+        int calls = Math.max(1, PAIRS_PER_SAMPLE / pairs);
+        long lowest = Long.MAX_VALUE;
+        for (int sample = 0; sample < SAMPLES; sample++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++) {
+                call.run();
+            }
+            lowest = Math.min(lowest, (System.nanoTime() - start) / calls);
+        }
+        return lowest;
+    }
+}
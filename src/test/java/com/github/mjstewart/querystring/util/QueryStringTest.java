@@ -3,8 +3,14 @@ package com.github.mjstewart.querystring.util;
 import org.junit.Test;
 import org.thymeleaf.expression.Uris;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -78,6 +84,38 @@ public class QueryStringTest {
         assertThat(queryString.getNextOverallIndex()).isEqualTo(11);
     }
 
+    /**
+     * The next overall index only increases so a removed index is never handed out again.
+     */
+    @Test
+    public void getNextOverallIndex_TracksAddsAndRemovals() {
+        QueryString queryString = QueryString.of("a=1&b=2&c=3", new Uris());
+        assertThat(queryString.getNextOverallIndex()).isEqualTo(3);
+
+        queryString.removeAll(Collections.singletonList("c"));
+        assertThat(queryString.getNextOverallIndex()).isEqualTo(3);
+
+        queryString.addAll(Arrays.asList(Arrays.asList("d", "4"), Arrays.asList("e", "5"), Arrays.asList("d", "4")));
+        assertThat(queryString.getNextOverallIndex()).isEqualTo(5);
+        assertThat(queryString.getState().get("e")).containsExactly(QueryString.KeyValue.fromKeyValue("e=5").get().toIndex(4));
+    }
+
+    /**
+     * An empty query string previously returned 1, the highest index in use defaulted to 0 before adding 1. It now
+     * returns 0 so the first pair added to an empty query string has index 0, the same as the first parsed pair.
+     */
+    @Test
+    public void getNextOverallIndex_Empty_Zero() {
+        assertThat(QueryString.of(null, new Uris()).getNextOverallIndex()).isEqualTo(0);
+        assertThat(QueryString.of("", new Uris()).getNextOverallIndex()).isEqualTo(0);
+        assertThat(QueryString.of("&&invalid&", new Uris()).getNextOverallIndex()).isEqualTo(0);
+
+        QueryString queryString = QueryString.of(null, new Uris());
+        assertThat(queryString.add("a", "1")).isEqualTo("a=1");
+        assertThat(queryString.getState().get("a")).containsExactly(QueryString.KeyValue.fromKeyValue("a=1").get().toIndex(0));
+        assertThat(queryString.getNextOverallIndex()).isEqualTo(1);
+    }
+
     /**
      * If nothing is changed in the query string, it should be the same as the original.
      */
@@ -97,4 +135,188 @@ public class QueryStringTest {
         QueryString queryString = QueryString.of(query, new Uris());
         assertThat(queryString.reconstructQueryString()).isEqualTo(query);
     }
-}
\ No newline at end of file
+
+    /**
+     * Pairs removed from the middle leave gaps in the overall order which must be skipped, replacements keep their
+     * position and additions always go to the end.
+     */
+    @Test
+    public void reconstructQueryString_AfterManyChanges_KeepsOrder() {
+        String query = "a=1&b=2&c=3&b=4&d=5&e=6";
+        QueryString queryString = QueryString.of(query, new Uris());
+
+        String result = QueryStringBuilder.from(queryString)
+                .removeFirst("b")
+                .removeAll(Collections.singletonList("e"))
+                .replaceFirst("d", "50")
+                .add("f", "7")
+                .add("b", "8")
+                .replaceFirst("a", "10")
+                .build();
+
+        assertThat(result).isEqualTo("a=10&c=3&b=4&d=50&f=7&b=8");
+    }
+
+    /**
+     * Only literal '&' and '=' characters separate pairs, escaped ones belong to the key or value.
+     */
+    @Test
+    public void getState_EscapedSeparatorsAreNotSplit() {
+        String query = "q=salt%26pepper&expr=a%3Db&k%26=v&page=1";
+        QueryString queryString = QueryString.of(query, new Uris());
+
+        assertThat(queryString.getAllValues("q")).containsExactly("salt&pepper");
+        assertThat(queryString.getAllValues("expr")).containsExactly("a=b");
+        assertThat(queryString.getAllValues("k&")).containsExactly("v");
+        assertThat(queryString.getNextOverallIndex()).isEqualTo(4);
+        assertThat(queryString.reconstructQueryString()).isEqualTo(query);
+    }
+
+    /**
+     * Keys and values only blank once unescaped are skipped.
+     */
+    @Test
+    public void getState_EscapedBlanksAreSkipped() {
+        QueryString queryString = QueryString.of("%20=a&b=+%20&c=%20x&+d=1", new Uris());
+
+        assertThat(queryString.getState().keySet()).containsOnly("c", " d");
+        assertThat(queryString.getFirstValue("c")).isEqualTo(" x");
+    }
+
+    /**
+     * Each key and value is unescaped on its own so a stray '%' before '&' or at the end is an incomplete escape,
+     * which is kept as literal text rather than failing the whole query string.
+     */
+    @Test
+    public void getState_IncompleteEscapesAreLiteral() {
+        for (QueryParamCodec codec : Arrays.asList(new UrisCodec(new Uris()), PercentCodec.of())) {
+            QueryString percent = QueryString.of("q=100%&page=2", codec);
+            assertThat(percent.getFirstValue("q")).isEqualTo("100%");
+            assertThat(percent.getFirstValue("page")).isEqualTo("2");
+            assertThat(percent.replaceFirst("page", "3")).isEqualTo("q=100%25&page=3");
+
+            QueryString partial = QueryString.of("q=%2&page=2", codec);
+            assertThat(partial.getFirstValue("q")).isEqualTo("%2");
+            assertThat(partial.getFirstValue("page")).isEqualTo("2");
+
+            QueryString bare = QueryString.of("q=%&page=2&r=a%20b%", codec);
+            assertThat(bare.getFirstValue("q")).isEqualTo("%");
+            assertThat(bare.getFirstValue("r")).isEqualTo("a b%");
+            assertThat(QueryString.of("q=100%", codec).getOriginalQueryString()).isEqualTo("q=100%");
+
+            assertThat(QueryStringSnapshot.of("q=100%", codec).getFirstValue("q")).isEqualTo("100%");
+            assertThat(QueryStringSnapshot.of("q=100%", codec).toString()).isEqualTo("q=100%");
+            assertThat(QueryStringView.of("q=%2&page=2", codec).getAllValues("q")).containsExactly("%2");
+            assertThat(QueryStringView.of("q=100%", codec).toString()).isEqualTo("q=100%");
+        }
+    }
+
+    /**
+     * Keys and values without a '%' or '+' are never passed to the codec.
+     */
+    @Test
+    public void getState_PlainTokensAreNotUnescaped() {
+        List<String> unescaped = new ArrayList<>();
+        QueryParamCodec uris = new UrisCodec(new Uris());
+        QueryParamCodec codec = new QueryParamCodec() {
+            @Override
+            public String escapeQueryParam(String value) {
+                return uris.escapeQueryParam(value);
+            }
+
+            @Override
+            public String unescapeQueryParam(String value) {
+                unescaped.add(value);
+                return uris.unescapeQueryParam(value);
+            }
+        };
+
+        QueryString queryString = QueryString.of("page=2&sort=name,asc&city=new%20york&q=a+b", codec);
+
+        assertThat(queryString.getFirstValue("city")).isEqualTo("new york");
+        assertThat(queryString.getFirstValue("q")).isEqualTo("a b");
+        assertThat(unescaped).containsExactly("new%20york", "a+b");
+    }
+
+    /**
+     * The single pass lexer must accept exactly the same pairs as splitting on '&' followed by splitting on '='.
+     */
+    @Test
+    public void getState_MatchesSplitSemantics() {
+        List<String> queries = Arrays.asList(
+                "a=b=c&d=e",
+                "a=&b=2",
+                "=b&c=3",
+                "a=b=&c=d==",
+                "a==b&c=d",
+                "&&a=1&&&b=2&&",
+                "=&==&a",
+                " =b&a= &c = d&e=\tf",
+                "key4=ValueA&key2=ValueB&key4=ValueA&key2=ValueC"
+        );
+
+        for (String query : queries) {
+            assertThat(QueryString.of(query, new Uris()).getState())
+                    .as(query)
+                    .isEqualTo(splitState(query));
+        }
+    }
+
+    @Test
+    public void templateOf_SameAsReplaceFirstOrAdd() {
+        String[] queries = {
+                "", "page=3", "a=1&page=3&b=new%20york", "page=1&page=2", "a=1&b=2", "a=%26&page=0&c=x%3Dy", "a=1&page=&b=2"
+        };
+        for (String query : queries) {
+            QueryStringTemplate template = QueryString.of(query, new Uris()).templateOf("page");
+            for (String value : new String[]{"0", "12", "a b"}) {
+                QueryString expected = QueryString.of(query, new Uris());
+                String expect = expected.getFirstValue("page") == null ?
+                        expected.add("page", value) : expected.replaceFirst("page", value);
+                assertThat(template.fill(value)).as("%s %s", query, value).isEqualTo(expect);
+            }
+            assertThat(template.fill(42L)).isEqualTo(template.fill("42"));
+        }
+    }
+
+    @Test
+    public void templateOf_AfterRemoval() {
+        QueryString queryString = QueryString.of("page=1&a=2&page=3", new Uris());
+        queryString.removeFirst("page");
+        QueryStringTemplate template = queryString.templateOf("page");
+        assertThat(template.getPrefix()).isEqualTo("a=2&page=");
+        assertThat(template.getSuffix()).isEmpty();
+    }
+
+    @Test
+    public void adjustNumericValueBy_BoxedPredicate() {
+        Predicate<Integer> belowTen = currentValue -> currentValue < 10;
+        assertThat(QueryString.of("a=5&a=10&b=1", new Uris()).adjustNumericValueBy("a", Arrays.asList(0, 1), 1, belowTen))
+                .isEqualTo("a=6&a=10&b=1");
+        // An implicitly typed lambda still compiles as it did before the primitive variants were added.
+        assertThat(QueryString.of("a=5&a=10&b=1", new Uris()).adjustNumericValueBy("a", Arrays.asList(0, 1), 1, v -> v > 5))
+                .isEqualTo("a=5&a=11&b=1");
+    }
+
+    @Test
+    public void adjustIntValueBy_AndAdjustLongValueBy() {
+        assertThat(QueryString.of("a=5&a=10&b=1", new Uris()).adjustIntValueBy("a", Arrays.asList(0, 1), 1, v -> v < 10))
+                .isEqualTo("a=6&a=10&b=1");
+        assertThat(QueryString.of("a=5000000000&a=10", new Uris())
+                .adjustLongValueBy("a", Arrays.asList(0, 1), 10, 0, 5_000_000_005L, v -> true))
+                .isEqualTo("a=5000000005&a=20");
+    }
+
+    private static Map<String, List<QueryString.KeyValueIndex>> splitState(String query) {
+        Map<String, List<QueryString.KeyValueIndex>> state = new HashMap<>();
+        int index = 0;
+        for (String token : query.split("&")) {
+            Optional<QueryString.KeyValue> maybeKeyValue = QueryString.KeyValue.fromKeyValue(token);
+            if (maybeKeyValue.isPresent()) {
+                QueryString.KeyValue kv = maybeKeyValue.get();
+                state.computeIfAbsent(kv.getKey(), k -> new ArrayList<>()).add(kv.toIndex(index++));
+            }
+        }
+        return state;
+    }
+}
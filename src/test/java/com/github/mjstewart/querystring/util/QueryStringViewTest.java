@@ -0,0 +1,81 @@
+package com.github.mjstewart.querystring.util;
+
+import org.junit.Test;
+import org.thymeleaf.expression.Uris;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class QueryStringViewTest {
+
+    private static final String QUERY = "state=VIC&region=outer&sort=stars,desc&page=2&region=north&sort=name&sort=city,,asc&sort=,desc&x=a=b";
+
+    @Test
+    public void size_OnlyCountsValidPairs() {
+        assertThat(QueryStringView.of(QUERY, new Uris()).size()).isEqualTo(8);
+        assertThat(QueryStringView.of(null, new Uris()).size()).isEqualTo(0);
+        assertThat(QueryStringView.of("", new Uris()).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void keysAndValues_InQueryStringOrder() {
+        QueryStringView view = QueryStringView.of(QUERY, new Uris());
+
+        assertThat(view.getKey(1)).isEqualTo("region");
+        assertThat(view.getValue(1)).isEqualTo("outer");
+        assertThat(view.keyEquals(4, "region")).isTrue();
+        assertThat(view.keyEquals(4, "regio")).isFalse();
+        assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> view.getKey(8));
+    }
+
+    /**
+     * The view must agree with {@code QueryString} for every read operation.
+     */
+    @Test
+    public void readOperations_MatchQueryString() {
+        Uris uris = new Uris();
+        QueryStringView view = QueryStringView.of(QUERY, uris);
+
+        for (String key : new String[]{"state", "region", "sort", "page", "x", "missing", null}) {
+            assertThat(view.getFirstValue(key)).isEqualTo(QueryString.of(QUERY, uris).getFirstValue(key));
+            assertThat(view.getAllValues(key)).isEqualTo(QueryString.of(QUERY, uris).getAllValues(key));
+        }
+
+        for (String field : new String[]{"stars", "name", "city", "", "missing"}) {
+            assertThat(view.isFieldSorted(field)).isEqualTo(QueryString.of(QUERY, uris).isFieldSorted(field));
+        }
+    }
+
+    @Test
+    public void getCurrentSortDirection() {
+        QueryStringView view = QueryStringView.of(QUERY, new Uris());
+
+        assertThat(view.getCurrentSortDirection("stars", SortDirection.ASC)).isEqualTo("desc");
+        assertThat(view.getCurrentSortDirection("name", SortDirection.ASC)).isEqualTo("asc");
+        assertThat(view.getCurrentSortDirection("name", SortDirection.DESC)).isEqualTo("desc");
+        // split(",") on 'city,,asc' has an empty second token.
+        assertThat(view.getCurrentSortDirection("city", SortDirection.ASC)).isEmpty();
+        assertThat(view.getCurrentSortDirection("", SortDirection.ASC)).isEqualTo("desc");
+        assertThat(view.getCurrentSortDirection("missing", SortDirection.ASC)).isNull();
+    }
+
+    @Test
+    public void escapedValues_AreUnescaped() {
+        QueryStringView view = QueryStringView.of("city=new%20york&sort=first%20name,desc", new Uris());
+
+        assertThat(view.getFirstValue("city")).isEqualTo("new york");
+        assertThat(view.isFieldSorted("first name")).isTrue();
+    }
+
+    @Test
+    public void escapedSeparators_AreNotSplit() {
+        QueryStringView view = QueryStringView.of("q=salt%26pepper&sort%3D=x&sort=a%26b,desc&k=v", new Uris());
+
+        assertThat(view.size()).isEqualTo(4);
+        assertThat(view.getFirstValue("q")).isEqualTo("salt&pepper");
+        assertThat(view.keyEquals(1, "sort=")).isTrue();
+        assertThat(view.getAllValues("sort")).containsExactly("a&b,desc");
+        assertThat(view.getCurrentSortDirection("a&b", SortDirection.ASC)).isEqualTo("desc");
+        assertThat(view.toString()).isEqualTo("q=salt&pepper&sort==x&sort=a&b,desc&k=v");
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.mjstewart.querystring.util;
+
+import org.junit.Test;
+import org.thymeleaf.expression.Uris;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SortSpecTest {
+
+    @Test
+    public void of_ParsesFieldsAndDirections() {
+        SortSpec spec = SortSpec.of(Arrays.asList("stars,desc", "name", "city,asc", " country , desc ", "a,asc,desc"));
+
+        assertThat(spec.size()).isEqualTo(5);
+        assertThat(spec.getField(0)).isEqualTo("stars");
+        assertThat(spec.getDirection(0)).isEqualTo(SortDirection.DESC);
+        assertThat(spec.getDirection(1)).isEqualTo(SortDirection.NONE);
+        assertThat(spec.getDirection(2)).isEqualTo(SortDirection.ASC);
+        assertThat(spec.getDirection(3)).isEqualTo(SortDirection.DESC);
+        // not in the field,direction form.
+        assertThat(spec.getDirection(4)).isEqualTo(SortDirection.NONE);
+    }
+
+    @Test
+    public void of_Empty() {
+        assertThat(SortSpec.of(null).size()).isEqualTo(0);
+        assertThat(SortSpec.of(Collections.emptyList()).isSorted("name")).isFalse();
+    }
+
+    /**
+     * Repeated fields resolve to the first entry.
+     */
+    @Test
+    public void indexOf_FirstEntryWins() {
+        SortSpec spec = SortSpec.of(Arrays.asList("name,desc", "city", "name,asc"));
+
+        assertThat(spec.indexOf("name")).isEqualTo(0);
+        assertThat(spec.indexOf("city")).isEqualTo(1);
+        assertThat(spec.indexOf("missing")).isEqualTo(-1);
+        assertThat(spec.indexOf(null)).isEqualTo(-1);
+        assertThat(spec.getCurrentDirection("name", SortDirection.ASC)).isEqualTo("desc");
+    }
+
+    /**
+     * Exact lookups compare the untrimmed field, {@code indexOfTrimmed} ignores surrounding whitespace.
+     */
+    @Test
+    public void indexOfTrimmed_IgnoresWhitespace() {
+        SortSpec spec = SortSpec.of(Arrays.asList(",desc", ",,", " name ,asc"));
+
+        assertThat(spec.isSorted("")).isTrue();
+        assertThat(spec.isSorted("name")).isFalse();
+        assertThat(spec.indexOfTrimmed("name ")).isEqualTo(2);
+        assertThat(spec.indexOfTrimmed("")).isEqualTo(0);
+        assertThat(spec.withDirection(2, SortDirection.DESC)).isEqualTo("name,desc");
+        assertThat(spec.withDirection(2, SortDirection.NONE)).isEqualTo("name");
+    }
+
+    @Test
+    public void getCurrentDirection_ReturnsRawDirection() {
+        SortSpec spec = SortSpec.of(Arrays.asList("name", "city,,asc", "stars,DESC"));
+
+        assertThat(spec.getCurrentDirection("name", SortDirection.ASC)).isEqualTo("asc");
+        assertThat(spec.getCurrentDirection("name", SortDirection.DESC)).isEqualTo("desc");
+        assertThat(spec.getCurrentDirection("city", SortDirection.ASC)).isEmpty();
+        assertThat(spec.getCurrentDirection("stars", SortDirection.ASC)).isEqualTo("DESC");
+        assertThat(spec.getCurrentDirection("missing", SortDirection.ASC)).isNull();
+    }
+
+    /**
+     * Changes to the sort values must be seen by later sort operations on the same instance.
+     */
+    @Test
+    public void queryString_SortSpecFollowsChanges() {
+        QueryString queryString = QueryString.of("sort=name,asc&page=1&sort=city", new Uris());
+        assertThat(queryString.getSortSpec().size()).isEqualTo(2);
+
+        queryString.applySetSortDirection("city", currentDirection -> SortDirection.DESC);
+        assertThat(queryString.getCurrentSortDirection("city", SortDirection.ASC)).isEqualTo("desc");
+
+        queryString.applyKeepSortField("city");
+        assertThat(queryString.isFieldSorted("name")).isFalse();
+        assertThat(queryString.getSortSpec().size()).isEqualTo(1);
+
+        queryString.applyAdd("sort", "stars");
+        assertThat(queryString.isFieldSorted("stars")).isTrue();
+        assertThat(queryString.reconstructQueryString()).isEqualTo("page=1&sort=city,desc&sort=stars");
+    }
+}